@@ -0,0 +1,72 @@
+package com.neighborshare.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Webhook signature verification: the previous per-call implementation against
+ * {@link HmacSignatureVerifier}. Run with {@code -prof gc} to compare allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class HmacSignatureBenchmark {
+
+    @Param({"512", "4096"})
+    private int payloadBytes;
+
+    private String payload;
+    private String signature;
+    private HmacSignatureVerifier singleSecret;
+    private HmacSignatureVerifier rotatingSecrets;
+
+    @Setup
+    public void setUp() {
+        payload = "{\"event\":\"payment.captured\",\"payload\":\"" + "x".repeat(payloadBytes) + "\"}";
+        singleSecret = new HmacSignatureVerifier(List.of("webhook_secret"));
+        rotatingSecrets = new HmacSignatureVerifier(List.of("next_secret", "webhook_secret"));
+        signature = singleSecret.sign(payload);
+    }
+
+    @Benchmark
+    public boolean perCallMacAndFormat() throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec("webhook_secret".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] hash = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder();
+        for (byte b : hash) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString().equals(signature);
+    }
+
+    @Benchmark
+    public boolean reusableMac() {
+        return singleSecret.verify(payload, signature);
+    }
+
+    @Benchmark
+    public boolean reusableMacTwoSecrets() {
+        return rotatingSecrets.verify(payload, signature);
+    }
+}
@@ -1,5 +1,7 @@
 package com.neighborshare.config;
 
+import com.neighborshare.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +28,7 @@ import java.util.UUID;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtProvider jwtProvider;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(
@@ -38,9 +41,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = extractTokenFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtProvider.validateToken(jwt)) {
-                UUID userId = jwtProvider.extractUserIdFromToken(jwt);
-                UUID apartmentId = jwtProvider.extractApartmentIdFromToken(jwt);
+            if (StringUtils.hasText(jwt)) {
+                Claims claims = jwtProvider.parseClaims(jwt);
+                if ("refresh".equals(claims.get("type", String.class))) {
+                    throw new JwtException("Refresh tokens cannot authenticate requests");
+                }
+                UUID userId = UUID.fromString(claims.getSubject());
+                UUID apartmentId = UUID.fromString(claims.get("apartmentId", String.class));
+
+                if (tokenRevocationService.isRevoked(claims.getId(), userId, claims.getIssuedAt())) {
+                    throw new JwtException("Token has been revoked");
+                }
 
                 // Create authentication token
                 UsernamePasswordAuthenticationToken authentication =
@@ -50,6 +61,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 // Store apartment ID in request for later use
                 request.setAttribute("apartmentId", apartmentId);
                 request.setAttribute("userId", userId);
+                request.setAttribute("tokenId", claims.getId());
+                request.setAttribute("tokenExpiresAt", claims.getExpiration());
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
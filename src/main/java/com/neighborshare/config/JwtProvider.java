@@ -1,72 +1,121 @@
 package com.neighborshare.config;
 
+import com.neighborshare.security.JwtKeyRing;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.PublicKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Issues tokens signed with the node's current asymmetric key (with a {@code kid} header) and
+ * verifies them against the key ring. Tokens without a {@code kid} were signed with the old
+ * shared HMAC secret and are accepted only while {@code jwt.legacy-hmac-enabled} is set.
+ */
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class JwtProvider {
 
-    @Value("${jwt.secret}")
+    private static final String PLACEHOLDER_SECRET = "your-secret-key-change-this-in-production-minimum-256-bits";
+
+    private final JwtKeyRing keyRing;
+
+    @Value("${jwt.secret:}")
     private String jwtSecret;
 
+    @Value("${jwt.legacy-hmac-enabled:false}")
+    private boolean legacyHmacEnabled;
+
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
     @Value("${jwt.refresh-token-expiration}")
     private long refreshTokenExpirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
-    }
+    private JwtParser parser;
 
-    public String generateAccessToken(UUID userId, UUID apartmentId, String roles) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("apartmentId", apartmentId.toString());
-        claims.put("roles", roles);
+    @PostConstruct
+    public void init() {
+        if (legacyHmacEnabled && (jwtSecret.isBlank() || PLACEHOLDER_SECRET.equals(jwtSecret))) {
+            throw new IllegalStateException("jwt.legacy-hmac-enabled requires jwt.secret to be set to a real secret");
+        }
+        Key legacyKey = legacyHmacEnabled ? Keys.hmacShaKeyFor(jwtSecret.getBytes()) : null;
+        parser = Jwts.parser()
+            .keyLocator(new LocatorAdapter<>() {
+                @Override
+                protected Key locate(ProtectedHeader header) {
+                    String kid = header.getKeyId();
+                    if (kid == null) {
+                        if (legacyKey == null) {
+                            throw new JwtException("Token has no key id");
+                        }
+                        return legacyKey;
+                    }
+                    PublicKey key = keyRing.findVerificationKey(kid);
+                    if (key == null) {
+                        throw new JwtException("Unknown signing key: " + kid);
+                    }
+                    return key;
+                }
+            })
+            .build();
+    }
 
+    private String sign(Map<String, Object> claims, UUID userId, long lifetimeSeconds) {
+        JwtKeyRing.SigningKey signingKey = keyRing.currentSigningKey();
         return Jwts.builder()
+            .header().keyId(signingKey.kid()).and()
             .claims(claims)
+            .id(UUID.randomUUID().toString())
             .subject(userId.toString())
             .issuedAt(new Date())
-            .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs * 1000))
-            .signWith(getSigningKey())
+            .expiration(new Date(System.currentTimeMillis() + lifetimeSeconds * 1000))
+            .signWith(signingKey.privateKey())
             .compact();
     }
 
+    public String generateAccessToken(UUID userId, UUID apartmentId, String roles) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("apartmentId", apartmentId.toString());
+        claims.put("roles", roles);
+
+        return sign(claims, userId, jwtExpirationMs);
+    }
+
     public String generateRefreshToken(UUID userId, UUID apartmentId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("apartmentId", apartmentId.toString());
         claims.put("type", "refresh");
 
-        return Jwts.builder()
-            .claims(claims)
-            .subject(userId.toString())
-            .issuedAt(new Date())
-            .expiration(new Date(System.currentTimeMillis() + refreshTokenExpirationMs * 1000))
-            .signWith(getSigningKey())
-            .compact();
+        return sign(claims, userId, refreshTokenExpirationMs);
+    }
+
+    /**
+     * Verifies the signature and expiry and returns the claims, so callers that need several
+     * claims parse the token only once.
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public UUID extractUserIdFromToken(String token) {
         try {
-            String userIdStr = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-            return UUID.fromString(userIdStr);
+            return UUID.fromString(parseClaims(token).getSubject());
         } catch (JwtException e) {
             log.warn("Failed to extract user ID from token: {}", e.getMessage());
             throw new JwtException("Invalid token", e);
@@ -75,13 +124,7 @@ public class JwtProvider {
 
     public UUID extractApartmentIdFromToken(String token) {
         try {
-            String apartmentIdStr = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .get("apartmentId", String.class);
-            return UUID.fromString(apartmentIdStr);
+            return UUID.fromString(parseClaims(token).get("apartmentId", String.class));
         } catch (JwtException e) {
             log.warn("Failed to extract apartment ID from token: {}", e.getMessage());
             throw new JwtException("Invalid token", e);
@@ -90,10 +133,7 @@ public class JwtProvider {
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
+            parseClaims(token);
             return true;
         } catch (JwtException e) {
             log.warn("JWT validation failed: {}", e.getMessage());
@@ -103,13 +143,7 @@ public class JwtProvider {
 
     public boolean isTokenExpired(String token) {
         try {
-            Date expiration = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getExpiration();
-            return expiration.before(new Date());
+            return parseClaims(token).getExpiration().before(new Date());
         } catch (JwtException e) {
             return true;
         }
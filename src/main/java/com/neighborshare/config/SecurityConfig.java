@@ -1,9 +1,12 @@
 package com.neighborshare.config;
 
+import com.neighborshare.security.IdempotencyFilter;
+import com.neighborshare.security.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -30,6 +33,8 @@ import java.util.stream.Collectors;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final IdempotencyFilter idempotencyFilter;
     @Value("${app.cors.allowed-origins:http://localhost:3000,http://127.0.0.1:3000}")
     private String allowedOrigins;
 
@@ -55,6 +60,8 @@ public class SecurityConfig {
                 .requestMatchers("/api/v1/auth/**").permitAll()
                 .requestMatchers("/v1/payments/webhook").permitAll()
                 .requestMatchers("/api/v1/payments/webhook").permitAll()
+                .requestMatchers("/.well-known/jwks.json").permitAll()
+                .requestMatchers("/api/.well-known/jwks.json").permitAll()
                 .requestMatchers("/v3/api-docs/**").permitAll()
                 .requestMatchers("/api/v3/api-docs/**").permitAll()
                 .requestMatchers("/swagger-ui/**").permitAll()
@@ -65,11 +72,16 @@ public class SecurityConfig {
                 .requestMatchers("/api/actuator/**").permitAll()
                 .requestMatchers("/health").permitAll()
                 .requestMatchers("/api/health").permitAll()
+                // Stored files are addressed by SHA-256 content hash, so their URLs are unguessable.
+                .requestMatchers(HttpMethod.GET, "/v1/uploads/files/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/v1/uploads/files/**").permitAll()
 
                 // All other requests require authentication
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
+            .addFilterAfter(idempotencyFilter, RateLimitFilter.class)
             .httpBasic(AbstractHttpConfigurer::disable)
             .exceptionHandling(exceptionHandling -> exceptionHandling
                 .authenticationEntryPoint((request, response, authException) -> {
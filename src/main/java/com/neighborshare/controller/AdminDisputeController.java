@@ -0,0 +1,73 @@
+package com.neighborshare.controller;
+
+import com.neighborshare.dto.response.ApiMessageResponse;
+import com.neighborshare.dto.response.DisputeResponse;
+import com.neighborshare.dto.response.DisputeSlaBreachResponse;
+import com.neighborshare.exception.UnauthorizedException;
+import com.neighborshare.service.DisputeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/v1/admin/disputes")
+@RequiredArgsConstructor
+public class AdminDisputeController {
+
+    private final DisputeService disputeService;
+
+    @PostMapping("/claim")
+    public ResponseEntity<List<DisputeResponse>> claimDisputes(
+        Authentication authentication,
+        @RequestParam(defaultValue = "5") int batch
+    ) {
+        return ResponseEntity.ok(disputeService.claimDisputes(extractUserId(authentication), batch));
+    }
+
+    @GetMapping("/claimed")
+    public ResponseEntity<List<DisputeResponse>> claimedDisputes(Authentication authentication) {
+        return ResponseEntity.ok(disputeService.listClaimedDisputes(extractUserId(authentication)));
+    }
+
+    @GetMapping("/sla-breaches")
+    public ResponseEntity<List<DisputeSlaBreachResponse>> slaBreaches(Authentication authentication) {
+        return ResponseEntity.ok(disputeService.listSlaBreaches(extractUserId(authentication)));
+    }
+
+    @PostMapping("/{disputeId}/renew")
+    public ResponseEntity<DisputeResponse> renewClaim(
+        Authentication authentication,
+        @PathVariable UUID disputeId
+    ) {
+        return ResponseEntity.ok(disputeService.renewClaim(extractUserId(authentication), disputeId));
+    }
+
+    @PostMapping("/{disputeId}/release")
+    public ResponseEntity<ApiMessageResponse> releaseClaim(
+        Authentication authentication,
+        @PathVariable UUID disputeId
+    ) {
+        disputeService.releaseClaim(extractUserId(authentication), disputeId);
+        return ResponseEntity.ok(ApiMessageResponse.builder().message("Dispute returned to the queue").build());
+    }
+
+    private UUID extractUserId(Authentication authentication) {
+        if (authentication == null || authentication.getPrincipal() == null) {
+            throw new UnauthorizedException("Missing authentication context");
+        }
+        try {
+            return UUID.fromString(authentication.getPrincipal().toString());
+        } catch (IllegalArgumentException ex) {
+            throw new UnauthorizedException("Invalid authentication principal");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.neighborshare.controller;
+
+import com.neighborshare.dto.request.BanUserRequest;
+import com.neighborshare.dto.response.ApiMessageResponse;
+import com.neighborshare.exception.UnauthorizedException;
+import com.neighborshare.service.UserModerationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/v1/admin/users")
+@RequiredArgsConstructor
+public class AdminUserController {
+
+    private final UserModerationService userModerationService;
+
+    @PostMapping("/{userId}/ban")
+    public ResponseEntity<ApiMessageResponse> banUser(
+        Authentication authentication,
+        @PathVariable UUID userId,
+        @Valid @RequestBody BanUserRequest request
+    ) {
+        userModerationService.banUntil(extractUserId(authentication), userId, request.getBannedUntil());
+        return ResponseEntity.ok(ApiMessageResponse.builder().message("User banned").build());
+    }
+
+    @PostMapping("/{userId}/deactivate")
+    public ResponseEntity<ApiMessageResponse> deactivateUser(
+        Authentication authentication,
+        @PathVariable UUID userId
+    ) {
+        userModerationService.deactivate(extractUserId(authentication), userId);
+        return ResponseEntity.ok(ApiMessageResponse.builder().message("User deactivated").build());
+    }
+
+    private UUID extractUserId(Authentication authentication) {
+        if (authentication == null || authentication.getPrincipal() == null) {
+            throw new UnauthorizedException("Missing authentication context");
+        }
+        try {
+            return UUID.fromString(authentication.getPrincipal().toString());
+        } catch (IllegalArgumentException ex) {
+            throw new UnauthorizedException("Invalid authentication principal");
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.neighborshare.controller;
 
 import com.neighborshare.dto.request.LoginRequest;
+import com.neighborshare.dto.request.LogoutRequest;
 import com.neighborshare.dto.request.RegisterRequest;
 import com.neighborshare.dto.request.SendOtpRequest;
 import com.neighborshare.dto.request.VerifyOtpRequest;
 import com.neighborshare.dto.response.ApiMessageResponse;
 import com.neighborshare.dto.response.AuthResponse;
+import com.neighborshare.exception.UnauthorizedException;
 import com.neighborshare.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +18,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Date;
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/v1/auth")
 @RequiredArgsConstructor
@@ -32,6 +38,21 @@ public class AuthController {
         return ResponseEntity.ok(authService.login(request));
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<ApiMessageResponse> logout(
+        HttpServletRequest httpRequest,
+        @RequestBody(required = false) LogoutRequest request
+    ) {
+        Object userId = httpRequest.getAttribute("userId");
+        Object tokenId = httpRequest.getAttribute("tokenId");
+        Object expiresAt = httpRequest.getAttribute("tokenExpiresAt");
+        if (!(userId instanceof UUID user) || !(tokenId instanceof String id) || !(expiresAt instanceof Date expiry)) {
+            throw new UnauthorizedException("Missing or invalid token");
+        }
+        String refreshToken = request != null ? request.getRefreshToken() : null;
+        return ResponseEntity.ok(authService.logout(user, id, expiry, refreshToken));
+    }
+
     @PostMapping("/send-otp")
     public ResponseEntity<ApiMessageResponse> sendOtp(@Valid @RequestBody SendOtpRequest request) {
         return ResponseEntity.ok(authService.sendOtp(request));
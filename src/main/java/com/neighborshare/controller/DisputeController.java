@@ -1,6 +1,7 @@
 package com.neighborshare.controller;
 
 import com.neighborshare.dto.request.CreateDisputeRequest;
+import com.neighborshare.dto.request.ResolveDisputeRequest;
 import com.neighborshare.dto.response.DisputeResponse;
 import com.neighborshare.exception.UnauthorizedException;
 import com.neighborshare.service.DisputeService;
@@ -58,6 +59,15 @@ public class DisputeController {
         return ResponseEntity.ok(disputeService.getDispute(extractUserId(authentication), disputeId));
     }
 
+    @PostMapping("/{disputeId}/resolve")
+    public ResponseEntity<DisputeResponse> resolveDispute(
+        Authentication authentication,
+        @PathVariable UUID disputeId,
+        @Valid @RequestBody ResolveDisputeRequest request
+    ) {
+        return ResponseEntity.ok(disputeService.resolveDispute(extractUserId(authentication), disputeId, request));
+    }
+
     private UUID extractUserId(Authentication authentication) {
         if (authentication == null || authentication.getPrincipal() == null) {
             throw new UnauthorizedException("Missing authentication context");
@@ -4,8 +4,11 @@ import com.neighborshare.dto.request.CreateItemRequest;
 import com.neighborshare.dto.request.UpdateItemRequest;
 import com.neighborshare.dto.response.ApiMessageResponse;
 import com.neighborshare.dto.response.ItemResponse;
+import com.neighborshare.dto.response.ItemReviewSummaryResponse;
+import com.neighborshare.dto.response.ReviewFeedResponse;
 import com.neighborshare.exception.UnauthorizedException;
 import com.neighborshare.service.ItemService;
+import com.neighborshare.service.ReviewService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -34,6 +37,7 @@ import java.util.UUID;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ReviewService reviewService;
 
     @PostMapping
     public ResponseEntity<ItemResponse> createItem(
@@ -84,6 +88,26 @@ public class ItemController {
         return ResponseEntity.ok(itemService.getItemById(apartmentId, itemId));
     }
 
+    @GetMapping("/{itemId}/reviews")
+    public ResponseEntity<ReviewFeedResponse> listItemReviews(
+        @PathVariable UUID itemId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "10") int size,
+        HttpServletRequest httpRequest
+    ) {
+        UUID apartmentId = extractApartmentId(httpRequest);
+        return ResponseEntity.ok(reviewService.listItemReviews(apartmentId, itemId, cursor, size));
+    }
+
+    @GetMapping("/{itemId}/reviews/summary")
+    public ResponseEntity<ItemReviewSummaryResponse> getItemReviewSummary(
+        @PathVariable UUID itemId,
+        HttpServletRequest httpRequest
+    ) {
+        UUID apartmentId = extractApartmentId(httpRequest);
+        return ResponseEntity.ok(reviewService.getItemReviewSummary(apartmentId, itemId));
+    }
+
     @PutMapping("/{itemId}")
     public ResponseEntity<ItemResponse> updateItem(
         @PathVariable UUID itemId,
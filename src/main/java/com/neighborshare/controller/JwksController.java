@@ -0,0 +1,26 @@
+package com.neighborshare.controller;
+
+import com.neighborshare.security.JwtKeyRing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyRing jwtKeyRing;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        // Rotated keys are published jwt.signing.publish-lead before they sign, which outlasts this max-age.
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+            .body(jwtKeyRing.jwks());
+    }
+}
@@ -1,6 +1,7 @@
 package com.neighborshare.controller;
 
 import com.neighborshare.dto.request.ConfirmPaymentRequest;
+import com.neighborshare.dto.response.AccountBalancesResponse;
 import com.neighborshare.dto.response.ApiMessageResponse;
 import com.neighborshare.dto.response.PaymentIntentResponse;
 import com.neighborshare.dto.response.TransactionResponse;
@@ -81,12 +82,18 @@ public class PaymentController {
         return ResponseEntity.ok(paymentService.listMyTransactions(userId, status, pageable));
     }
 
+    @GetMapping("/me/balances")
+    public ResponseEntity<AccountBalancesResponse> getMyBalances(Authentication authentication) {
+        return ResponseEntity.ok(paymentService.getMyBalances(extractUserId(authentication)));
+    }
+
     @PostMapping("/webhook")
     public ResponseEntity<ApiMessageResponse> razorpayWebhook(
         @RequestBody String payload,
-        @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature
+        @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature,
+        @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId
     ) {
-        return ResponseEntity.ok(paymentService.handleRazorpayWebhook(payload, signature));
+        return ResponseEntity.ok(paymentService.handleRazorpayWebhook(payload, signature, eventId));
     }
 
     private UUID extractUserId(Authentication authentication) {
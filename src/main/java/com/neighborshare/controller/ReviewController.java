@@ -1,9 +1,11 @@
 package com.neighborshare.controller;
 
 import com.neighborshare.dto.request.CreateReviewRequest;
+import com.neighborshare.dto.response.ApiMessageResponse;
 import com.neighborshare.dto.response.ReviewResponse;
 import com.neighborshare.exception.UnauthorizedException;
 import com.neighborshare.service.ReviewService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -12,6 +14,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -35,6 +38,17 @@ public class ReviewController {
         return ResponseEntity.ok(reviewService.createReview(extractUserId(authentication), request));
     }
 
+    @PostMapping("/{id}/helpful")
+    public ResponseEntity<ApiMessageResponse> markHelpful(
+        @PathVariable UUID id,
+        Authentication authentication,
+        HttpServletRequest httpRequest
+    ) {
+        UUID userId = extractUserId(authentication);
+        UUID apartmentId = extractApartmentId(httpRequest);
+        return ResponseEntity.ok(reviewService.markHelpful(userId, apartmentId, id));
+    }
+
     @GetMapping("/me")
     public ResponseEntity<Page<ReviewResponse>> myReviews(
         Authentication authentication,
@@ -55,4 +69,12 @@ public class ReviewController {
             throw new UnauthorizedException("Invalid authentication principal");
         }
     }
+
+    private UUID extractApartmentId(HttpServletRequest request) {
+        Object apartmentId = request.getAttribute("apartmentId");
+        if (!(apartmentId instanceof UUID)) {
+            throw new UnauthorizedException("Missing apartment context");
+        }
+        return (UUID) apartmentId;
+    }
 }
@@ -0,0 +1,62 @@
+package com.neighborshare.controller;
+
+import com.neighborshare.dto.response.UploadResponse;
+import com.neighborshare.exception.UnauthorizedException;
+import com.neighborshare.service.UploadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/v1/uploads")
+@RequiredArgsConstructor
+public class UploadController {
+
+    private final UploadService uploadService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UploadResponse> upload(
+        @RequestParam("file") MultipartFile file,
+        Authentication authentication
+    ) {
+        return ResponseEntity.ok(uploadService.upload(extractUserId(authentication), file));
+    }
+
+    // Serves objects from the local store; with S3 clients fetch objects from the bucket directly.
+    @GetMapping("/files/{folder}/{name}")
+    public ResponseEntity<InputStreamResource> download(
+        @PathVariable String folder,
+        @PathVariable String name
+    ) {
+        UploadService.StoredObject object = uploadService.open(folder + "/" + name);
+        // Keys are content hashes, so an object never changes once written.
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(object.contentType()))
+            .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+            .body(new InputStreamResource(object.content()));
+    }
+
+    private UUID extractUserId(Authentication authentication) {
+        if (authentication == null || authentication.getPrincipal() == null) {
+            throw new UnauthorizedException("Missing authentication context");
+        }
+        try {
+            return UUID.fromString(authentication.getPrincipal().toString());
+        } catch (IllegalArgumentException ex) {
+            throw new UnauthorizedException("Invalid authentication principal");
+        }
+    }
+}
@@ -19,7 +19,8 @@ import java.util.UUID;
     @Index(name = "idx_bookings_borrower_id", columnList = "borrower_id"),
     @Index(name = "idx_bookings_owner_id", columnList = "owner_id"),
     @Index(name = "idx_bookings_status", columnList = "status"),
-    @Index(name = "idx_bookings_dates", columnList = "start_date, end_date")
+    @Index(name = "idx_bookings_dates", columnList = "start_date, end_date"),
+    @Index(name = "uq_bookings_payment_intent_id", columnList = "payment_intent_id", unique = true)
 })
 @Data
 @NoArgsConstructor
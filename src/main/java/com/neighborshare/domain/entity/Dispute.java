@@ -56,6 +56,13 @@ public class Dispute {
     @JoinColumn(name = "assigned_admin_id")
     private User assignedAdmin;
 
+    @Column
+    private LocalDateTime assignedAt;
+
+    // End of the assigned admin's lease while the dispute is in_review.
+    @Column
+    private LocalDateTime claimedUntil;
+
     @Column(columnDefinition = "TEXT")
     private String resolution;
 
@@ -77,6 +77,12 @@ public class Item {
     @Builder.Default
     private String images = "[]";
 
+    // Maintained in SQL by ImageVariantWorker, never through the entity.
+    @Column(columnDefinition = "jsonb", nullable = false, insertable = false, updatable = false)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Builder.Default
+    private String imageVariants = "{}";
+
     @Column(length = 50)
     @Builder.Default
     private String currentCondition = "good";
@@ -84,11 +90,12 @@ public class Item {
     @Column(columnDefinition = "TEXT")
     private String damageNotes;
 
-    @Column(precision = 3, scale = 2)
+    // Maintained in SQL by ItemCounterWorker, never through the entity.
+    @Column(precision = 3, scale = 2, updatable = false)
     @Builder.Default
     private BigDecimal averageRating = BigDecimal.ZERO;
 
-    @Column
+    @Column(updatable = false)
     @Builder.Default
     private Integer totalBookings = 0;
 
@@ -16,7 +16,8 @@ import java.util.UUID;
     @Index(name = "idx_transactions_user_id", columnList = "user_id"),
     @Index(name = "idx_transactions_booking_id", columnList = "booking_id"),
     @Index(name = "idx_transactions_status", columnList = "status"),
-    @Index(name = "idx_transactions_created_at", columnList = "created_at")
+    @Index(name = "idx_transactions_created_at", columnList = "created_at"),
+    @Index(name = "uq_transactions_stripe_transaction_id", columnList = "stripe_transaction_id", unique = true)
 })
 @Data
 @NoArgsConstructor
@@ -2,6 +2,7 @@ package com.neighborshare.domain.entity;
 
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.*;
@@ -17,6 +18,7 @@ import java.util.UUID;
     @Index(name = "idx_users_email", columnList = "email"),
     @Index(name = "idx_users_is_active", columnList = "is_active")
 })
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -58,27 +60,29 @@ public class User {
     @Column
     private LocalDateTime verifiedAt;
 
-    @Column(precision = 3, scale = 2)
+    // Rating aggregates are maintained in SQL by UserRatingStore, never through the entity.
+    @Column(precision = 3, scale = 2, updatable = false)
     @Builder.Default
     private BigDecimal averageRating = BigDecimal.ZERO;
 
-    @Column
+    @Column(updatable = false)
     @Builder.Default
     private Integer totalRatings = 0;
 
-    @Column
+    // Trust features and score are maintained in SQL by TrustScoreStore, never through the entity.
+    @Column(updatable = false)
     @Builder.Default
     private Integer totalBorrowedItems = 0;
 
-    @Column
+    @Column(updatable = false)
     @Builder.Default
     private Integer totalLentItems = 0;
 
-    @Column
+    @Column(updatable = false)
     @Builder.Default
     private Integer totalItemsReturnedOnTime = 0;
 
-    @Column
+    @Column(updatable = false)
     @Builder.Default
     private Integer trustScore = 50;
 
@@ -107,6 +111,9 @@ public class User {
     @Column
     private LocalDateTime lastLoginAt;
 
+    @Column(length = 100)
+    private String payoutFundAccountId;
+
     // Relationships
     @OneToMany(mappedBy = "owner", fetch = FetchType.LAZY)
     @Builder.Default
@@ -4,8 +4,11 @@ import com.neighborshare.domain.entity.Review;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,15 +27,31 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
 
     Page<Review> findByReviewedUserIdOrderByHelpfulCountDesc(UUID userId, Pageable pageable);
 
-    Double findAverageRatingByReviewedUserId(UUID userId);
-
-    long countByReviewedUserId(UUID userId);
+    // Item feed: only the borrower's review of a booking is a review of the item.
+    @Query(value = """
+        SELECT r.* FROM reviews r
+        JOIN bookings b ON b.id = r.booking_id AND b.borrower_id = r.reviewer_id
+        WHERE r.item_id = :itemId
+        ORDER BY r.created_at DESC, r.id DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Review> findItemFeed(@Param("itemId") UUID itemId, @Param("limit") int limit);
+
+    @Query(value = """
+        SELECT r.* FROM reviews r
+        JOIN bookings b ON b.id = r.booking_id AND b.borrower_id = r.reviewer_id
+        WHERE r.item_id = :itemId AND (r.created_at, r.id) < (:createdAt, :id)
+        ORDER BY r.created_at DESC, r.id DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Review> findItemFeedAfter(
+        @Param("itemId") UUID itemId,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") UUID id,
+        @Param("limit") int limit
+    );
 
     default Page<Review> findByReviewedUserIdOrderByHelpful(UUID userId, Pageable pageable) {
         return findByReviewedUserIdOrderByHelpfulCountDesc(userId, pageable);
     }
-
-    default Double findAverageRatingByUserId(UUID userId) {
-        return findAverageRatingByReviewedUserId(userId);
-    }
 }
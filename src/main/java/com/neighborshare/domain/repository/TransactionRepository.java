@@ -4,9 +4,12 @@ import com.neighborshare.domain.entity.Transaction;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +26,39 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
 
     Optional<Transaction> findByStripeTransactionId(String stripeTransactionId);
 
+    /**
+     * Inserts or updates the transaction for a gateway order in one statement. A completed
+     * transaction is never moved back to pending or failed, and its completion time is kept.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO transactions (
+            user_id, booking_id, transaction_type, amount, currency,
+            stripe_transaction_id, status, description, metadata, created_at, completed_at
+        ) VALUES (
+            :userId, :bookingId, :transactionType, :amount, :currency,
+            :gatewayReference, :status, :description, CAST(:metadata AS jsonb), CURRENT_TIMESTAMP, CAST(:completedAt AS timestamp)
+        )
+        ON CONFLICT (stripe_transaction_id) DO UPDATE SET
+            status = EXCLUDED.status,
+            description = EXCLUDED.description,
+            metadata = EXCLUDED.metadata,
+            completed_at = COALESCE(transactions.completed_at, EXCLUDED.completed_at)
+        WHERE transactions.status <> 'completed' OR EXCLUDED.status = 'completed'
+        """, nativeQuery = true)
+    int upsertByGatewayReference(
+        @Param("userId") UUID userId,
+        @Param("bookingId") UUID bookingId,
+        @Param("transactionType") String transactionType,
+        @Param("amount") BigDecimal amount,
+        @Param("currency") String currency,
+        @Param("gatewayReference") String gatewayReference,
+        @Param("status") String status,
+        @Param("description") String description,
+        @Param("metadata") String metadata,
+        @Param("completedAt") LocalDateTime completedAt
+    );
+
     List<Transaction> findByUserIdAndStatusAndCreatedAtBetween(
         UUID userId,
         String status,
@@ -30,9 +66,6 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
         LocalDateTime endDate
     );
 
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.user.id = ?1 AND t.status = 'completed'")
-    java.math.BigDecimal findTotalCompletedAmountByUserId(UUID userId);
-
     List<Transaction> findByStatusAndCreatedAtBefore(String status, LocalDateTime expiryTime);
 
     default List<Transaction> findCompletedTransactionsByUserAndDateRange(
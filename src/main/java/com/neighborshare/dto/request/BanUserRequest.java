@@ -0,0 +1,17 @@
+package com.neighborshare.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BanUserRequest {
+
+    @NotNull(message = "bannedUntil is required")
+    private LocalDateTime bannedUntil;
+}
@@ -0,0 +1,22 @@
+package com.neighborshare.dto.request;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResolveDisputeRequest {
+
+    @NotBlank(message = "resolution is required")
+    private String resolution;
+
+    // Part of the deposit returned to the borrower; defaults to deposit minus reported damage.
+    @DecimalMin(value = "0.00", message = "refundAmount must not be negative")
+    private BigDecimal refundAmount;
+}
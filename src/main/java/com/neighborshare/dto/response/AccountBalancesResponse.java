@@ -0,0 +1,19 @@
+package com.neighborshare.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountBalancesResponse {
+    private BigDecimal totalPaid;
+    private BigDecimal earnings;
+    private BigDecimal depositHeld;
+    private String currency;
+}
@@ -22,6 +22,8 @@ public class DisputeResponse {
     private String evidence;
     private String status;
     private UUID assignedAdminId;
+    private LocalDateTime assignedAt;
+    private LocalDateTime claimedUntil;
     private String resolution;
     private BigDecimal refundAmount;
     private LocalDateTime createdAt;
@@ -0,0 +1,23 @@
+package com.neighborshare.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DisputeSlaBreachResponse {
+    private UUID disputeId;
+    private UUID apartmentId;
+    private String breach;
+    private LocalDateTime createdAt;
+    private LocalDateTime assignedAt;
+    private UUID assignedAdminId;
+    private long overdueSeconds;
+}
@@ -24,6 +24,8 @@ public class ItemResponse {
     private Boolean isAvailable;
     private Integer maxConsecutiveDays;
     private String images;
+    // Resized copies keyed by image URL; images without an entry are served at full size.
+    private String imageVariants;
     private String currentCondition;
     private BigDecimal averageRating;
     private Integer totalBookings;
@@ -0,0 +1,23 @@
+package com.neighborshare.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemReviewSummaryResponse {
+    private UUID itemId;
+    private long totalReviews;
+    private BigDecimal averageRating;
+    private Map<Integer, Long> histogram;
+    private List<ReviewResponse> topReviews;
+}
@@ -0,0 +1,17 @@
+package com.neighborshare.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReviewFeedResponse {
+    private List<ReviewResponse> reviews;
+    private String nextCursor;
+}
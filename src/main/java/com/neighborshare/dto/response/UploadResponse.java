@@ -0,0 +1,21 @@
+package com.neighborshare.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadResponse {
+    private String key;
+    private String url;
+    // Generated in the background; may not be available for a few seconds after the upload.
+    private String thumbnailUrl;
+    private String contentType;
+    private long sizeBytes;
+    private String sha256;
+    private boolean deduplicated;
+}
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -159,6 +160,23 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponse> handleMaxUploadSize(
+        MaxUploadSizeExceededException ex, WebRequest request) {
+
+        ErrorResponse response = new ErrorResponse(
+            LocalDateTime.now().toString(),
+            HttpStatus.PAYLOAD_TOO_LARGE.value(),
+            "Payload Too Large",
+            "UPLOAD_TOO_LARGE",
+            "Upload exceeds the maximum allowed size",
+            request.getDescription(false).replace("uri=", ""),
+            null
+        );
+
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(response);
+    }
+
     @ExceptionHandler(BookingConflictException.class)
     public ResponseEntity<ErrorResponse> handleBookingConflict(
         BookingConflictException ex, WebRequest request) {
@@ -210,6 +228,24 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.PAYMENT_REQUIRED).body(response);
     }
 
+    @ExceptionHandler(PaymentGatewayException.class)
+    public ResponseEntity<ErrorResponse> handlePaymentGateway(
+        PaymentGatewayException ex, WebRequest request) {
+
+        HttpStatus status = ex.isRetryable() ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.BAD_GATEWAY;
+        ErrorResponse response = new ErrorResponse(
+            LocalDateTime.now().toString(),
+            status.value(),
+            status.getReasonPhrase(),
+            ex.getErrorCode(),
+            ex.getMessage(),
+            request.getDescription(false).replace("uri=", ""),
+            null
+        );
+
+        return ResponseEntity.status(status).body(response);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(
         Exception ex, WebRequest request) {
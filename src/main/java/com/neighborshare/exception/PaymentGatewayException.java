@@ -0,0 +1,26 @@
+package com.neighborshare.exception;
+
+public class PaymentGatewayException extends NeighborShareException {
+
+    private final boolean retryable;
+    private final int status;
+
+    public PaymentGatewayException(String message, boolean retryable) {
+        this(message, retryable, 0);
+    }
+
+    public PaymentGatewayException(String message, boolean retryable, int status) {
+        super(message, retryable ? "PAYMENT_GATEWAY_UNAVAILABLE" : "PAYMENT_GATEWAY_REJECTED");
+        this.retryable = retryable;
+        this.status = status;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    // HTTP status the gateway answered with, or 0 when the failure was not an HTTP response.
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,76 @@
+package com.neighborshare.integration;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} transient failures the
+ * circuit opens and calls fail fast for {@code openDuration}; then a single trial call is let
+ * through, and its outcome closes or re-opens the circuit.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDuration.toMillis();
+        this.clock = clock;
+    }
+
+    /** Returns false when the call must not be attempted. */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openDurationMillis) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (trialInFlight) {
+                    yield false;
+                }
+                trialInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+            trialInFlight = false;
+        }
+    }
+
+    /** Releases a trial slot for a call that ended without a verdict on gateway health. */
+    public synchronized void onIgnored() {
+        trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,9 @@
+package com.neighborshare.integration;
+
+/** Subset of a Razorpay order that the application relies on. Amounts are in paise. */
+public record GatewayOrder(String id, long amount, long amountPaid, String currency, String status, String receipt) {
+
+    public boolean isPaid() {
+        return "paid".equals(status);
+    }
+}
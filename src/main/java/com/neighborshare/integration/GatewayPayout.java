@@ -0,0 +1,5 @@
+package com.neighborshare.integration;
+
+/** Subset of a RazorpayX payout that the application relies on. Amounts are in paise. */
+public record GatewayPayout(String id, long amount, String currency, String status, String referenceId) {
+}
@@ -0,0 +1,5 @@
+package com.neighborshare.integration;
+
+/** Subset of a Razorpay refund that the application relies on. Amounts are in paise. */
+public record GatewayRefund(String id, String paymentId, long amount, String status) {
+}
@@ -0,0 +1,80 @@
+package com.neighborshare.integration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Filesystem object store for development and offline use. Objects are written to a temporary
+ * file next to their target and moved into place, so readers never see a partial object.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local", matchIfMissing = true)
+public class LocalObjectStore implements ObjectStore {
+
+    private final Path root;
+    private final String baseUrl;
+
+    public LocalObjectStore(
+        @Value("${app.storage.local.root:./data/objects}") String root,
+        @Value("${app.storage.local.base-url:/api/v1/uploads/files}") String baseUrl
+    ) {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        log.info("Storing uploads under {}", this.root);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            long written = Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            if (written != contentLength) {
+                throw new IOException("Expected " + contentLength + " bytes for " + key + " but read " + written);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<InputStream> open(String key) throws IOException {
+        try {
+            return Optional.of(Files.newInputStream(resolve(key)));
+        } catch (NoSuchFileException ex) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String url(String key) {
+        return baseUrl + "/" + key;
+    }
+
+    private Path resolve(String key) {
+        ObjectStore.checkKey(key);
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid object key: " + key);
+        }
+        return path;
+    }
+}
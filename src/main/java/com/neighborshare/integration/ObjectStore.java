@@ -0,0 +1,30 @@
+package com.neighborshare.integration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Blob storage for uploaded images. Keys are slash-separated relative paths; content is written
+ * from a stream of known length and never held in memory as a whole.
+ */
+public interface ObjectStore {
+
+    boolean exists(String key) throws IOException;
+
+    /** Writes the object; an existing object under the same key is replaced. */
+    void put(String key, InputStream content, long contentLength, String contentType) throws IOException;
+
+    /** Opens the object for reading; the caller closes the stream. Empty when there is no such key. */
+    Optional<InputStream> open(String key) throws IOException;
+
+    /** URL clients use to fetch the object. */
+    String url(String key);
+
+    static void checkKey(String key) {
+        if (key == null || key.isBlank() || key.startsWith("/") || key.contains("\\")
+            || key.equals("..") || key.startsWith("../") || key.contains("/../") || key.endsWith("/..")) {
+            throw new IllegalArgumentException("Invalid object key: " + key);
+        }
+    }
+}
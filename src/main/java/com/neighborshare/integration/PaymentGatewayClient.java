@@ -0,0 +1,329 @@
+package com.neighborshare.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neighborshare.exception.PaymentGatewayException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Razorpay REST client. Every call has connect and request timeouts, passes through a
+ * semaphore bulkhead and a circuit breaker, and idempotent calls are retried with full-jitter
+ * backoff. Calls block the current thread, so callers must not hold a DB transaction while
+ * calling; the async variants run on virtual threads.
+ */
+@Component
+@Slf4j
+@EnableConfigurationProperties(RazorpayProperties.class)
+public class PaymentGatewayClient {
+
+    private final RazorpayProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    public PaymentGatewayClient(RazorpayProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        RazorpayProperties.Client client = properties.getClient();
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(client.getConnectTimeout())
+            .executor(executor)
+            .build();
+        this.bulkhead = new Semaphore(client.getMaxConcurrentCalls());
+        this.circuitBreaker = new CircuitBreaker(client.getFailureThreshold(), client.getOpenDuration());
+    }
+
+    public boolean isConfigured() {
+        return !properties.getKeyId().isBlank() && !properties.getKeySecret().isBlank();
+    }
+
+    public boolean isPayoutConfigured() {
+        return isConfigured() && !properties.getPayoutAccountNumber().isBlank();
+    }
+
+    public String getKeyId() {
+        return properties.getKeyId();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /** Creates an order. Not idempotent, so it is only retried when the request never left this node. */
+    public GatewayOrder createOrder(long amountPaise, String currency, String receipt) {
+        String body = objectMapper.createObjectNode()
+            .put("amount", amountPaise)
+            .put("currency", currency)
+            .put("receipt", receipt)
+            .put("payment_capture", 1)
+            .toString();
+        HttpRequest request = requestBuilder("/v1/orders")
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return toOrder(execute(request, false));
+    }
+
+    public GatewayOrder fetchOrder(String orderId) {
+        HttpRequest request = requestBuilder("/v1/orders/" + URLEncoder.encode(orderId, StandardCharsets.UTF_8))
+            .GET()
+            .build();
+        return toOrder(execute(request, true));
+    }
+
+    public CompletableFuture<GatewayOrder> fetchOrderAsync(String orderId) {
+        return CompletableFuture.supplyAsync(() -> fetchOrder(orderId), executor);
+    }
+
+    /**
+     * Creates a RazorpayX payout. The reference id doubles as the idempotency key, so a retried
+     * request returns the payout created by the first attempt instead of paying twice.
+     */
+    public GatewayPayout createPayout(String referenceId, String fundAccountId, long amountPaise, String currency) {
+        String body = objectMapper.createObjectNode()
+            .put("account_number", properties.getPayoutAccountNumber())
+            .put("fund_account_id", fundAccountId)
+            .put("amount", amountPaise)
+            .put("currency", currency)
+            .put("mode", "IMPS")
+            .put("purpose", "payout")
+            .put("queue_if_low_balance", true)
+            .put("reference_id", referenceId)
+            .toString();
+        HttpRequest request = requestBuilder("/v1/payouts")
+            .header("Content-Type", "application/json")
+            .header("X-Payout-Idempotency", referenceId)
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return toPayout(execute(request, true));
+    }
+
+    public CompletableFuture<GatewayPayout> createPayoutAsync(String referenceId, String fundAccountId, long amountPaise, String currency) {
+        return CompletableFuture.supplyAsync(() -> createPayout(referenceId, fundAccountId, amountPaise, currency), executor);
+    }
+
+    /**
+     * Refunds part of the captured payment of an order. The receipt doubles as the refund
+     * idempotency key, so a retry after a timeout cannot refund twice.
+     */
+    public GatewayRefund refundOrder(String orderId, long amountPaise, String receipt) {
+        HttpRequest lookup = requestBuilder("/v1/orders/" + URLEncoder.encode(orderId, StandardCharsets.UTF_8) + "/payments")
+            .GET()
+            .build();
+        String paymentId = capturedPaymentId(execute(lookup, true));
+        if (paymentId == null) {
+            throw new PaymentGatewayException("No captured payment for order " + orderId, false);
+        }
+        String body = objectMapper.createObjectNode()
+            .put("amount", amountPaise)
+            .put("speed", "normal")
+            .put("receipt", receipt)
+            .toString();
+        HttpRequest request = requestBuilder("/v1/payments/" + URLEncoder.encode(paymentId, StandardCharsets.UTF_8) + "/refund")
+            .header("Content-Type", "application/json")
+            .header("X-Refund-Idempotency", receipt)
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return toRefund(execute(request, true));
+    }
+
+    public CompletableFuture<GatewayRefund> refundOrderAsync(String orderId, long amountPaise, String receipt) {
+        return CompletableFuture.supplyAsync(() -> refundOrder(orderId, amountPaise, receipt), executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private HttpRequest.Builder requestBuilder(String path) {
+        if (!isConfigured()) {
+            throw new PaymentGatewayException("Razorpay credentials are not configured", false);
+        }
+        String credentials = properties.getKeyId() + ":" + properties.getKeySecret();
+        return HttpRequest.newBuilder()
+            .uri(URI.create(properties.getBaseUrl() + path))
+            .timeout(properties.getClient().getRequestTimeout())
+            .header("Authorization", "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String execute(HttpRequest request, boolean idempotent) {
+        int maxAttempts = Math.max(1, properties.getClient().getMaxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return executeOnce(request);
+            } catch (RetryableFailure failure) {
+                boolean mayRetry = idempotent || failure.notSent;
+                if (!mayRetry || attempt >= maxAttempts) {
+                    throw new PaymentGatewayException(failure.getMessage(), true);
+                }
+                log.debug("Razorpay {} {} failed (attempt {}): {}", request.method(), request.uri().getPath(), attempt, failure.getMessage());
+                sleep(backoff(attempt));
+            }
+        }
+    }
+
+    private String executeOnce(HttpRequest request) throws RetryableFailure {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new PaymentGatewayException("Payment gateway is temporarily unavailable", true);
+        }
+        boolean acquired = false;
+        try {
+            acquired = bulkhead.tryAcquire(properties.getClient().getBulkheadWait().toMillis(), TimeUnit.MILLISECONDS);
+            if (!acquired) {
+                circuitBreaker.onIgnored();
+                throw new PaymentGatewayException("Too many concurrent payment gateway calls", true);
+            }
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            int status = response.statusCode();
+            if (status == 429 || status >= 500) {
+                circuitBreaker.onFailure();
+                throw new RetryableFailure("Razorpay returned HTTP " + status, false);
+            }
+            circuitBreaker.onSuccess();
+            if (status >= 400) {
+                throw new PaymentGatewayException("Razorpay rejected the request: HTTP " + status, false, status);
+            }
+            return response.body();
+        } catch (HttpConnectTimeoutException | ConnectException ex) {
+            circuitBreaker.onFailure();
+            throw new RetryableFailure("Could not connect to Razorpay", true);
+        } catch (HttpTimeoutException ex) {
+            circuitBreaker.onFailure();
+            throw new RetryableFailure("Razorpay request timed out", false);
+        } catch (IOException ex) {
+            circuitBreaker.onFailure();
+            throw new RetryableFailure("Razorpay I/O error: " + ex.getMessage(), false);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.onIgnored();
+            throw new PaymentGatewayException("Interrupted while calling Razorpay", true);
+        } finally {
+            if (acquired) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    // Full jitter: uniform in [0, min(maxDelay, base * 2^(attempt - 1))].
+    private long backoff(int attempt) {
+        RazorpayProperties.Client client = properties.getClient();
+        long ceiling = Math.min(
+            client.getRetryMaxDelay().toMillis(),
+            client.getRetryBaseDelay().toMillis() << Math.min(attempt - 1, 20)
+        );
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted while calling Razorpay", true);
+        }
+    }
+
+    private GatewayOrder toOrder(String body) {
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            String id = json.path("id").asText(null);
+            if (id == null || id.isBlank()) {
+                throw new PaymentGatewayException("Razorpay returned an order without id", false);
+            }
+            return new GatewayOrder(
+                id,
+                json.path("amount").asLong(),
+                json.path("amount_paid").asLong(),
+                json.path("currency").asText("INR"),
+                json.path("status").asText("created"),
+                json.path("receipt").asText(null)
+            );
+        } catch (IOException ex) {
+            throw new PaymentGatewayException("Unreadable Razorpay response", false);
+        }
+    }
+
+    private GatewayPayout toPayout(String body) {
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            String id = json.path("id").asText(null);
+            if (id == null || id.isBlank()) {
+                throw new PaymentGatewayException("Razorpay returned a payout without id", false);
+            }
+            return new GatewayPayout(
+                id,
+                json.path("amount").asLong(),
+                json.path("currency").asText("INR"),
+                json.path("status").asText("queued"),
+                json.path("reference_id").asText(null)
+            );
+        } catch (IOException ex) {
+            throw new PaymentGatewayException("Unreadable Razorpay response", false);
+        }
+    }
+
+    private String capturedPaymentId(String body) {
+        try {
+            for (JsonNode payment : objectMapper.readTree(body).path("items")) {
+                if ("captured".equals(payment.path("status").asText())) {
+                    return payment.path("id").asText(null);
+                }
+            }
+            return null;
+        } catch (IOException ex) {
+            throw new PaymentGatewayException("Unreadable Razorpay response", false);
+        }
+    }
+
+    private GatewayRefund toRefund(String body) {
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            String id = json.path("id").asText(null);
+            if (id == null || id.isBlank()) {
+                throw new PaymentGatewayException("Razorpay returned a refund without id", false);
+            }
+            return new GatewayRefund(
+                id,
+                json.path("payment_id").asText(null),
+                json.path("amount").asLong(),
+                json.path("status").asText("pending")
+            );
+        } catch (IOException ex) {
+            throw new PaymentGatewayException("Unreadable Razorpay response", false);
+        }
+    }
+
+    /** Transient failure; {@code notSent} means the gateway cannot have acted on the request. */
+    private static final class RetryableFailure extends Exception {
+        private final boolean notSent;
+
+        RetryableFailure(String message, boolean notSent) {
+            super(message, null, false, false);
+            this.notSent = notSent;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.neighborshare.integration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "razorpay")
+public class RazorpayProperties {
+
+    private String keyId = "";
+
+    private String keySecret = "";
+
+    private String webhookSecret = "";
+
+    // Still accepted when verifying signatures while a secret is being rotated.
+    private List<String> previousKeySecrets = new ArrayList<>();
+
+    private List<String> previousWebhookSecrets = new ArrayList<>();
+
+    private String baseUrl = "https://api.razorpay.com";
+
+    // RazorpayX business account that owner payouts are debited from.
+    private String payoutAccountNumber = "";
+
+    private Client client = new Client();
+
+    @Data
+    public static class Client {
+
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        // Applies to each attempt, not to the call as a whole.
+        private Duration requestTimeout = Duration.ofSeconds(5);
+
+        // Total attempts for idempotent calls. Order creation is only retried when the request was never sent.
+        private int maxAttempts = 3;
+
+        private Duration retryBaseDelay = Duration.ofMillis(200);
+
+        private Duration retryMaxDelay = Duration.ofSeconds(2);
+
+        // Bulkhead: concurrent gateway calls per node, and how long a caller may wait for a slot.
+        private int maxConcurrentCalls = 20;
+
+        private Duration bulkheadWait = Duration.ofMillis(100);
+
+        // Consecutive transient failures that open the circuit, and how long it stays open.
+        private int failureThreshold = 5;
+
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,42 @@
+package com.neighborshare.integration;
+
+import com.neighborshare.security.HmacSignatureVerifier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Checkout payment and webhook signatures, each with its current and previous secrets. */
+@Component
+public class RazorpaySignatureVerifier {
+
+    private final HmacSignatureVerifier paymentSignatures;
+    private final HmacSignatureVerifier webhookSignatures;
+
+    public RazorpaySignatureVerifier(RazorpayProperties properties) {
+        this.paymentSignatures = new HmacSignatureVerifier(secrets(properties.getKeySecret(), properties.getPreviousKeySecrets()));
+        this.webhookSignatures = new HmacSignatureVerifier(secrets(properties.getWebhookSecret(), properties.getPreviousWebhookSecrets()));
+    }
+
+    public boolean isWebhookConfigured() {
+        return webhookSignatures.isConfigured();
+    }
+
+    /** Checkout signature: HMAC of {@code orderId|paymentId} with the key secret. */
+    public boolean verifyPayment(String orderId, String paymentId, String signature) {
+        return paymentSignatures.verify(orderId + "|" + paymentId, signature);
+    }
+
+    public boolean verifyWebhook(String payload, String signature) {
+        return webhookSignatures.verify(payload, signature);
+    }
+
+    private static List<String> secrets(String current, List<String> previous) {
+        List<String> secrets = new ArrayList<>();
+        secrets.add(current);
+        if (previous != null) {
+            secrets.addAll(previous);
+        }
+        return secrets;
+    }
+}
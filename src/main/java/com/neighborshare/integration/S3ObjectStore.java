@@ -0,0 +1,111 @@
+package com.neighborshare.integration;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetUrlRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * S3 object store on the configured {@code aws.s3} bucket. Puts stream the body with its length
+ * declared up front, so the SDK sends it without buffering. Falls back to the default credential
+ * chain when no access key is configured.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3")
+public class S3ObjectStore implements ObjectStore {
+
+    private final S3Client client;
+    private final String bucket;
+
+    public S3ObjectStore(
+        @Value("${aws.region}") String region,
+        @Value("${aws.s3.bucket}") String bucket,
+        @Value("${aws.s3.access-key:}") String accessKey,
+        @Value("${aws.s3.secret-key:}") String secretKey
+    ) {
+        AwsCredentialsProvider credentials = accessKey.isBlank()
+            ? DefaultCredentialsProvider.create()
+            : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+        this.client = S3Client.builder()
+            .region(Region.of(region))
+            .credentialsProvider(credentials)
+            .build();
+        this.bucket = bucket;
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        ObjectStore.checkKey(key);
+        try {
+            client.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build());
+            return true;
+        } catch (NoSuchKeyException ex) {
+            return false;
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == 404) {
+                return false;
+            }
+            throw new IOException("S3 HEAD failed for " + key, ex);
+        } catch (SdkException ex) {
+            throw new IOException("S3 HEAD failed for " + key, ex);
+        }
+    }
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        ObjectStore.checkKey(key);
+        try {
+            client.putObject(
+                PutObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .contentType(contentType)
+                    .contentLength(contentLength)
+                    .build(),
+                RequestBody.fromInputStream(content, contentLength)
+            );
+        } catch (SdkException ex) {
+            throw new IOException("S3 PUT failed for " + key, ex);
+        }
+    }
+
+    @Override
+    public Optional<InputStream> open(String key) throws IOException {
+        ObjectStore.checkKey(key);
+        try {
+            return Optional.of(client.getObject(GetObjectRequest.builder().bucket(bucket).key(key).build()));
+        } catch (NoSuchKeyException ex) {
+            return Optional.empty();
+        } catch (SdkException ex) {
+            throw new IOException("S3 GET failed for " + key, ex);
+        }
+    }
+
+    @Override
+    public String url(String key) {
+        return client.utilities().getUrl(GetUrlRequest.builder().bucket(bucket).key(key).build()).toExternalForm();
+    }
+
+    @PreDestroy
+    public void close() {
+        client.close();
+    }
+}
@@ -0,0 +1,40 @@
+package com.neighborshare.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/** Platform administrators, configured as an allow-list of user ids. */
+@Component
+public class AdminAccess {
+
+    @Value("${app.admin.user-ids:}")
+    private List<String> configuredUserIds;
+
+    private Set<UUID> adminIds = Set.of();
+
+    @PostConstruct
+    public void init() {
+        adminIds = configuredUserIds.stream()
+            .map(String::trim)
+            .filter(id -> !id.isEmpty())
+            .map(UUID::fromString)
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public boolean isAdmin(UUID userId) {
+        return adminIds.contains(userId);
+    }
+
+    public void requireAdmin(UUID userId) {
+        if (!isAdmin(userId)) {
+            throw new AccessDeniedException("Administrator access required");
+        }
+    }
+}
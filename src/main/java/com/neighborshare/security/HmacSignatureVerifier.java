@@ -0,0 +1,91 @@
+package com.neighborshare.security;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * HMAC-SHA256 signatures over one or more secrets. The first secret signs; every secret is
+ * accepted when verifying, so a new secret can be rolled out before the old one is dropped.
+ * Each thread keeps its own initialised {@link Mac} and output buffer, which avoids the
+ * provider lookup and key schedule per call, and digests are compared in constant time.
+ */
+public class HmacSignatureVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+
+    private final List<SecretKeySpec> keys;
+    private final ThreadLocal<State> state;
+
+    private static final class State {
+        final Mac[] macs;
+        final byte[] expected = new byte[MAC_LENGTH];
+
+        State(List<SecretKeySpec> keys) {
+            macs = new Mac[keys.size()];
+            try {
+                for (int i = 0; i < macs.length; i++) {
+                    macs[i] = Mac.getInstance(ALGORITHM);
+                    macs[i].init(keys.get(i));
+                }
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException("HmacSHA256 is not available", ex);
+            }
+        }
+    }
+
+    public HmacSignatureVerifier(List<String> secrets) {
+        this.keys = secrets.stream()
+            .filter(secret -> secret != null && !secret.isBlank())
+            .map(secret -> new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM))
+            .toList();
+        this.state = ThreadLocal.withInitial(() -> new State(keys));
+    }
+
+    public boolean isConfigured() {
+        return !keys.isEmpty();
+    }
+
+    public boolean verify(String data, String signatureHex) {
+        return verify(data.getBytes(StandardCharsets.UTF_8), signatureHex);
+    }
+
+    public boolean verify(byte[] data, String signatureHex) {
+        if (keys.isEmpty() || signatureHex == null || signatureHex.length() != MAC_LENGTH * 2) {
+            return false;
+        }
+        byte[] provided;
+        try {
+            provided = HexFormat.of().parseHex(signatureHex);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        State current = state.get();
+        boolean matched = false;
+        // Check every secret, so timing does not reveal which one matched.
+        for (Mac mac : current.macs) {
+            mac.update(data);
+            try {
+                mac.doFinal(current.expected, 0);
+            } catch (ShortBufferException ex) {
+                throw new IllegalStateException(ex);
+            }
+            matched |= MessageDigest.isEqual(current.expected, provided);
+        }
+        return matched;
+    }
+
+    /** Hex signature with the primary secret. */
+    public String sign(String data) {
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("No signing secret configured");
+        }
+        return HexFormat.of().formatHex(state.get().macs[0].doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,164 @@
+package com.neighborshare.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neighborshare.exception.GlobalExceptionHandler;
+import com.neighborshare.util.CachedBodyHttpServletRequest;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Makes mutating requests that carry an {@code Idempotency-Key} header safe to retry. The key is
+ * scoped to the authenticated user; a repeat with the same key and body gets the stored
+ * response without reaching a controller, and a repeat with a different body is rejected.
+ * Runs after {@code JwtAuthenticationFilter} and {@code RateLimitFilter}.
+ *
+ * <p>The whole body is fingerprinted, so keyed requests larger than the buffer are refused.
+ * Multipart and form bodies pass through untouched: the container has to parse them from the
+ * raw stream, and uploads are stored under their content hash, so retrying one is harmless.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !idempotencyService.isEnabled()
+            || !MUTATING_METHODS.contains(request.getMethod())
+            || request.getHeader(HEADER) == null
+            || request.getAttribute("userId") == null
+            || hasFormBody(request);
+    }
+
+    @Override
+    protected void doFilterInternal(
+        @NonNull HttpServletRequest request,
+        @NonNull HttpServletResponse response,
+        @NonNull FilterChain filterChain
+    )
+        throws ServletException, IOException {
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String idempotencyKey = request.getHeader(HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            reject(response, path, HttpStatus.BAD_REQUEST, "VALIDATION_ERROR",
+                HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        CachedBodyHttpServletRequest cachedRequest =
+            new CachedBodyHttpServletRequest(request, idempotencyService.getMaxBodyBytes());
+        if (cachedRequest.isTruncated()) {
+            reject(response, path, HttpStatus.PAYLOAD_TOO_LARGE, "IDEMPOTENCY_BODY_TOO_LARGE",
+                "Requests with an " + HEADER + " must not exceed " + idempotencyService.getMaxBodyBytes() + " bytes");
+            return;
+        }
+        String scope = request.getAttribute("userId") + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request.getMethod(), path, cachedRequest.getCachedBody());
+
+        IdempotencyService.Claim claim = idempotencyService.claim(scope, fingerprint);
+        switch (claim.outcome()) {
+            case REPLAY -> replay(response, claim.response());
+            case MISMATCH -> reject(response, path, HttpStatus.UNPROCESSABLE_ENTITY, "IDEMPOTENCY_KEY_REUSED",
+                HEADER + " was already used for a different request");
+            case IN_PROGRESS -> {
+                response.setHeader("Retry-After", "1");
+                reject(response, path, HttpStatus.CONFLICT, "IDEMPOTENCY_REQUEST_IN_PROGRESS",
+                    "A request with this " + HEADER + " is still being processed");
+            }
+            case UNAVAILABLE -> filterChain.doFilter(cachedRequest, response);
+            case ACQUIRED -> execute(cachedRequest, response, filterChain, scope, fingerprint, claim.token());
+        }
+    }
+
+    private void execute(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain,
+        String scope,
+        String fingerprint,
+        String token
+    ) throws ServletException, IOException {
+        // If the chain throws, the in-flight marker is left to expire: the request may have had
+        // side effects, so retries wait out the lock rather than running again immediately.
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        idempotencyService.complete(
+            scope, fingerprint, token, wrapper.getStatus(), wrapper.getContentType(), wrapper.getContentAsByteArray());
+        wrapper.copyBodyToResponse();
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyService.StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader("Idempotent-Replayed", "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.body() != null) {
+            byte[] body = stored.body().getBytes(StandardCharsets.UTF_8);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private void reject(HttpServletResponse response, String path, HttpStatus status, String errorCode, String message)
+        throws IOException {
+        GlobalExceptionHandler.ErrorResponse body = new GlobalExceptionHandler.ErrorResponse(
+            LocalDateTime.now().toString(),
+            status.value(),
+            status.getReasonPhrase(),
+            errorCode,
+            message,
+            path,
+            null
+        );
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static boolean hasFormBody(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("multipart/") || type.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+    }
+
+    private static String fingerprint(String method, String path, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((method + " " + path + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
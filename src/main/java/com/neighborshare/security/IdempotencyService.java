@@ -0,0 +1,182 @@
+package com.neighborshare.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Redis store behind {@link IdempotencyFilter}. The first request for a key claims it with
+ * SET NX and an in-flight marker carrying a per-claim token; its response then replaces the
+ * marker for {@code ttl}, but only while that marker is still the one it wrote. Concurrent
+ * retries poll until the response is stored instead of executing a second time. Every response
+ * is stored, server errors included, so a key never runs a request twice once it has started.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    public enum Outcome { ACQUIRED, REPLAY, MISMATCH, IN_PROGRESS, UNAVAILABLE }
+
+    /** {@code token} identifies an {@code ACQUIRED} claim and must be passed back to complete or release it. */
+    public record Claim(Outcome outcome, @Nullable StoredResponse response, @Nullable String token) {
+    }
+
+    /**
+     * {@code status} is 0 while the first request is still running, and {@code token} is only set
+     * on that in-flight marker. A null {@code body} with a status means the body was too large to keep.
+     */
+    public record StoredResponse(
+        String fingerprint,
+        int status,
+        @Nullable String contentType,
+        @Nullable String body,
+        @Nullable String token
+    ) {
+
+        boolean isComplete() {
+            return status > 0;
+        }
+    }
+
+    private static final RedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+        end
+        return 0
+        """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+            return redis.call('DEL', KEYS[1])
+        end
+        return 0
+        """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.idempotency.key-prefix:idem}")
+    private String keyPrefix;
+
+    @Value("${app.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    // Must outlast the slowest request, or a retry may run while the first is still executing.
+    @Value("${app.idempotency.lock-ttl:60s}")
+    private Duration lockTtl;
+
+    @Value("${app.idempotency.wait-timeout:10s}")
+    private Duration waitTimeout;
+
+    @Value("${app.idempotency.max-body-bytes:65536}")
+    private int maxBodyBytes;
+
+    @Value("${app.idempotency.max-response-bytes:262144}")
+    private int maxResponseBytes;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public Claim claim(String scope, String fingerprint) {
+        String key = key(scope);
+        long deadline = System.currentTimeMillis() + waitTimeout.toMillis();
+        long pollMillis = 25;
+        String token = UUID.randomUUID().toString();
+        try {
+            String marker = marker(fingerprint, token);
+            while (true) {
+                if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, marker, lockTtl))) {
+                    return new Claim(Outcome.ACQUIRED, null, token);
+                }
+                String json = redisTemplate.opsForValue().get(key);
+                if (json == null) {
+                    continue;  // Expired or released between the two calls; try to claim again.
+                }
+                StoredResponse stored = objectMapper.readValue(json, StoredResponse.class);
+                if (!stored.fingerprint().equals(fingerprint)) {
+                    return new Claim(Outcome.MISMATCH, null, null);
+                }
+                if (stored.isComplete()) {
+                    return new Claim(Outcome.REPLAY, stored, null);
+                }
+                if (System.currentTimeMillis() >= deadline) {
+                    return new Claim(Outcome.IN_PROGRESS, null, null);
+                }
+                Thread.sleep(pollMillis);
+                pollMillis = Math.min(250, pollMillis * 2);
+            }
+        } catch (DataAccessException | JsonProcessingException ex) {
+            log.warn("Idempotency check skipped for {}: {}", scope, ex.getMessage());
+            return new Claim(Outcome.UNAVAILABLE, null, null);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return new Claim(Outcome.IN_PROGRESS, null, null);
+        }
+    }
+
+    /**
+     * Stores the response of a claimed request, unless the claim expired and another request took
+     * the key over. Bodies over {@code maxResponseBytes} are dropped and only the status is kept.
+     */
+    public void complete(
+        String scope,
+        String fingerprint,
+        String token,
+        int status,
+        @Nullable String contentType,
+        byte[] body
+    ) {
+        String storedBody = body.length <= maxResponseBytes ? new String(body, StandardCharsets.UTF_8) : null;
+        try {
+            String json = objectMapper.writeValueAsString(new StoredResponse(fingerprint, status, contentType, storedBody, null));
+            Long stored = redisTemplate.execute(
+                COMPLETE_SCRIPT, List.of(key(scope)), marker(fingerprint, token), json, String.valueOf(ttl.toMillis()));
+            if (stored == null || stored == 0L) {
+                log.warn("Idempotency claim on {} expired before its response was stored", scope);
+            }
+        } catch (DataAccessException | JsonProcessingException ex) {
+            log.warn("Could not store idempotent response for {}: {}", scope, ex.getMessage());
+            release(scope, fingerprint, token);
+        }
+    }
+
+    /** Gives up a claim that is still held, so a retry may execute the request. */
+    public void release(String scope, String fingerprint, String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(key(scope)), marker(fingerprint, token));
+        } catch (DataAccessException | JsonProcessingException ex) {
+            log.warn("Could not release idempotency key {}, it expires after {}: {}", scope, lockTtl, ex.getMessage());
+        }
+    }
+
+    private String marker(String fingerprint, String token) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(new StoredResponse(fingerprint, 0, null, null, token));
+    }
+
+    private String key(String scope) {
+        return keyPrefix + ":" + scope;
+    }
+}
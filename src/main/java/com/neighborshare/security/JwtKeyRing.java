@@ -0,0 +1,339 @@
+package com.neighborshare.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asymmetric JWT signing keys. Each node signs with its own key pair, which never leaves the
+ * process; only the public key is published to Redis under its {@code kid}. Verification keys
+ * are cached in memory by {@code kid} and fetched from Redis only on a miss, so any node (or an
+ * edge gateway reading the JWKS document) can verify any other node's tokens locally.
+ *
+ * <p>The key that will sign after the next rotation is generated and published ahead of time,
+ * and only takes over once it has been public for {@code jwt.signing.publish-lead}, so verifiers
+ * holding a cached JWKS document already know it. A node's first key is used from startup;
+ * verifiers should refetch the document when they see an unknown {@code kid}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class JwtKeyRing {
+
+    public record SigningKey(String kid, String algorithm, PrivateKey privateKey, PublicKey publicKey, long createdAt) {
+    }
+
+    record PublishedKey(String kid, String alg, String publicKey, long notAfter) {
+    }
+
+    private static final long UNKNOWN_KID_BACKOFF_MS = 30_000;
+    private static final int MAX_UNKNOWN_KIDS = 10_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${jwt.signing.algorithm:ES256}")
+    private String algorithm;
+
+    @Value("${jwt.signing.rotation-interval:24h}")
+    private Duration rotationInterval;
+
+    @Value("${jwt.signing.key-prefix:jwt:jwk}")
+    private String keyPrefix;
+
+    @Value("${jwt.signing.jwks-cache-ttl:60s}")
+    private Duration jwksCacheTtl;
+
+    // Must exceed the JWKS Cache-Control max-age plus jwks-cache-ttl.
+    @Value("${jwt.signing.publish-lead:10m}")
+    private Duration publishLead;
+
+    @Value("${jwt.refresh-token-expiration}")
+    private long maxTokenLifetimeSeconds;
+
+    private final Map<String, PublishedKey> verificationKeys = new ConcurrentHashMap<>();
+    private final Map<String, PublicKey> decodedKeys = new ConcurrentHashMap<>();
+    private final Map<String, Long> unknownKids = new ConcurrentHashMap<>();
+
+    private volatile SigningKey current;
+    private volatile long currentSince;
+    private volatile boolean currentPublished;
+    private volatile SigningKey next;
+    private volatile long nextPublishedAt;
+    private volatile Map<String, Object> jwksDocument;
+    private volatile long jwksLoadedAt;
+
+    @PostConstruct
+    public void init() {
+        current = generate();
+        currentSince = current.createdAt();
+        remember(current);
+        currentPublished = publish(current);
+        prepareNext();
+    }
+
+    public SigningKey currentSigningKey() {
+        return current;
+    }
+
+    /** Returns the verification key for {@code kid}, or null when it is unknown or expired. */
+    @Nullable
+    public PublicKey findVerificationKey(String kid) {
+        long now = System.currentTimeMillis();
+        PublishedKey key = lookup(kid, now);
+        if (key == null || key.notAfter() <= now) {
+            return null;
+        }
+        return decodedKeys.computeIfAbsent(kid, ignored -> decode(key));
+    }
+
+    @Nullable
+    private PublishedKey lookup(String kid, long now) {
+        PublishedKey key = verificationKeys.get(kid);
+        if (key != null) {
+            return key;
+        }
+        Long retryAt = unknownKids.get(kid);
+        if (retryAt != null && retryAt > now) {
+            return null;
+        }
+        key = fetch(kid);
+        if (key == null) {
+            if (unknownKids.size() < MAX_UNKNOWN_KIDS) {
+                unknownKids.put(kid, now + UNKNOWN_KID_BACKOFF_MS);
+            }
+            return null;
+        }
+        verificationKeys.put(kid, key);
+        return key;
+    }
+
+    /** JWKS document with every published, unexpired public key. */
+    public Map<String, Object> jwks() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> document = jwksDocument;
+        if (document != null && now - jwksLoadedAt < jwksCacheTtl.toMillis()) {
+            return document;
+        }
+        try {
+            loadAllPublished();
+        } catch (DataAccessException ex) {
+            log.warn("Serving JWKS from local keys, Redis unavailable: {}", ex.getMessage());
+        }
+        List<Map<String, Object>> keys = new ArrayList<>();
+        for (PublishedKey key : verificationKeys.values()) {
+            if (key.notAfter() > now) {
+                keys.add(toJwk(key.kid(), key.alg(), decodedKeys.computeIfAbsent(key.kid(), ignored -> decode(key))));
+            }
+        }
+        document = Map.of("keys", keys);
+        jwksDocument = document;
+        jwksLoadedAt = now;
+        return document;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.signing.rotation-check-interval-ms:60000}")
+    public void rotateIfDue() {
+        long now = System.currentTimeMillis();
+        if (!currentPublished) {
+            currentPublished = publish(current);
+        }
+        if (nextPublishedAt == 0) {
+            prepareNext();
+        }
+        if (now - currentSince >= rotationInterval.toMillis()) {
+            rotate();
+        }
+        verificationKeys.values().removeIf(key -> key.notAfter() <= now);
+        decodedKeys.keySet().retainAll(verificationKeys.keySet());
+        unknownKids.values().removeIf(retryAt -> retryAt <= now);
+    }
+
+    void rotate() {
+        long now = System.currentTimeMillis();
+        // Only switch once verifiers have had time to pick up the new kid; otherwise keep the old key.
+        if (nextPublishedAt == 0 || now - nextPublishedAt < publishLead.toMillis()) {
+            return;
+        }
+        current = next;
+        currentSince = now;
+        currentPublished = true;
+        log.info("Rotated JWT signing key to kid {}", current.kid());
+        prepareNext();
+    }
+
+    // A failed publish is retried with a fresh key, so notAfter still counts from publication.
+    private void prepareNext() {
+        SigningKey key = generate();
+        if (!publish(key)) {
+            nextPublishedAt = 0;
+            return;
+        }
+        remember(key);
+        next = key;
+        nextPublishedAt = System.currentTimeMillis();
+        jwksDocument = null;
+    }
+
+    private SigningKey generate() {
+        try {
+            KeyPair keyPair;
+            if ("EdDSA".equals(algorithm)) {
+                keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+            } else if ("ES256".equals(algorithm)) {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                keyPair = generator.generateKeyPair();
+            } else {
+                throw new IllegalStateException("Unsupported jwt.signing.algorithm: " + algorithm);
+            }
+            return new SigningKey(
+                UUID.randomUUID().toString(),
+                algorithm,
+                keyPair.getPrivate(),
+                keyPair.getPublic(),
+                System.currentTimeMillis()
+            );
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Could not generate JWT signing key", ex);
+        }
+    }
+
+    // A key must stay verifiable until the last token it signed has expired.
+    private PublishedKey toPublished(SigningKey key) {
+        long notAfter = key.createdAt() + publishLead.toMillis() + rotationInterval.toMillis()
+            + maxTokenLifetimeSeconds * 1000;
+        return new PublishedKey(
+            key.kid(),
+            key.algorithm(),
+            Base64.getEncoder().encodeToString(key.publicKey().getEncoded()),
+            notAfter
+        );
+    }
+
+    private void remember(SigningKey key) {
+        verificationKeys.put(key.kid(), toPublished(key));
+        decodedKeys.put(key.kid(), key.publicKey());
+    }
+
+    private boolean publish(SigningKey key) {
+        PublishedKey published = toPublished(key);
+        try {
+            redisTemplate.opsForValue().set(
+                keyPrefix + ":" + key.kid(),
+                objectMapper.writeValueAsString(published),
+                Duration.ofMillis(published.notAfter() - System.currentTimeMillis())
+            );
+            return true;
+        } catch (DataAccessException | JsonProcessingException ex) {
+            log.warn("Could not publish JWT verification key {}: {}", key.kid(), ex.getMessage());
+            return false;
+        }
+    }
+
+    @Nullable
+    private PublishedKey fetch(String kid) {
+        try {
+            String json = redisTemplate.opsForValue().get(keyPrefix + ":" + kid);
+            return json != null ? objectMapper.readValue(json, PublishedKey.class) : null;
+        } catch (DataAccessException | JsonProcessingException ex) {
+            log.warn("Could not load JWT verification key {}: {}", kid, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void loadAllPublished() {
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(keyPrefix + ":*").count(100).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(keys::add);
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        for (int i = 0; values != null && i < values.size(); i++) {
+            if (values.get(i) == null) {
+                continue;
+            }
+            try {
+                PublishedKey key = objectMapper.readValue(values.get(i), PublishedKey.class);
+                verificationKeys.putIfAbsent(key.kid(), key);
+            } catch (JsonProcessingException ex) {
+                log.warn("Skipping malformed JWT verification key {}", keys.get(i));
+            }
+        }
+    }
+
+    private static PublicKey decode(PublishedKey key) {
+        try {
+            String keyAlgorithm = "EdDSA".equals(key.alg()) ? "Ed25519" : "EC";
+            return KeyFactory.getInstance(keyAlgorithm)
+                .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(key.publicKey())));
+        } catch (GeneralSecurityException | IllegalArgumentException ex) {
+            throw new IllegalStateException("Invalid JWT verification key " + key.kid(), ex);
+        }
+    }
+
+    private static Map<String, Object> toJwk(String kid, String alg, PublicKey publicKey) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (publicKey instanceof ECPublicKey ecKey) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", encoder.encodeToString(unsigned(ecKey.getW().getAffineX(), 32)));
+            jwk.put("y", encoder.encodeToString(unsigned(ecKey.getW().getAffineY(), 32)));
+        } else {
+            // X.509 encoding of an Ed25519 key is a fixed 12-byte prefix followed by the raw key.
+            byte[] encoded = publicKey.getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("crv", "Ed25519");
+            jwk.put("x", encoder.encodeToString(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)));
+        }
+        jwk.put("use", "sig");
+        jwk.put("alg", alg);
+        jwk.put("kid", kid);
+        return jwk;
+    }
+
+    private static byte[] unsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length == length) {
+            return bytes;
+        }
+        byte[] padded = new byte[length];
+        int copy = Math.min(bytes.length, length);
+        System.arraycopy(bytes, bytes.length - copy, padded, length - copy, copy);
+        return padded;
+    }
+}
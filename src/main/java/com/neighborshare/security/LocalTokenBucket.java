@@ -0,0 +1,51 @@
+package com.neighborshare.security;
+
+/**
+ * In-memory token bucket. Used as the fallback when Redis is unavailable and by
+ * background jobs that need to pace calls on a single node.
+ */
+public class LocalTokenBucket {
+
+    private final long capacity;
+    private final double refillPerMillis;
+
+    private double tokens;
+    private long lastRefillMillis;
+
+    public LocalTokenBucket(long capacity, double refillPerMillis, long nowMillis) {
+        this.capacity = capacity;
+        this.refillPerMillis = refillPerMillis;
+        this.tokens = capacity;
+        this.lastRefillMillis = nowMillis;
+    }
+
+    /**
+     * Takes one token if available. Returns 0 on success, otherwise the number of
+     * milliseconds until a token becomes available.
+     */
+    public synchronized long tryConsume(long nowMillis) {
+        refill(nowMillis);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / refillPerMillis);
+    }
+
+    public synchronized long remaining(long nowMillis) {
+        refill(nowMillis);
+        return (long) tokens;
+    }
+
+    /** A full bucket carries no state and can be dropped without changing behaviour. */
+    public synchronized boolean isFull(long nowMillis) {
+        refill(nowMillis);
+        return tokens >= capacity;
+    }
+
+    private void refill(long nowMillis) {
+        long elapsed = Math.max(0, nowMillis - lastRefillMillis);
+        tokens = Math.min(capacity, tokens + elapsed * refillPerMillis);
+        lastRefillMillis = nowMillis;
+    }
+}
@@ -0,0 +1,143 @@
+package com.neighborshare.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neighborshare.exception.GlobalExceptionHandler;
+import com.neighborshare.util.CachedBodyHttpServletRequest;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Applies the configured token-bucket rules before a request reaches a controller, so rejected
+ * requests never cost a DB query or a password hash. Runs after {@code JwtAuthenticationFilter}
+ * so user and apartment keys can be taken from the verified token.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitService rateLimitService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(
+        @NonNull HttpServletRequest request,
+        @NonNull HttpServletResponse response,
+        @NonNull FilterChain filterChain
+    )
+        throws ServletException, IOException {
+
+        if (!rateLimitService.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        List<RateLimitProperties.Rule> rules = rateLimitService.matchingRules(request.getMethod(), path);
+        if (rules.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest effectiveRequest = request;
+        String email = null;
+        boolean needsEmail = rules.stream().anyMatch(rule -> rule.getKey() == RateLimitProperties.KeyType.EMAIL);
+        if (needsEmail) {
+            CachedBodyHttpServletRequest cachedRequest =
+                new CachedBodyHttpServletRequest(request, rateLimitService.getMaxBodyBytes());
+            email = extractEmail(cachedRequest);
+            effectiveRequest = cachedRequest;
+        }
+
+        for (RateLimitProperties.Rule rule : rules) {
+            String key = resolveKey(rule.getKey(), effectiveRequest, email);
+            if (key == null) {
+                continue;
+            }
+            RateLimitService.Decision decision = rateLimitService.tryConsume(rule, key);
+            if (!decision.allowed()) {
+                log.debug("Rate limit '{}' exceeded for {}", rule.getName(), key);
+                reject(response, path, decision);
+                return;
+            }
+        }
+
+        filterChain.doFilter(effectiveRequest, response);
+    }
+
+    @Nullable
+    private String resolveKey(RateLimitProperties.KeyType keyType, HttpServletRequest request, @Nullable String email) {
+        return switch (keyType) {
+            case IP -> "ip:" + clientIp(request);
+            case EMAIL -> email != null ? "email:" + email : null;
+            case USER -> request.getAttribute("userId") != null ? "user:" + request.getAttribute("userId") : null;
+            case APARTMENT -> request.getAttribute("apartmentId") != null
+                ? "apartment:" + request.getAttribute("apartmentId")
+                : null;
+        };
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (rateLimitService.isTrustForwardedFor()) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (StringUtils.hasText(forwardedFor)) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma >= 0 ? forwardedFor.substring(0, comma) : forwardedFor).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    @Nullable
+    private String extractEmail(CachedBodyHttpServletRequest request) {
+        byte[] body = request.getCachedBody();
+        if (body.length == 0 || request.isTruncated()) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            if (email == null || !email.isTextual() || email.asText().isBlank()) {
+                return null;
+            }
+            return email.asText().trim().toLowerCase(Locale.ROOT);
+        } catch (IOException ex) {
+            // Malformed bodies are rejected by request validation; only the IP rule applies to them.
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, String path, RateLimitService.Decision decision) throws IOException {
+        long retryAfterSeconds = Math.max(1, (decision.retryAfterMillis() + 999) / 1000);
+        GlobalExceptionHandler.ErrorResponse body = new GlobalExceptionHandler.ErrorResponse(
+            LocalDateTime.now().toString(),
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            "Too Many Requests",
+            "RATE_LIMITED",
+            "Too many requests. Please retry later.",
+            path,
+            null
+        );
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,49 @@
+package com.neighborshare.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private String keyPrefix = "rl";
+
+    // Only enable behind a proxy that overwrites X-Forwarded-For, otherwise clients can spoof their IP key.
+    private boolean trustForwardedFor = false;
+
+    // How long to stay on the local fallback after a Redis failure before trying Redis again.
+    private Duration redisRetryInterval = Duration.ofSeconds(5);
+
+    private int localMaxBuckets = 100_000;
+
+    // Upper bound on how much of a request body is buffered to extract the email key.
+    private int maxBodyBytes = 8192;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        private String name;
+        private String pattern;
+        private Set<String> methods = new HashSet<>();  // empty = all methods
+        private KeyType key = KeyType.IP;
+        private long capacity = 60;
+        private Duration refillPeriod = Duration.ofMinutes(1);  // time to refill an empty bucket
+    }
+
+    public enum KeyType {
+        IP,
+        EMAIL,
+        USER,
+        APARTMENT
+    }
+}
@@ -0,0 +1,138 @@
+package com.neighborshare.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token-bucket rate limiting backed by Redis, with a per-node in-memory fallback.
+ * The Redis bucket is updated by a single Lua script so concurrent nodes never race.
+ */
+@Component
+@Slf4j
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitService {
+
+    @SuppressWarnings("unchecked")
+    private static final RedisScript<List<Long>> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>("""
+        local capacity = tonumber(ARGV[1])
+        local refill_per_ms = tonumber(ARGV[2])
+        local ttl_ms = tonumber(ARGV[3])
+        local time = redis.call('TIME')
+        local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+        local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+        local tokens = tonumber(state[1])
+        local ts = tonumber(state[2])
+        if tokens == nil or ts == nil then
+            tokens = capacity
+            ts = now
+        end
+        tokens = math.min(capacity, tokens + math.max(0, now - ts) * refill_per_ms)
+        local retry_ms = 0
+        if tokens >= 1 then
+            tokens = tokens - 1
+        else
+            retry_ms = math.ceil((1 - tokens) / refill_per_ms)
+        end
+        redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+        redis.call('PEXPIRE', KEYS[1], ttl_ms)
+        return {retry_ms, math.floor(tokens)}
+        """, (Class<List<Long>>) (Class<?>) List.class);
+
+    public record Decision(boolean allowed, long remaining, long retryAfterMillis) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final RateLimitProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, LocalTokenBucket> localBuckets = new ConcurrentHashMap<>();
+
+    private volatile long redisDisabledUntil;
+
+    public RateLimitService(StringRedisTemplate redisTemplate, RateLimitProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled() && !properties.getRules().isEmpty();
+    }
+
+    public int getMaxBodyBytes() {
+        return properties.getMaxBodyBytes();
+    }
+
+    public boolean isTrustForwardedFor() {
+        return properties.isTrustForwardedFor();
+    }
+
+    public List<RateLimitProperties.Rule> matchingRules(String method, String path) {
+        String upperMethod = method.toUpperCase(Locale.ROOT);
+        return properties.getRules().stream()
+            .filter(rule -> rule.getMethods().isEmpty()
+                || rule.getMethods().stream().anyMatch(m -> m.equalsIgnoreCase(upperMethod)))
+            .filter(rule -> pathMatcher.match(rule.getPattern(), path))
+            .toList();
+    }
+
+    public Decision tryConsume(RateLimitProperties.Rule rule, String key) {
+        String bucketKey = properties.getKeyPrefix() + ":" + rule.getName() + ":" + key;
+        double refillPerMillis = (double) rule.getCapacity() / Math.max(1, rule.getRefillPeriod().toMillis());
+
+        long now = System.currentTimeMillis();
+        if (now >= redisDisabledUntil) {
+            try {
+                return consumeInRedis(bucketKey, rule, refillPerMillis);
+            } catch (DataAccessException ex) {
+                redisDisabledUntil = now + properties.getRedisRetryInterval().toMillis();
+                log.warn("Rate limiter falling back to local buckets: {}", ex.getMessage());
+            }
+        }
+        return consumeLocally(bucketKey, rule.getCapacity(), refillPerMillis, now);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.local-cleanup-interval-ms:60000}")
+    public void evictIdleLocalBuckets() {
+        long now = System.currentTimeMillis();
+        localBuckets.entrySet().removeIf(entry -> entry.getValue().isFull(now));
+    }
+
+    private Decision consumeInRedis(String bucketKey, RateLimitProperties.Rule rule, double refillPerMillis) {
+        List<Long> result = redisTemplate.execute(
+            TOKEN_BUCKET_SCRIPT,
+            List.of(bucketKey),
+            String.valueOf(rule.getCapacity()),
+            String.valueOf(refillPerMillis),
+            String.valueOf(rule.getRefillPeriod().toMillis())
+        );
+        if (result == null || result.size() < 2) {
+            throw new DataRetrievalFailureException("Empty rate limit script result");
+        }
+        long retryAfter = result.get(0);
+        return new Decision(retryAfter == 0, result.get(1), retryAfter);
+    }
+
+    private Decision consumeLocally(String bucketKey, long capacity, double refillPerMillis, long now) {
+        if (localBuckets.size() >= properties.getLocalMaxBuckets()) {
+            evictIdleLocalBuckets();
+        }
+        LocalTokenBucket bucket = localBuckets.computeIfAbsent(
+            bucketKey,
+            ignored -> new LocalTokenBucket(capacity, refillPerMillis, now)
+        );
+        long retryAfter = bucket.tryConsume(now);
+        return new Decision(retryAfter == 0, bucket.remaining(now), retryAfter);
+    }
+}
@@ -0,0 +1,200 @@
+package com.neighborshare.security;
+
+import com.neighborshare.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocation of access tokens, either one token by its jti or every token of a user issued
+ * before a "not before" instant. Redis holds the authoritative list and pub/sub pushes changes
+ * to every node. Lookups go through an in-memory bloom filter first, so a token that was never
+ * revoked is accepted without a network round trip.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TokenRevocationService implements MessageListener {
+
+    private static final String TOKEN_MESSAGE = "jti";
+    private static final String USER_MESSAGE = "user";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${app.token-revocation.key-prefix:revoked}")
+    private String keyPrefix;
+
+    @Value("${app.token-revocation.channel:auth:revocations}")
+    private String channel;
+
+    @Value("${app.token-revocation.expected-revocations:100000}")
+    private long expectedRevocations;
+
+    @Value("${app.token-revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    // Longest lifetime of any token we issue; user-level entries are useless after that.
+    @Value("${jwt.refresh-token-expiration}")
+    private long maxTokenLifetimeSeconds;
+
+    // jti -> token expiry (epoch millis). Used to rebuild the bloom filter and when Redis is down.
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // userId -> epoch millis before which the user's tokens are rejected.
+    private final Map<UUID, Long> userNotBefore = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter revokedTokenFilter;
+
+    @PostConstruct
+    public void init() {
+        revokedTokenFilter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    public boolean isRevoked(@Nullable String tokenId, UUID userId, @Nullable Date issuedAt) {
+        Long notBefore = userNotBefore.get(userId);
+        if (notBefore != null && (issuedAt == null || issuedAt.getTime() < notBefore)) {
+            return true;
+        }
+        if (tokenId == null || !revokedTokenFilter.mightContain(tokenId)) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(tokenKey(tokenId)));
+        } catch (DataAccessException ex) {
+            log.warn("Revocation lookup falling back to local state: {}", ex.getMessage());
+            Long expiresAt = revokedTokens.get(tokenId);
+            return expiresAt != null && expiresAt > System.currentTimeMillis();
+        }
+    }
+
+    public void revokeToken(String tokenId, Instant expiresAt) {
+        Duration ttl = Duration.between(Instant.now(), expiresAt);
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        applyTokenRevocation(tokenId, expiresAt.toEpochMilli());
+        redisTemplate.opsForValue().set(tokenKey(tokenId), "1", ttl);
+        redisTemplate.convertAndSend(channel, TOKEN_MESSAGE + ":" + tokenId + ":" + expiresAt.toEpochMilli());
+    }
+
+    /** Rejects every token of the user issued before now, e.g. after a ban or deactivation. */
+    public void revokeAllForUser(UUID userId) {
+        long notBefore = System.currentTimeMillis();
+        applyUserRevocation(userId, notBefore);
+        redisTemplate.opsForValue().set(
+            userKey(userId),
+            String.valueOf(notBefore),
+            Duration.ofSeconds(maxTokenLifetimeSeconds)
+        );
+        redisTemplate.convertAndSend(channel, USER_MESSAGE + ":" + userId + ":" + notBefore);
+    }
+
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":");
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed revocation message");
+            return;
+        }
+        try {
+            long timestamp = Long.parseLong(parts[2]);
+            if (TOKEN_MESSAGE.equals(parts[0])) {
+                applyTokenRevocation(parts[1], timestamp);
+            } else if (USER_MESSAGE.equals(parts[0])) {
+                applyUserRevocation(UUID.fromString(parts[1]), timestamp);
+            }
+        } catch (IllegalArgumentException ex) {
+            log.warn("Ignoring malformed revocation message: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Reloads revocations from Redis, which covers messages missed while disconnected, drops
+     * expired entries and rebuilds the bloom filter so it does not fill up over time.
+     */
+    @Scheduled(
+        initialDelayString = "${app.token-revocation.initial-sync-delay-ms:0}",
+        fixedDelayString = "${app.token-revocation.resync-interval-ms:300000}"
+    )
+    public void resync() {
+        long now = System.currentTimeMillis();
+        try {
+            for (String tokenId : scanSuffixes(keyPrefix + ":jti:")) {
+                Long ttl = redisTemplate.getExpire(tokenKey(tokenId));
+                if (ttl != null && ttl > 0) {
+                    revokedTokens.merge(tokenId, now + ttl * 1000, Math::max);
+                }
+            }
+            List<String> userIds = scanSuffixes(keyPrefix + ":user:");
+            if (!userIds.isEmpty()) {
+                List<String> values = redisTemplate.opsForValue()
+                    .multiGet(userIds.stream().map(id -> keyPrefix + ":user:" + id).toList());
+                for (int i = 0; values != null && i < userIds.size(); i++) {
+                    if (values.get(i) != null) {
+                        userNotBefore.merge(UUID.fromString(userIds.get(i)), Long.parseLong(values.get(i)), Math::max);
+                    }
+                }
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Token revocation resync skipped, Redis unavailable: {}", ex.getMessage());
+        }
+
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        userNotBefore.values().removeIf(notBefore -> notBefore + maxTokenLifetimeSeconds * 1000 <= now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revokedTokens.size() * 2L), falsePositiveRate);
+        revokedTokens.keySet().forEach(rebuilt::put);
+        revokedTokenFilter = rebuilt;
+        // Revocations applied during the rebuild may have landed in the old filter only.
+        revokedTokens.keySet().forEach(rebuilt::put);
+    }
+
+    private void applyTokenRevocation(String tokenId, long expiresAtMillis) {
+        revokedTokens.merge(tokenId, expiresAtMillis, Math::max);
+        revokedTokenFilter.put(tokenId);
+    }
+
+    private void applyUserRevocation(UUID userId, long notBeforeMillis) {
+        userNotBefore.merge(userId, notBeforeMillis, Math::max);
+    }
+
+    private List<String> scanSuffixes(String prefix) {
+        List<String> suffixes = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(1000).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(key -> suffixes.add(key.substring(prefix.length())));
+        }
+        return suffixes;
+    }
+
+    private String tokenKey(String tokenId) {
+        return keyPrefix + ":jti:" + tokenId;
+    }
+
+    private String userKey(UUID userId) {
+        return keyPrefix + ":user:" + userId;
+    }
+}
@@ -14,14 +14,20 @@ import com.neighborshare.dto.response.AuthResponse;
 import com.neighborshare.exception.ResourceNotFoundException;
 import com.neighborshare.exception.UnauthorizedException;
 import com.neighborshare.exception.ValidationException;
+import com.neighborshare.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -33,6 +39,8 @@ public class AuthService {
     private final ApartmentRepository apartmentRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtProvider jwtProvider;
+    private final UserActivityRecorder userActivityRecorder;
+    private final TokenRevocationService tokenRevocationService;
 
     @Value("${jwt.expiration}")
     private long jwtExpirationSeconds;
@@ -59,7 +67,8 @@ public class AuthService {
         return buildAuthResponse(saved);
     }
 
-    @Transactional
+    // Not transactional: the lookup commits on its own, so no pooled connection is held while
+    // the password hash is checked. The last-login write is buffered by UserActivityRecorder.
     public AuthResponse login(LoginRequest request) {
         User user = userRepository.findByEmail(request.getEmail().trim().toLowerCase())
             .orElseThrow(() -> new UnauthorizedException("Invalid email or password"));
@@ -76,12 +85,22 @@ public class AuthService {
             throw new UnauthorizedException("Your account is temporarily suspended");
         }
 
-        user.setLastLoginAt(LocalDateTime.now());
-        userRepository.save(user);
+        userActivityRecorder.recordLogin(user.getId(), LocalDateTime.now());
 
         return buildAuthResponse(user);
     }
 
+    public ApiMessageResponse logout(UUID userId, String tokenId, Date expiresAt, String refreshToken) {
+        if (StringUtils.hasText(refreshToken)) {
+            Claims refreshClaims = parseRefreshToken(refreshToken, userId);
+            tokenRevocationService.revokeToken(refreshClaims.getId(), refreshClaims.getExpiration().toInstant());
+        }
+        tokenRevocationService.revokeToken(tokenId, expiresAt.toInstant());
+        return ApiMessageResponse.builder()
+            .message("Logged out successfully")
+            .build();
+    }
+
     @Transactional
     public ApiMessageResponse sendOtp(SendOtpRequest request) {
         return userRepository.findByEmail(request.getEmail().trim().toLowerCase())
@@ -132,6 +151,19 @@ public class AuthService {
             .build();
     }
 
+    private Claims parseRefreshToken(String refreshToken, UUID userId) {
+        Claims claims;
+        try {
+            claims = jwtProvider.parseClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException ex) {
+            throw new ValidationException("Invalid refresh token");
+        }
+        if (!"refresh".equals(claims.get("type", String.class)) || !userId.toString().equals(claims.getSubject())) {
+            throw new ValidationException("Invalid refresh token");
+        }
+        return claims;
+    }
+
     private String generateOtpCode() {
         int otp = 100000 + SECURE_RANDOM.nextInt(900000);
         return String.valueOf(otp);
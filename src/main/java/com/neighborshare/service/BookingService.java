@@ -39,6 +39,11 @@ public class BookingService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final UserContextCache userContextCache;
+    private final DepositSettlementService depositSettlementService;
+    private final ItemCounterStore itemCounterStore;
+    private final TrustScoreStore trustScoreStore;
+    private final FraudDetector fraudDetector;
 
     @Value("${app.platform-fee-percent:10}")
     private BigDecimal platformFeePercent;
@@ -102,7 +107,9 @@ public class BookingService {
             .totalAmount(totalAmount)
             .build();
 
-        return toResponse(bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        fraudDetector.recordBookingCreated(borrowerId);
+        return toResponse(saved);
     }
 
     @Transactional(readOnly = true)
@@ -173,7 +180,9 @@ public class BookingService {
 
         booking.setStatus(BookingStatus.REJECTED);
         booking.setStatusUpdatedAt(LocalDateTime.now());
-        return toResponse(bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        fraudDetector.recordBookingRejected(saved.getBorrower().getId());
+        return toResponse(saved);
     }
 
     @Transactional
@@ -217,7 +226,8 @@ public class BookingService {
 
     @Transactional
     public BookingResponse completeBooking(UUID ownerId, UUID apartmentId, UUID bookingId) {
-        Booking booking = bookingRepository.findByIdAndOwnerId(bookingId, ownerId)
+        // Locked so a dispute cannot be opened or resolved while the deposit is being settled.
+        Booking booking = bookingRepository.findByIdAndOwnerIdForUpdate(bookingId, ownerId)
             .orElseThrow(() -> new ResourceNotFoundException("Booking", bookingId.toString()));
         assertBookingInApartment(booking, apartmentId);
 
@@ -230,12 +240,22 @@ public class BookingService {
         }
         booking.setStatus(BookingStatus.COMPLETED);
         booking.setStatusUpdatedAt(LocalDateTime.now());
-        return toResponse(bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        depositSettlementService.onBookingCompleted(saved);
+        itemCounterStore.recordBookingCompleted(saved.getItem().getId());
+
+        trustScoreStore.recordBookingCompleted(
+            saved.getBorrower().getId(),
+            saved.getOwner().getId(),
+            !saved.getReturnedAt().isAfter(saved.getEndDate())
+        );
+        return toResponse(saved);
     }
 
     private User getUserInApartment(UUID userId, UUID apartmentId) {
-        return userRepository.findByIdAndApartmentId(userId, apartmentId)
-            .orElseThrow(() -> new UnauthorizedException("Invalid user context"));
+        userContextCache.requireMember(userId, apartmentId);
+        // Membership is confirmed from the cache; the reference only supplies the foreign key.
+        return userRepository.getReferenceById(userId);
     }
 
     private void assertBookingInApartment(Booking booking, UUID apartmentId) {
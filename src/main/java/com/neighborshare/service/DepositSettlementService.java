@@ -0,0 +1,78 @@
+package com.neighborshare.service;
+
+import com.neighborshare.domain.entity.Booking;
+import com.neighborshare.domain.entity.Dispute;
+import com.neighborshare.domain.repository.DisputeRepository;
+import com.neighborshare.domain.valueobject.BookingStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Decides how a paid booking's deposit is split once the booking is settled: on completion
+ * unless a dispute is still open, otherwise when that dispute is resolved. The split is posted
+ * to the ledger and queued for refund in the caller's transaction; the gateway refund itself
+ * is issued later by {@link DepositSettlementWorker}.
+ */
+@Service
+@RequiredArgsConstructor
+public class DepositSettlementService {
+
+    private final DepositSettlementStore store;
+    private final DisputeRepository disputeRepository;
+    private final LedgerService ledgerService;
+
+    public void onBookingCompleted(Booking booking) {
+        Dispute dispute = disputeRepository.findByBookingId(booking.getId()).orElse(null);
+        if (dispute != null && dispute.getResolvedAt() == null) {
+            return;
+        }
+        settle(booking, dispute);
+    }
+
+    /** Returns false when the deposit was already settled and the dispute's split can no longer apply. */
+    public boolean onDisputeResolved(Dispute dispute) {
+        Booking booking = dispute.getBooking();
+        // An unfinished booking is settled by its completion, which sees the resolved dispute.
+        return booking.getStatus() != BookingStatus.COMPLETED || settle(booking, dispute);
+    }
+
+    public boolean isSettled(UUID bookingId) {
+        return store.exists(bookingId);
+    }
+
+    /** Deposit minus damage, or the refund an admin decided when resolving a dispute. */
+    static BigDecimal refundFor(Booking booking, @Nullable Dispute dispute) {
+        BigDecimal deposit = orZero(booking.getDepositCollected());
+        BigDecimal refund = dispute != null && dispute.getRefundAmount() != null
+            ? dispute.getRefundAmount()
+            : deposit.subtract(orZero(booking.getDamageAmount()));
+        return refund.max(BigDecimal.ZERO).min(deposit);
+    }
+
+    private boolean settle(Booking booking, @Nullable Dispute dispute) {
+        BigDecimal deposit = orZero(booking.getDepositCollected());
+        if (booking.getPaidAt() == null || deposit.signum() <= 0 || booking.getPaymentIntentId() == null) {
+            return true;
+        }
+        BigDecimal refund = refundFor(booking, dispute);
+        boolean created = store.create(
+            booking.getId(),
+            booking.getPaymentIntentId(),
+            deposit,
+            refund,
+            dispute != null ? "dispute" : "completion"
+        );
+        if (created) {
+            ledgerService.recordDepositRelease(booking, refund);
+        }
+        return created;
+    }
+
+    private static BigDecimal orZero(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,161 @@
+package com.neighborshare.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable queue of deposit settlements. A settlement is created once per booking in the
+ * transaction that decides the refund, and claimed in batches by {@link DepositSettlementWorker}
+ * which issues the gateway refund.
+ */
+@Component
+@RequiredArgsConstructor
+public class DepositSettlementStore {
+
+    public record Settlement(long id, UUID bookingId, String orderId, BigDecimal refundAmount, int attempts, Duration queuedFor) {
+    }
+
+    public record Refunded(long id, String gatewayRefundId) {
+    }
+
+    public record Retry(long id, Duration delay, String error) {
+    }
+
+    public record Failed(long id, String error) {
+    }
+
+    public record Stats(long backlog, Duration oldestAge) {
+    }
+
+    private static final RowMapper<Settlement> SETTLEMENT_MAPPER = (rs, rowNum) -> new Settlement(
+        rs.getLong("id"),
+        rs.getObject("booking_id", UUID.class),
+        rs.getString("order_id"),
+        rs.getBigDecimal("refund_amount"),
+        rs.getInt("attempts"),
+        Duration.ofMillis(Math.max(0, Math.round(rs.getDouble("queued_for") * 1000)))
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Records the settlement of a booking's deposit. A zero refund is settled immediately.
+     * Returns false when the booking was already settled.
+     */
+    public boolean create(
+        UUID bookingId,
+        String orderId,
+        BigDecimal deposit,
+        BigDecimal refund,
+        String source
+    ) {
+        int inserted = jdbcTemplate.update(
+            """
+                INSERT INTO deposit_settlements (booking_id, order_id, deposit_amount, refund_amount, retained_amount,
+                                                 source, status, settled_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, CASE WHEN ? THEN NULL ELSE CURRENT_TIMESTAMP END)
+                ON CONFLICT (booking_id) DO NOTHING
+                """,
+            bookingId,
+            orderId,
+            deposit,
+            refund,
+            deposit.subtract(refund),
+            source,
+            refund.signum() > 0 ? "pending" : "settled",
+            refund.signum() > 0
+        );
+        return inserted > 0;
+    }
+
+    public boolean exists(UUID bookingId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM deposit_settlements WHERE booking_id = ?)",
+            Boolean.class,
+            bookingId
+        ));
+    }
+
+    /** Marks up to {@code limit} due settlements as processing and returns them. */
+    public List<Settlement> claim(int limit, Duration lockTimeout) {
+        return jdbcTemplate.query(
+            """
+                WITH claimable AS (
+                    SELECT id FROM deposit_settlements
+                    WHERE status = 'pending' AND next_attempt_at <= CURRENT_TIMESTAMP
+                    ORDER BY next_attempt_at, id
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                UPDATE deposit_settlements d
+                SET status = 'processing', attempts = d.attempts + 1,
+                    locked_until = CURRENT_TIMESTAMP + make_interval(secs => ?)
+                FROM claimable
+                WHERE d.id = claimable.id
+                RETURNING d.id, d.booking_id, d.order_id, d.refund_amount, d.attempts,
+                    EXTRACT(EPOCH FROM CURRENT_TIMESTAMP - d.created_at) AS queued_for
+                """,
+            SETTLEMENT_MAPPER,
+            limit,
+            seconds(lockTimeout)
+        );
+    }
+
+    /** Applies the outcomes of one claimed batch. */
+    @Transactional
+    public void applyOutcomes(List<Refunded> refunded, List<Retry> retries, List<Failed> failed) {
+        if (!refunded.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "UPDATE deposit_settlements SET status = 'refunded', gateway_refund_id = ?, settled_at = CURRENT_TIMESTAMP, "
+                    + "locked_until = NULL, last_error = NULL WHERE id = ?",
+                refunded.stream().map(r -> new Object[]{r.gatewayRefundId(), r.id()}).toList()
+            );
+        }
+        if (!retries.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "UPDATE deposit_settlements SET status = 'pending', "
+                    + "next_attempt_at = CURRENT_TIMESTAMP + make_interval(secs => ?), locked_until = NULL, "
+                    + "last_error = ? WHERE id = ?",
+                retries.stream().map(r -> new Object[]{seconds(r.delay()), r.error(), r.id()}).toList()
+            );
+        }
+        if (!failed.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "UPDATE deposit_settlements SET status = 'failed', locked_until = NULL, last_error = ? WHERE id = ?",
+                failed.stream().map(f -> new Object[]{f.error(), f.id()}).toList()
+            );
+        }
+    }
+
+    /** Returns settlements left in processing by a node that died to the pending state. */
+    public int releaseExpiredClaims() {
+        return jdbcTemplate.update(
+            "UPDATE deposit_settlements SET status = 'pending', locked_until = NULL "
+                + "WHERE status = 'processing' AND locked_until < CURRENT_TIMESTAMP"
+        );
+    }
+
+    public Stats stats() {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) AS backlog, "
+                + "COALESCE(EXTRACT(EPOCH FROM CURRENT_TIMESTAMP - MIN(created_at)), 0) AS oldest_age "
+                + "FROM deposit_settlements WHERE status IN ('pending', 'processing')",
+            (rs, rowNum) -> new Stats(
+                rs.getLong("backlog"),
+                Duration.ofMillis(Math.max(0, Math.round(rs.getDouble("oldest_age") * 1000)))
+            )
+        );
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,177 @@
+package com.neighborshare.service;
+
+import com.neighborshare.exception.PaymentGatewayException;
+import com.neighborshare.integration.GatewayRefund;
+import com.neighborshare.integration.PaymentGatewayClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues gateway refunds for queued deposit settlements. Each run claims a batch, refunds it
+ * with bounded concurrency and writes all outcomes back in one transaction. Refunds carry the
+ * settlement id as idempotency key, so a settlement retried after a lost response is not
+ * refunded twice.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DepositSettlementWorker {
+
+    private record Outcome(DepositSettlementStore.Settlement settlement, @Nullable GatewayRefund refund, @Nullable Throwable error) {
+    }
+
+    private final DepositSettlementStore store;
+    private final PaymentGatewayClient paymentGatewayClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.deposit-settlements.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.deposit-settlements.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${app.deposit-settlements.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.deposit-settlements.retry-base-delay:30s}")
+    private Duration retryBaseDelay;
+
+    @Value("${app.deposit-settlements.retry-max-delay:1h}")
+    private Duration retryMaxDelay;
+
+    @Value("${app.deposit-settlements.lock-timeout:5m}")
+    private Duration lockTimeout;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong oldestSettlementAgeMillis = new AtomicLong();
+
+    private Timer settlementLag;
+    private Counter refunded;
+    private Counter retried;
+    private Counter failed;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("deposit.settlement.backlog", backlog, AtomicLong::get)
+            .description("Deposit refunds waiting to be issued")
+            .register(meterRegistry);
+        Gauge.builder("deposit.settlement.lag", oldestSettlementAgeMillis, value -> value.get() / 1000.0)
+            .description("Age of the oldest deposit refund not yet issued")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        settlementLag = Timer.builder("deposit.settlement.latency")
+            .description("Time from booking settlement to the gateway accepting the refund")
+            .register(meterRegistry);
+        refunded = meterRegistry.counter("deposit.settlement.refunds", "outcome", "refunded");
+        retried = meterRegistry.counter("deposit.settlement.refunds", "outcome", "retried");
+        failed = meterRegistry.counter("deposit.settlement.refunds", "outcome", "failed");
+    }
+
+    @Scheduled(fixedDelayString = "${app.deposit-settlements.poll-interval-ms:10000}")
+    public void drain() {
+        if (!paymentGatewayClient.isConfigured()) {
+            return;
+        }
+        try {
+            List<DepositSettlementStore.Settlement> batch;
+            do {
+                batch = store.claim(batchSize, lockTimeout);
+                if (!batch.isEmpty()) {
+                    process(batch);
+                }
+            } while (batch.size() == batchSize);
+        } catch (DataAccessException ex) {
+            log.warn("Deposit settlement drain skipped: {}", ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.deposit-settlements.housekeeping-interval-ms:30000}")
+    public void housekeeping() {
+        try {
+            int released = store.releaseExpiredClaims();
+            if (released > 0) {
+                log.warn("Released {} deposit settlements abandoned mid-refund", released);
+            }
+            DepositSettlementStore.Stats stats = store.stats();
+            backlog.set(stats.backlog());
+            oldestSettlementAgeMillis.set(stats.oldestAge().toMillis());
+        } catch (DataAccessException ex) {
+            log.warn("Deposit settlement housekeeping skipped: {}", ex.getMessage());
+        }
+    }
+
+    void process(List<DepositSettlementStore.Settlement> batch) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(maxConcurrency);
+        List<CompletableFuture<Outcome>> futures = new ArrayList<>(batch.size());
+        for (DepositSettlementStore.Settlement settlement : batch) {
+            inFlight.acquire();
+            futures.add(paymentGatewayClient.refundOrderAsync(
+                    settlement.orderId(),
+                    settlement.refundAmount().movePointRight(2).longValueExact(),
+                    "deposit_" + settlement.id()
+                )
+                .handle((refund, error) -> new Outcome(settlement, refund, error))
+                .whenComplete((outcome, error) -> inFlight.release()));
+        }
+
+        List<DepositSettlementStore.Refunded> done = new ArrayList<>();
+        List<DepositSettlementStore.Retry> retries = new ArrayList<>();
+        List<DepositSettlementStore.Failed> failures = new ArrayList<>();
+        for (CompletableFuture<Outcome> future : futures) {
+            Outcome outcome = future.join();
+            DepositSettlementStore.Settlement settlement = outcome.settlement();
+            if (outcome.refund() != null) {
+                done.add(new DepositSettlementStore.Refunded(settlement.id(), outcome.refund().id()));
+                settlementLag.record(settlement.queuedFor());
+                continue;
+            }
+            Throwable cause = outcome.error() instanceof CompletionException && outcome.error().getCause() != null
+                ? outcome.error().getCause()
+                : outcome.error();
+            String message = cause != null ? cause.getMessage() : "Unknown refund failure";
+            boolean retryable = cause instanceof PaymentGatewayException gatewayException && gatewayException.isRetryable();
+            if (retryable && settlement.attempts() < maxAttempts) {
+                retries.add(new DepositSettlementStore.Retry(settlement.id(), backoff(settlement.attempts()), message));
+                log.warn("Deposit refund for booking {} failed (attempt {}), will retry: {}",
+                    settlement.bookingId(), settlement.attempts(), message);
+            } else {
+                failures.add(new DepositSettlementStore.Failed(settlement.id(), message));
+                log.error("Deposit refund for booking {} failed after {} attempts: {}",
+                    settlement.bookingId(), settlement.attempts(), message);
+            }
+        }
+        store.applyOutcomes(done, retries, failures);
+        refunded.increment(done.size());
+        retried.increment(retries.size());
+        failed.increment(failures.size());
+    }
+
+    // Exponential backoff with jitter, so a gateway outage does not retry every refund in lockstep.
+    Duration backoff(int attempts) {
+        long base = retryBaseDelay.toMillis();
+        long exponential = base << Math.min(attempts - 1, 20);
+        long capped = Math.min(retryMaxDelay.toMillis(), exponential);
+        return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+    }
+}
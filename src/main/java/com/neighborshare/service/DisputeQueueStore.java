@@ -0,0 +1,80 @@
+package com.neighborshare.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Admin dispute queue. Claims lock candidate rows with SKIP LOCKED, so admins claiming at the
+ * same time each get different disputes without waiting on one another. A claim is a lease:
+ * once {@code claimed_until} passes, the dispute goes back into the queue for any admin.
+ */
+@Component
+@RequiredArgsConstructor
+public class DisputeQueueStore {
+
+    /** A claimed dispute; {@code firstAssignment} is false for a reclaimed lapsed lease. */
+    public record Claim(UUID disputeId, boolean firstAssignment) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Assigns up to {@code limit} unclaimed or lapsed disputes to the admin, oldest first. */
+    public List<Claim> claim(UUID adminId, int limit, Duration lease) {
+        return jdbcTemplate.query(
+            """
+                WITH claimable AS (
+                    SELECT id, assigned_at FROM disputes
+                    WHERE (status = 'open' AND assigned_admin_id IS NULL)
+                       OR (status = 'in_review' AND claimed_until < CURRENT_TIMESTAMP)
+                    ORDER BY created_at, id
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                UPDATE disputes d
+                SET status = 'in_review', assigned_admin_id = ?,
+                    claimed_until = CURRENT_TIMESTAMP + make_interval(secs => ?),
+                    assigned_at = COALESCE(claimable.assigned_at, CURRENT_TIMESTAMP),
+                    updated_at = CURRENT_TIMESTAMP
+                FROM claimable
+                WHERE d.id = claimable.id
+                RETURNING d.id, claimable.assigned_at IS NULL AS first_assignment
+                """,
+            (rs, rowNum) -> new Claim(rs.getObject("id", UUID.class), rs.getBoolean("first_assignment")),
+            limit,
+            adminId,
+            seconds(lease)
+        );
+    }
+
+    /** Extends the admin's lease; false when the dispute is no longer claimed by them. */
+    public boolean renew(UUID disputeId, UUID adminId, Duration lease) {
+        return jdbcTemplate.update(
+            "UPDATE disputes SET claimed_until = CURRENT_TIMESTAMP + make_interval(secs => ?), "
+                + "updated_at = CURRENT_TIMESTAMP "
+                + "WHERE id = ? AND assigned_admin_id = ? AND status = 'in_review'",
+            seconds(lease),
+            disputeId,
+            adminId
+        ) > 0;
+    }
+
+    /** Hands a claimed dispute back to the queue. */
+    public boolean release(UUID disputeId, UUID adminId) {
+        return jdbcTemplate.update(
+            "UPDATE disputes SET status = 'open', assigned_admin_id = NULL, claimed_until = NULL, "
+                + "updated_at = CURRENT_TIMESTAMP "
+                + "WHERE id = ? AND assigned_admin_id = ? AND status = 'in_review'",
+            disputeId,
+            adminId
+        ) > 0;
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+}
@@ -9,17 +9,29 @@ import com.neighborshare.domain.repository.BookingRepository;
 import com.neighborshare.domain.repository.DisputeRepository;
 import com.neighborshare.domain.repository.UserRepository;
 import com.neighborshare.dto.request.CreateDisputeRequest;
+import com.neighborshare.dto.request.ResolveDisputeRequest;
 import com.neighborshare.dto.response.DisputeResponse;
+import com.neighborshare.dto.response.DisputeSlaBreachResponse;
+import com.neighborshare.exception.InvalidStateException;
 import com.neighborshare.exception.ResourceNotFoundException;
 import com.neighborshare.exception.UnauthorizedException;
 import com.neighborshare.exception.ValidationException;
+import com.neighborshare.security.AdminAccess;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -30,10 +42,23 @@ public class DisputeService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final DepositSettlementService depositSettlementService;
+    private final DisputeQueueStore disputeQueueStore;
+    private final AdminAccess adminAccess;
+    private final DisputeSlaMonitor disputeSlaMonitor;
+    private final TrustScoreStore trustScoreStore;
+    private final FraudDetector fraudDetector;
+
+    @Value("${app.disputes.claim-lease:30m}")
+    private Duration claimLease;
+
+    @Value("${app.disputes.max-claim-batch:20}")
+    private int maxClaimBatch;
 
     @Transactional
     public DisputeResponse createDispute(UUID userId, UUID apartmentId, CreateDisputeRequest request) {
-        Booking booking = bookingRepository.findById(request.getBookingId())
+        // Locked so the booking cannot complete and settle its deposit while the dispute is opened.
+        Booking booking = bookingRepository.findByIdForUpdate(request.getBookingId())
             .orElseThrow(() -> new ResourceNotFoundException("Booking", request.getBookingId().toString()));
 
         boolean isParticipant = booking.getBorrower().getId().equals(userId) || booking.getOwner().getId().equals(userId);
@@ -46,6 +71,9 @@ public class DisputeService {
         if (disputeRepository.findByBookingId(booking.getId()).isPresent()) {
             throw new ValidationException("Dispute already exists for this booking");
         }
+        if (depositSettlementService.isSettled(booking.getId())) {
+            throw new ValidationException("The deposit for this booking has already been settled");
+        }
 
         User createdBy = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User", userId.toString()));
@@ -59,7 +87,14 @@ public class DisputeService {
             .status("open")
             .build();
 
-        return toResponse(disputeRepository.save(dispute));
+        Dispute saved = disputeRepository.save(dispute);
+        disputeSlaMonitor.onOpened(saved, apartmentId);
+        fraudDetector.recordDisputeOpened(userId);
+        // The dispute counts against the other participant.
+        trustScoreStore.recordDisputeOpened(
+            booking.getBorrower().getId().equals(userId) ? booking.getOwner().getId() : booking.getBorrower().getId()
+        );
+        return toResponse(saved);
     }
 
     @Transactional(readOnly = true)
@@ -80,6 +115,102 @@ public class DisputeService {
         return toResponse(dispute);
     }
 
+    /** Closes a dispute as its assigned admin and settles the booking deposit accordingly. */
+    @Transactional
+    public DisputeResponse resolveDispute(UUID userId, UUID disputeId, ResolveDisputeRequest request) {
+        Dispute dispute = disputeRepository.findById(disputeId)
+            .orElseThrow(() -> new ResourceNotFoundException("Dispute", disputeId.toString()));
+        if (dispute.getAssignedAdmin() == null || !dispute.getAssignedAdmin().getId().equals(userId)) {
+            throw new UnauthorizedException("You are not allowed to resolve this dispute");
+        }
+        if (dispute.getResolvedAt() != null) {
+            throw new InvalidStateException("Dispute is already resolved");
+        }
+        if (dispute.getClaimedUntil() != null && dispute.getClaimedUntil().isBefore(LocalDateTime.now())) {
+            throw new InvalidStateException("Your claim on this dispute has expired, claim it again to resolve it");
+        }
+        bookingRepository.findByIdForUpdate(dispute.getBooking().getId());
+        BigDecimal deposit = dispute.getBooking().getDepositCollected();
+        if (request.getRefundAmount() != null && deposit != null && request.getRefundAmount().compareTo(deposit) > 0) {
+            throw new ValidationException("refundAmount cannot exceed the collected deposit");
+        }
+
+        dispute.setStatus("resolved");
+        dispute.setResolution(request.getResolution().trim());
+        dispute.setRefundAmount(request.getRefundAmount());
+        dispute.setResolvedAt(LocalDateTime.now());
+        dispute.setClaimedUntil(null);
+        Dispute saved = disputeRepository.save(dispute);
+        if (!depositSettlementService.onDisputeResolved(saved)) {
+            throw new InvalidStateException("The deposit for this booking was settled before the dispute was resolved");
+        }
+        disputeSlaMonitor.onResolved(saved);
+        if (request.getRefundAmount() != null && deposit != null && request.getRefundAmount().compareTo(deposit) < 0) {
+            // Keeping part of the deposit means the borrower was found at fault.
+            trustScoreStore.recordDisputeLost(saved.getBooking().getBorrower().getId());
+        }
+        return toResponse(saved);
+    }
+
+    /** Assigns the oldest unclaimed disputes to the calling admin under a time-limited lease. */
+    @Transactional
+    public List<DisputeResponse> claimDisputes(UUID adminId, int batch) {
+        adminAccess.requireAdmin(adminId);
+        int limit = Math.max(1, Math.min(batch, maxClaimBatch));
+        List<DisputeQueueStore.Claim> claims = disputeQueueStore.claim(adminId, limit, claimLease);
+        if (claims.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Boolean> firstAssignment = new HashMap<>();
+        claims.forEach(claim -> firstAssignment.put(claim.disputeId(), claim.firstAssignment()));
+        List<Dispute> claimed = disputeRepository.findAllById(firstAssignment.keySet()).stream()
+            .sorted(Comparator.comparing(Dispute::getCreatedAt).thenComparing(Dispute::getId))
+            .toList();
+        claimed.forEach(dispute -> disputeSlaMonitor.onAssigned(dispute, firstAssignment.get(dispute.getId())));
+        return claimed.stream().map(this::toResponse).toList();
+    }
+
+    @Transactional
+    public DisputeResponse renewClaim(UUID adminId, UUID disputeId) {
+        adminAccess.requireAdmin(adminId);
+        if (!disputeQueueStore.renew(disputeId, adminId, claimLease)) {
+            throw new InvalidStateException("Dispute is not claimed by you");
+        }
+        return toResponse(disputeRepository.findById(disputeId)
+            .orElseThrow(() -> new ResourceNotFoundException("Dispute", disputeId.toString())));
+    }
+
+    @Transactional
+    public void releaseClaim(UUID adminId, UUID disputeId) {
+        adminAccess.requireAdmin(adminId);
+        if (!disputeQueueStore.release(disputeId, adminId)) {
+            throw new InvalidStateException("Dispute is not claimed by you");
+        }
+        disputeSlaMonitor.onReleased(disputeId);
+    }
+
+    /** Unresolved disputes past their assignment or resolution SLA, most overdue first. */
+    public List<DisputeSlaBreachResponse> listSlaBreaches(UUID adminId) {
+        adminAccess.requireAdmin(adminId);
+        return disputeSlaMonitor.breaches().stream()
+            .map(breach -> DisputeSlaBreachResponse.builder()
+                .disputeId(breach.dispute().disputeId())
+                .apartmentId(breach.dispute().apartmentId())
+                .breach(breach.type().name().toLowerCase(Locale.ROOT))
+                .createdAt(breach.dispute().createdAt())
+                .assignedAt(breach.dispute().assignedAt())
+                .assignedAdminId(breach.dispute().assignedAdminId())
+                .overdueSeconds(breach.overdueBy().toSeconds())
+                .build())
+            .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<DisputeResponse> listClaimedDisputes(UUID adminId) {
+        adminAccess.requireAdmin(adminId);
+        return disputeRepository.findUnresolvedDisputesByAdminId(adminId).stream().map(this::toResponse).toList();
+    }
+
     private String toJsonArray(List<String> evidence) {
         List<String> safeEvidence = evidence == null ? List.of() : evidence;
         try {
@@ -99,6 +230,8 @@ public class DisputeService {
             .evidence(dispute.getEvidence())
             .status(dispute.getStatus())
             .assignedAdminId(dispute.getAssignedAdmin() != null ? dispute.getAssignedAdmin().getId() : null)
+            .assignedAt(dispute.getAssignedAt())
+            .claimedUntil(dispute.getClaimedUntil())
             .resolution(dispute.getResolution())
             .refundAmount(dispute.getRefundAmount())
             .createdAt(dispute.getCreatedAt())
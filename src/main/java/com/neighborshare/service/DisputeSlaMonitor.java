@@ -0,0 +1,254 @@
+package com.neighborshare.service;
+
+import com.neighborshare.domain.entity.Dispute;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dispute SLA tracking. Unresolved disputes are mirrored in memory, kept current by dispute
+ * events and replaced from the database every reconcile interval, so open-dispute gauges and
+ * the breach list never query on read. Each node mirrors all disputes and reports the same
+ * gauges; the time-to-assign and time-to-resolve timers are recorded by the node that handled
+ * the event.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DisputeSlaMonitor {
+
+    public record OpenDispute(
+        UUID disputeId,
+        UUID apartmentId,
+        LocalDateTime createdAt,
+        @Nullable LocalDateTime assignedAt,
+        @Nullable UUID assignedAdminId
+    ) {
+    }
+
+    public enum BreachType { ASSIGNMENT, RESOLUTION }
+
+    public record Breach(OpenDispute dispute, BreachType type, Duration overdueBy) {
+    }
+
+    private enum AgeBucket {
+        UNDER_1D("lt_1d", Duration.ofDays(1)),
+        FROM_1D_TO_3D("1d_3d", Duration.ofDays(3)),
+        FROM_3D_TO_7D("3d_7d", Duration.ofDays(7)),
+        OVER_7D("gt_7d", null);
+
+        private final String tag;
+        private final Duration upperBound;
+
+        AgeBucket(String tag, Duration upperBound) {
+            this.tag = tag;
+            this.upperBound = upperBound;
+        }
+
+        static AgeBucket of(Duration age) {
+            for (AgeBucket bucket : values()) {
+                if (bucket.upperBound == null || age.compareTo(bucket.upperBound) < 0) {
+                    return bucket;
+                }
+            }
+            return OVER_7D;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.disputes.sla.assign:24h}")
+    private Duration assignSla;
+
+    @Value("${app.disputes.sla.resolve:72h}")
+    private Duration resolveSla;
+
+    private final Map<UUID, OpenDispute> open = new ConcurrentHashMap<>();
+
+    private MultiGauge openByApartment;
+    private Timer timeToAssign;
+    private Timer timeToResolve;
+
+    @PostConstruct
+    public void init() {
+        for (AgeBucket bucket : AgeBucket.values()) {
+            Gauge.builder("dispute.open", this, monitor -> monitor.countInBucket(bucket))
+                .description("Unresolved disputes by age")
+                .tag("age", bucket.tag)
+                .register(meterRegistry);
+        }
+        Gauge.builder("dispute.sla.breaches", this, monitor -> monitor.breaches().size())
+            .description("Unresolved disputes past their assignment or resolution SLA")
+            .register(meterRegistry);
+        openByApartment = MultiGauge.builder("dispute.open.apartment")
+            .description("Unresolved disputes by apartment")
+            .register(meterRegistry);
+        timeToAssign = Timer.builder("dispute.time_to_assign")
+            .description("Time from a dispute being opened to its first admin claim")
+            .publishPercentiles(0.5, 0.9, 0.99)
+            .serviceLevelObjectives(assignSla)
+            .register(meterRegistry);
+        timeToResolve = Timer.builder("dispute.time_to_resolve")
+            .description("Time from a dispute being opened to its resolution")
+            .publishPercentiles(0.5, 0.9, 0.99)
+            .serviceLevelObjectives(resolveSla)
+            .register(meterRegistry);
+    }
+
+    public void onOpened(Dispute dispute, UUID apartmentId) {
+        afterCommit(() -> {
+            open.put(dispute.getId(), new OpenDispute(dispute.getId(), apartmentId, createdAt(dispute), null, null));
+            refreshApartments();
+        });
+    }
+
+    public void onAssigned(Dispute dispute, boolean firstAssignment) {
+        afterCommit(() -> {
+            if (firstAssignment && dispute.getAssignedAt() != null) {
+                timeToAssign.record(Duration.between(createdAt(dispute), dispute.getAssignedAt()));
+            }
+            open.computeIfPresent(dispute.getId(), (id, current) -> new OpenDispute(
+                id, current.apartmentId(), current.createdAt(), dispute.getAssignedAt(),
+                dispute.getAssignedAdmin() != null ? dispute.getAssignedAdmin().getId() : null));
+        });
+    }
+
+    public void onReleased(UUID disputeId) {
+        afterCommit(() -> open.computeIfPresent(disputeId, (id, current) -> new OpenDispute(
+            id, current.apartmentId(), current.createdAt(), current.assignedAt(), null)));
+    }
+
+    public void onResolved(Dispute dispute) {
+        afterCommit(() -> {
+            if (open.remove(dispute.getId()) != null) {
+                refreshApartments();
+            }
+            if (dispute.getResolvedAt() != null) {
+                timeToResolve.record(Duration.between(createdAt(dispute), dispute.getResolvedAt()));
+            }
+        });
+    }
+
+    /** Unresolved disputes past an SLA, most overdue first. */
+    public List<Breach> breaches() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Breach> breaches = new ArrayList<>();
+        for (OpenDispute dispute : open.values()) {
+            Duration age = Duration.between(dispute.createdAt(), now);
+            if (age.compareTo(resolveSla) > 0) {
+                breaches.add(new Breach(dispute, BreachType.RESOLUTION, age.minus(resolveSla)));
+            } else if (dispute.assignedAt() == null && age.compareTo(assignSla) > 0) {
+                breaches.add(new Breach(dispute, BreachType.ASSIGNMENT, age.minus(assignSla)));
+            }
+        }
+        breaches.sort(Comparator.comparing(Breach::overdueBy).reversed());
+        return breaches;
+    }
+
+    public int openCount() {
+        return open.size();
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.disputes.sla.initial-delay-ms:10000}",
+        fixedDelayString = "${app.disputes.sla.reconcile-interval-ms:60000}"
+    )
+    public void reconcile() {
+        List<OpenDispute> current;
+        try {
+            current = jdbcTemplate.query(
+                """
+                    SELECT d.id, u.apartment_id, d.created_at, d.assigned_at, d.assigned_admin_id
+                    FROM disputes d
+                    JOIN bookings b ON b.id = d.booking_id
+                    JOIN users u ON u.id = b.borrower_id
+                    WHERE d.status IN ('open', 'in_review')
+                    """,
+                (rs, rowNum) -> new OpenDispute(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("apartment_id", UUID.class),
+                    rs.getTimestamp("created_at").toLocalDateTime(),
+                    toLocalDateTime(rs.getTimestamp("assigned_at")),
+                    rs.getObject("assigned_admin_id", UUID.class)
+                )
+            );
+        } catch (DataAccessException ex) {
+            log.warn("Dispute SLA reconcile skipped: {}", ex.getMessage());
+            return;
+        }
+        apply(current);
+    }
+
+    void apply(List<OpenDispute> current) {
+        Map<UUID, OpenDispute> next = new HashMap<>(current.size() * 2);
+        current.forEach(dispute -> next.put(dispute.disputeId(), dispute));
+        open.keySet().retainAll(next.keySet());
+        open.putAll(next);
+        refreshApartments();
+    }
+
+    private void refreshApartments() {
+        Map<UUID, Long> byApartment = new HashMap<>();
+        for (OpenDispute dispute : open.values()) {
+            byApartment.merge(dispute.apartmentId(), 1L, Long::sum);
+        }
+        List<MultiGauge.Row<?>> rows = new ArrayList<>(byApartment.size());
+        byApartment.forEach((apartmentId, count) ->
+            rows.add(MultiGauge.Row.of(Tags.of("apartment", apartmentId.toString()), count)));
+        openByApartment.register(rows, true);
+    }
+
+    private long countInBucket(AgeBucket bucket) {
+        LocalDateTime now = LocalDateTime.now();
+        return open.values().stream()
+            .filter(dispute -> AgeBucket.of(Duration.between(dispute.createdAt(), now)) == bucket)
+            .count();
+    }
+
+    private static LocalDateTime createdAt(Dispute dispute) {
+        return dispute.getCreatedAt() != null ? dispute.getCreatedAt() : LocalDateTime.now();
+    }
+
+    @Nullable
+    private static LocalDateTime toLocalDateTime(@Nullable Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+}
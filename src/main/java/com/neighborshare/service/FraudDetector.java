@@ -0,0 +1,236 @@
+package com.neighborshare.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Sliding-window fraud detection over booking, payment and dispute events. Request paths only
+ * offer an event to a bounded queue after their transaction commits; a scheduled drain folds
+ * events into per-user windows on a single thread, scores the user when a signal trips and
+ * writes the scores in one batch. A full queue drops events rather than slowing a request.
+ *
+ * <p>Windows live in memory on the node that saw the event and start empty after a restart.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class FraudDetector {
+
+    public enum Signal {
+        // Booking requests created by the user.
+        BOOKING_RATE("booking_rate", Duration.ofHours(1), 10, 30),
+        // Consecutive failed payments; a captured payment clears the streak.
+        PAYMENT_FAILURES("payment_failures", Duration.ofHours(24), 3, 40),
+        // Disputes opened by the user.
+        DISPUTES("disputes", Duration.ofDays(30), 3, 30),
+        // The user's booking requests rejected by owners. Bookings cannot be cancelled, so
+        // rejections are the closest cancellation signal.
+        REJECTIONS("rejections", Duration.ofDays(7), 5, 20);
+
+        final String key;
+        final Duration window;
+        final int threshold;
+        final int weight;
+
+        Signal(String key, Duration window, int threshold, int weight) {
+            this.key = key;
+            this.window = window;
+            this.threshold = threshold;
+            this.weight = weight;
+        }
+    }
+
+    /** One observation of a signal; a clearing event resets the signal instead of adding to it. */
+    record Event(UUID userId, Signal signal, boolean clears, Instant at) {
+    }
+
+    private static final class UserWindows {
+
+        final Map<Signal, ArrayDeque<Instant>> events = new EnumMap<>(Signal.class);
+        int lastScore;
+        Instant lastScoredAt;
+
+        int count(Signal signal, Instant now) {
+            ArrayDeque<Instant> window = events.get(signal);
+            if (window == null) {
+                return 0;
+            }
+            Instant horizon = now.minus(signal.window);
+            while (!window.isEmpty() && window.peekFirst().isBefore(horizon)) {
+                window.pollFirst();
+            }
+            return window.size();
+        }
+
+        boolean isEmpty(Instant now) {
+            for (Signal signal : Signal.values()) {
+                if (count(signal, now) > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final FraudScoreStore store;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.fraud.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // A user already scored is only scored again within this period when the score rises.
+    @Value("${app.fraud.rescore-interval:1h}")
+    private Duration rescoreInterval;
+
+    private BlockingQueue<Event> queue;
+    private final Map<UUID, UserWindows> windows = new HashMap<>();
+    private Counter dropped;
+    private Counter flagged;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        dropped = meterRegistry.counter("fraud.events.dropped");
+        flagged = meterRegistry.counter("fraud.scores.written");
+        Gauge.builder("fraud.events.queued", this, detector -> detector.queue.size())
+            .description("Fraud events waiting to be scored")
+            .register(meterRegistry);
+    }
+
+    public void recordBookingCreated(UUID userId) {
+        offerAfterCommit(userId, Signal.BOOKING_RATE, false);
+    }
+
+    public void recordBookingRejected(UUID borrowerId) {
+        offerAfterCommit(borrowerId, Signal.REJECTIONS, false);
+    }
+
+    public void recordPaymentFailed(UUID userId) {
+        offerAfterCommit(userId, Signal.PAYMENT_FAILURES, false);
+    }
+
+    public void recordPaymentSucceeded(UUID userId) {
+        offerAfterCommit(userId, Signal.PAYMENT_FAILURES, true);
+    }
+
+    public void recordDisputeOpened(UUID userId) {
+        offerAfterCommit(userId, Signal.DISPUTES, false);
+    }
+
+    @Scheduled(fixedDelayString = "${app.fraud.drain-interval-ms:1000}")
+    public void drain() {
+        List<Event> events = new ArrayList<>();
+        queue.drainTo(events);
+        if (events.isEmpty()) {
+            return;
+        }
+        Map<UUID, FraudScoreStore.Score> scores = new HashMap<>();
+        for (Event event : events) {
+            FraudScoreStore.Score score = apply(event);
+            if (score != null) {
+                scores.put(score.userId(), score);
+            }
+        }
+        try {
+            store.insert(List.copyOf(scores.values()));
+            flagged.increment(scores.size());
+        } catch (DataAccessException ex) {
+            log.warn("Could not write {} fraud scores: {}", scores.size(), ex.getMessage());
+        }
+    }
+
+    /** Drops windows of users without a recent event so memory tracks active users only. */
+    @Scheduled(fixedDelayString = "${app.fraud.sweep-interval-ms:600000}")
+    public void sweep() {
+        // Runs on the scheduler thread like drain; synchronized keeps them from overlapping.
+        synchronized (windows) {
+            Instant now = Instant.now();
+            windows.values().removeIf(user -> user.isEmpty(now));
+        }
+    }
+
+    /** Applies one event and returns a score when a signal trips, subject to the rescore interval. */
+    FraudScoreStore.Score apply(Event event) {
+        synchronized (windows) {
+            UserWindows user = windows.computeIfAbsent(event.userId(), id -> new UserWindows());
+            if (event.clears()) {
+                user.events.remove(event.signal());
+                return null;
+            }
+            user.events.computeIfAbsent(event.signal(), signal -> new ArrayDeque<>()).addLast(event.at());
+
+            ObjectNode behavior = objectMapper.createObjectNode();
+            List<String> tripped = new ArrayList<>();
+            double total = 0;
+            for (Signal signal : Signal.values()) {
+                int count = user.count(signal, event.at());
+                if (count < signal.threshold) {
+                    continue;
+                }
+                tripped.add(signal.key);
+                // Weight at the threshold, growing to twice the weight at twice the threshold.
+                total += signal.weight * Math.min(2.0, (double) count / signal.threshold);
+                behavior.putObject(signal.key)
+                    .put("count", count)
+                    .put("threshold", signal.threshold)
+                    .put("window", signal.window.toString());
+            }
+            if (tripped.isEmpty()) {
+                return null;
+            }
+            int score = (int) Math.min(100, Math.round(total));
+            boolean recent = user.lastScoredAt != null
+                && user.lastScoredAt.isAfter(event.at().minus(rescoreInterval));
+            if (recent && score <= user.lastScore) {
+                return null;
+            }
+            user.lastScore = score;
+            user.lastScoredAt = event.at();
+            return new FraudScoreStore.Score(event.userId(), score, String.join(", ", tripped), behavior.toString());
+        }
+    }
+
+    private void offerAfterCommit(UUID userId, Signal signal, boolean clears) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(new Event(userId, signal, clears, Instant.now()));
+                }
+            });
+            return;
+        }
+        offer(new Event(userId, signal, clears, Instant.now()));
+    }
+
+    private void offer(Event event) {
+        if (!queue.offer(event)) {
+            dropped.increment();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.neighborshare.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/** Writer for {@code fraud_scores}; one row per detection, never updated afterwards. */
+@Component
+@RequiredArgsConstructor
+public class FraudScoreStore {
+
+    public record Score(UUID userId, int score, String reason, String flaggedBehavior) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(List<Score> scores) {
+        if (scores.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO fraud_scores (user_id, score, reason, flagged_behavior) VALUES (?, ?, ?, CAST(? AS jsonb))",
+            scores.stream()
+                .map(score -> new Object[]{score.userId(), score.score(), score.reason(), score.flaggedBehavior()})
+                .toList()
+        );
+    }
+}
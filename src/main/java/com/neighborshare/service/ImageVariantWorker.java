@@ -0,0 +1,292 @@
+package com.neighborshare.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neighborshare.integration.ObjectStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generates resized JPEG variants of uploaded images and records them on items. Variants are
+ * stored beside their original ({@code images/<sha>_thumb.jpg}) and only generated when
+ * missing, so re-uploads and repeated item saves cost a HEAD per variant.
+ *
+ * <p>Decoding is CPU bound, so work runs on a small fixed pool with a bounded queue; a task
+ * rejected by a full queue is dropped and redone the next time the image is uploaded or its
+ * item saved. The source is decoded once per task, subsampled to twice the largest missing
+ * variant, so a full-resolution raster is never held in memory.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ImageVariantWorker {
+
+    public record Variant(String name, int maxSize) {
+    }
+
+    // Originals written by UploadService; WebP is left out because the JDK cannot decode it.
+    private static final Pattern SOURCE_KEY = Pattern.compile("(images/[0-9a-f]{64}\\.(?:jpg|png|gif))$");
+
+    private final ObjectStore objectStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.storage.variants.thumb-size:320}")
+    private int thumbSize;
+
+    @Value("${app.storage.variants.medium-size:1024}")
+    private int mediumSize;
+
+    @Value("${app.storage.variants.threads:2}")
+    private int threads;
+
+    @Value("${app.storage.variants.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${app.storage.variants.max-source-pixels:50000000}")
+    private long maxSourcePixels;
+
+    private ThreadPoolExecutor executor;
+    private Counter generated;
+    private Counter failed;
+    private Counter dropped;
+    private Timer duration;
+
+    @PostConstruct
+    public void init() {
+        generated = meterRegistry.counter("images.variants", "result", "generated");
+        failed = meterRegistry.counter("images.variants", "result", "failed");
+        dropped = meterRegistry.counter("images.variants", "result", "dropped");
+        duration = Timer.builder("images.variants.duration")
+            .description("Time to generate the missing variants of one image")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("image-variants-", 0).daemon().factory(),
+            (task, pool) -> dropped.increment()
+        );
+        Gauge.builder("images.variants.queued", executor, pool -> pool.getQueue().size())
+            .description("Image variant tasks waiting for a worker")
+            .register(meterRegistry);
+        Gauge.builder("images.variants.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Image variant tasks being processed")
+            .register(meterRegistry);
+    }
+
+    public List<Variant> variants() {
+        return List.of(new Variant("thumb", thumbSize), new Variant("medium", mediumSize));
+    }
+
+    /** Generates the missing variants of a freshly uploaded image. */
+    public void submit(String sourceKey) {
+        executor.execute(() -> generate(sourceKey));
+    }
+
+    /**
+     * Once the surrounding transaction commits, generates variants for the item's uploaded images
+     * and records their URLs in {@code items.image_variants}. External image URLs are skipped.
+     */
+    public void attach(UUID itemId, List<String> imageUrls) {
+        List<String> urls = imageUrls == null ? List.of() : List.copyOf(imageUrls);
+        afterCommit(() -> executor.execute(() -> process(itemId, urls)));
+    }
+
+    public static String variantKey(String sourceKey, String variant) {
+        return sourceKey.substring(0, sourceKey.lastIndexOf('.')) + "_" + variant + ".jpg";
+    }
+
+    /** Object key of an uploaded original that variants can be generated for. */
+    Optional<String> sourceKeyOf(String url) {
+        if (url == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = SOURCE_KEY.matcher(url);
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        String key = matcher.group(1);
+        return objectStore.url(key).equals(url) ? Optional.of(key) : Optional.empty();
+    }
+
+    void process(UUID itemId, List<String> imageUrls) {
+        Map<String, Map<String, String>> variantsByUrl = new LinkedHashMap<>();
+        for (String url : imageUrls) {
+            sourceKeyOf(url).ifPresent(key -> {
+                Map<String, String> urls = generate(key);
+                if (!urls.isEmpty()) {
+                    variantsByUrl.put(url, urls);
+                }
+            });
+        }
+        try {
+            // Merges the new entries and drops those of images the item no longer has, in case
+            // its images changed again while this task was queued.
+            jdbcTemplate.update(
+                """
+                    UPDATE items
+                    SET image_variants = (
+                        SELECT COALESCE(jsonb_object_agg(v.key, v.value), '{}'::jsonb)
+                        FROM jsonb_each(items.image_variants || CAST(? AS jsonb)) v
+                        WHERE items.images @> jsonb_build_array(v.key)
+                    )
+                    WHERE id = ?
+                    """,
+                objectMapper.writeValueAsString(variantsByUrl),
+                itemId
+            );
+        } catch (JsonProcessingException | DataAccessException ex) {
+            log.warn("Could not record image variants of item {}: {}", itemId, ex.getMessage());
+        }
+    }
+
+    /** Generates missing variants and returns the URL of each; empty when the source cannot be used. */
+    Map<String, String> generate(String sourceKey) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            List<Variant> missing = new ArrayList<>();
+            for (Variant variant : variants()) {
+                if (!objectStore.exists(variantKey(sourceKey, variant.name()))) {
+                    missing.add(variant);
+                }
+            }
+            if (!missing.isEmpty()) {
+                render(sourceKey, missing);
+                sample.stop(duration);
+            }
+            Map<String, String> urls = new LinkedHashMap<>();
+            for (Variant variant : variants()) {
+                urls.put(variant.name(), objectStore.url(variantKey(sourceKey, variant.name())));
+            }
+            return urls;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Image variants of {} failed: {}", sourceKey, ex.getMessage());
+            failed.increment();
+            return Map.of();
+        }
+    }
+
+    private void render(String sourceKey, List<Variant> missing) throws IOException {
+        int largest = missing.stream().mapToInt(Variant::maxSize).max().orElseThrow();
+        Optional<InputStream> source = objectStore.open(sourceKey);
+        if (source.isEmpty()) {
+            throw new IOException("object is missing");
+        }
+        BufferedImage image;
+        try (InputStream in = source.get()) {
+            image = decode(in, largest);
+        }
+        for (Variant variant : missing) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(resize(image, variant.maxSize()), "jpg", out);
+            byte[] bytes = out.toByteArray();
+            objectStore.put(variantKey(sourceKey, variant.name()), new ByteArrayInputStream(bytes), bytes.length, "image/jpeg");
+            generated.increment();
+        }
+    }
+
+    private BufferedImage decode(InputStream in, int targetSize) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("No decoder for image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    throw new IOException("Image is " + width + "x" + height + ", too large to resize");
+                }
+                // Keep at least twice the target resolution so the final resize stays smooth.
+                int step = Math.max(1, Math.max(width, height) / (targetSize * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage image, int maxSize) {
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.neighborshare.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Queue of item counter events. Producers append one row inside the transaction that causes
+ * the change, so an event exists exactly when its booking or review committed; {@link #apply}
+ * folds a batch into {@code items} and deletes it in the same statement.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemCounterStore {
+
+    public record Stats(long backlog, Duration oldestAge) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void recordBookingCompleted(UUID itemId) {
+        jdbcTemplate.update("INSERT INTO item_counter_events (item_id, bookings) VALUES (?, 1)", itemId);
+    }
+
+    public void recordRating(UUID itemId, BigDecimal rating) {
+        jdbcTemplate.update("INSERT INTO item_counter_events (item_id, rating) VALUES (?, ?)", itemId, rating);
+    }
+
+    /**
+     * Consumes up to {@code limit} events, coalesced to one UPDATE per item. Returns the number
+     * of events consumed. Rows locked by a concurrent run are skipped, not waited for.
+     */
+    public int apply(int limit) {
+        Integer consumed = jdbcTemplate.queryForObject(
+            """
+                WITH consumed AS (
+                    DELETE FROM item_counter_events
+                    WHERE id IN (
+                        SELECT id FROM item_counter_events ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED
+                    )
+                    RETURNING item_id, bookings, rating
+                ), totals AS (
+                    SELECT item_id,
+                           SUM(bookings) AS bookings,
+                           COALESCE(SUM(rating), 0) AS rating_sum,
+                           COUNT(rating) AS ratings,
+                           COUNT(*) AS events
+                    FROM consumed
+                    GROUP BY item_id
+                ), updated AS (
+                    UPDATE items i
+                    SET total_bookings = COALESCE(i.total_bookings, 0) + t.bookings,
+                        rating_sum = i.rating_sum + t.rating_sum,
+                        total_ratings = i.total_ratings + t.ratings,
+                        average_rating = CASE WHEN i.total_ratings + t.ratings = 0 THEN i.average_rating
+                            ELSE ROUND((i.rating_sum + t.rating_sum) / (i.total_ratings + t.ratings), 2) END
+                    FROM totals t
+                    WHERE i.id = t.item_id
+                )
+                SELECT COALESCE(SUM(events), 0) FROM totals
+                """,
+            Integer.class,
+            limit
+        );
+        return consumed != null ? consumed : 0;
+    }
+
+    public Stats stats() {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) AS backlog, "
+                + "COALESCE(EXTRACT(EPOCH FROM CURRENT_TIMESTAMP - MIN(created_at)), 0) AS oldest_age "
+                + "FROM item_counter_events",
+            (rs, rowNum) -> new Stats(
+                rs.getLong("backlog"),
+                Duration.ofMillis(Math.max(0, Math.round(rs.getDouble("oldest_age") * 1000)))
+            )
+        );
+    }
+}
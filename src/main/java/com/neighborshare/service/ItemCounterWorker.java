@@ -0,0 +1,67 @@
+package com.neighborshare.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains item counter events every few seconds, so {@code items.total_bookings} and
+ * {@code items.average_rating} trail their bookings and reviews by at most one poll interval
+ * while catalog pages keep reading a single table.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ItemCounterWorker {
+
+    private final ItemCounterStore store;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.item-counters.batch-size:5000}")
+    private int batchSize;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong oldestEventAgeMillis = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("item.counters.backlog", backlog, AtomicLong::get)
+            .description("Item counter events not yet applied")
+            .register(meterRegistry);
+        Gauge.builder("item.counters.lag", oldestEventAgeMillis, value -> value.get() / 1000.0)
+            .description("Age of the oldest item counter event not yet applied")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.item-counters.poll-interval-ms:2000}")
+    public void drain() {
+        try {
+            int consumed;
+            do {
+                consumed = store.apply(batchSize);
+            } while (consumed == batchSize);
+        } catch (DataAccessException ex) {
+            log.warn("Item counter drain skipped: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.item-counters.stats-interval-ms:30000}")
+    public void refreshStats() {
+        try {
+            ItemCounterStore.Stats stats = store.stats();
+            backlog.set(stats.backlog());
+            oldestEventAgeMillis.set(stats.oldestAge().toMillis());
+        } catch (DataAccessException ex) {
+            log.debug("Item counter stats unavailable: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.neighborshare.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisZSetCommands.ZAddArgs;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-item review summary in Redis: a hash with the star histogram, review count and rating sum,
+ * and a sorted set of the item's review ids scored by helpful count. New reviews and helpful
+ * flushes update both in place, so reading a summary is two key lookups. A missing summary is
+ * rebuilt from the database once and then maintained incrementally until it expires.
+ *
+ * <p>A rebuild may read the database just before a new review commits and store its result just
+ * after that review's increment found no summary to update. Such increments are parked in a
+ * short-lived pending hash, and the rebuild applies every parked review missing from its own
+ * ranking, which lists all of the item's reviews it read.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ItemReviewSummaryCache {
+
+    /** Histogram index 0 holds one-star reviews; the rating sum is kept in hundredths. */
+    public record Summary(long[] histogram, long count, long ratingSumHundredths, List<UUID> topReviewIds) {
+
+        public BigDecimal averageRating() {
+            return count == 0
+                ? BigDecimal.ZERO
+                : BigDecimal.valueOf(ratingSumHundredths, 2).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+        }
+    }
+
+    /** A review's latest helpful count, for updating its item's top-review ranking. */
+    public record HelpfulCount(UUID itemId, UUID reviewId, long count) {
+    }
+
+    private record Ranked(UUID reviewId, long helpfulCount) {
+    }
+
+    private record Loaded(Summary summary, List<Ranked> ranking) {
+    }
+
+    private static final int TOP_REVIEWS = 3;
+
+    // Longer than a rebuild's database read can take.
+    private static final long PENDING_TTL_MS = 300_000;
+
+    // ARGV: star bucket, rating in hundredths, review id, pending ttl ms. A review already in the
+    // ranking was counted by the rebuild; without a summary it is parked for the next rebuild.
+    private static final RedisScript<Long> ADD_REVIEW_SCRIPT = new DefaultRedisScript<>("""
+        if redis.call('EXISTS', KEYS[1]) == 0 then
+            redis.call('HSET', KEYS[3], ARGV[3], ARGV[1] .. ':' .. ARGV[2])
+            redis.call('PEXPIRE', KEYS[3], ARGV[4])
+            return 0
+        end
+        if redis.call('ZSCORE', KEYS[2], ARGV[3]) then
+            return 0
+        end
+        redis.call('HINCRBY', KEYS[1], ARGV[1], 1)
+        redis.call('HINCRBY', KEYS[1], 'count', 1)
+        redis.call('HINCRBY', KEYS[1], 'sum', ARGV[2])
+        redis.call('ZADD', KEYS[2], 0, ARGV[3])
+        return 1
+        """, Long.class);
+
+    // ARGV: ttl ms, count, sum, five histogram buckets, then helpful count / review id pairs.
+    private static final RedisScript<Long> REBUILD_SCRIPT = new DefaultRedisScript<>("""
+        if redis.call('EXISTS', KEYS[1]) == 1 then
+            return 0
+        end
+        redis.call('DEL', KEYS[2])
+        redis.call('HSET', KEYS[1], 'count', ARGV[2], 'sum', ARGV[3],
+            '1', ARGV[4], '2', ARGV[5], '3', ARGV[6], '4', ARGV[7], '5', ARGV[8])
+        for i = 9, #ARGV, 2 do
+            redis.call('ZADD', KEYS[2], ARGV[i], ARGV[i + 1])
+        end
+        local pending = redis.call('HGETALL', KEYS[3])
+        for i = 1, #pending, 2 do
+            if not redis.call('ZSCORE', KEYS[2], pending[i]) then
+                local bucket, sum = string.match(pending[i + 1], '(%d):(%d+)')
+                redis.call('HINCRBY', KEYS[1], bucket, 1)
+                redis.call('HINCRBY', KEYS[1], 'count', 1)
+                redis.call('HINCRBY', KEYS[1], 'sum', sum)
+                redis.call('ZADD', KEYS[2], 0, pending[i])
+            end
+        end
+        redis.call('DEL', KEYS[3])
+        redis.call('PEXPIRE', KEYS[1], ARGV[1])
+        redis.call('PEXPIRE', KEYS[2], ARGV[1])
+        return 1
+        """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.review-summary.key-prefix:item:reviews}")
+    private String keyPrefix;
+
+    @Value("${app.review-summary.ttl:1h}")
+    private Duration ttl;
+
+    public Summary get(UUID itemId) {
+        try {
+            Map<Object, Object> fields = redisTemplate.opsForHash().entries(summaryKey(itemId));
+            if (!fields.isEmpty()) {
+                Set<String> top = redisTemplate.opsForZSet().reverseRange(topKey(itemId), 0, TOP_REVIEWS - 1);
+                return fromHash(fields, top != null ? top : Set.of());
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Review summary cache unavailable for item {}: {}", itemId, ex.getMessage());
+            return load(itemId).summary();
+        }
+        Loaded loaded = load(itemId);
+        store(itemId, loaded);
+        return loaded.summary();
+    }
+
+    /** Adds a review to its item's summary once the surrounding transaction commits. */
+    public void recordReview(UUID itemId, UUID reviewId, BigDecimal rating) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addReview(itemId, reviewId, rating);
+                }
+            });
+            return;
+        }
+        addReview(itemId, reviewId, rating);
+    }
+
+    /** Re-scores reviews in their items' rankings; reviews not in a cached ranking are ignored. */
+    public void updateHelpfulCounts(List<HelpfulCount> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (HelpfulCount count : counts) {
+                    connection.zSetCommands().zAdd(
+                        bytes(topKey(count.itemId())),
+                        count.count(),
+                        bytes(count.reviewId().toString()),
+                        ZAddArgs.ifExists()
+                    );
+                }
+                return null;
+            });
+        } catch (DataAccessException ex) {
+            log.warn("Could not update helpful rankings for {} reviews: {}", counts.size(), ex.getMessage());
+        }
+    }
+
+    private void addReview(UUID itemId, UUID reviewId, BigDecimal rating) {
+        try {
+            redisTemplate.execute(
+                ADD_REVIEW_SCRIPT,
+                List.of(summaryKey(itemId), topKey(itemId), pendingKey(itemId)),
+                String.valueOf(bucket(rating)),
+                String.valueOf(rating.movePointRight(2).longValueExact()),
+                reviewId.toString(),
+                String.valueOf(PENDING_TTL_MS)
+            );
+        } catch (DataAccessException ex) {
+            // The summary is now stale until it expires; drop it so the next read rebuilds it.
+            log.warn("Could not add review {} to summary of item {}: {}", reviewId, itemId, ex.getMessage());
+            evict(itemId);
+        }
+    }
+
+    private void evict(UUID itemId) {
+        try {
+            redisTemplate.delete(List.of(summaryKey(itemId), topKey(itemId)));
+        } catch (DataAccessException ex) {
+            log.debug("Could not evict review summary of item {}: {}", itemId, ex.getMessage());
+        }
+    }
+
+    private Loaded load(UUID itemId) {
+        long[] histogram = new long[5];
+        long[] totals = new long[2];
+        jdbcTemplate.query(
+            """
+                SELECT LEAST(GREATEST(ROUND(r.rating), 1), 5) AS stars,
+                       COUNT(*) AS reviews,
+                       SUM(r.rating) AS rating_sum
+                FROM reviews r
+                JOIN bookings b ON b.id = r.booking_id AND b.borrower_id = r.reviewer_id
+                WHERE r.item_id = ?
+                GROUP BY stars
+                """,
+            rs -> {
+                long reviews = rs.getLong("reviews");
+                histogram[rs.getInt("stars") - 1] = reviews;
+                totals[0] += reviews;
+                totals[1] += rs.getBigDecimal("rating_sum").movePointRight(2).longValueExact();
+            },
+            itemId
+        );
+        List<Ranked> ranking = jdbcTemplate.query(
+            """
+                SELECT r.id, COALESCE(r.helpful_count, 0) AS helpful_count
+                FROM reviews r
+                JOIN bookings b ON b.id = r.booking_id AND b.borrower_id = r.reviewer_id
+                WHERE r.item_id = ?
+                ORDER BY helpful_count DESC, r.id DESC
+                """,
+            (rs, rowNum) -> new Ranked(rs.getObject("id", UUID.class), rs.getLong("helpful_count")),
+            itemId
+        );
+        List<UUID> top = ranking.stream().limit(TOP_REVIEWS).map(Ranked::reviewId).toList();
+        return new Loaded(new Summary(histogram, totals[0], totals[1], top), ranking);
+    }
+
+    private void store(UUID itemId, Loaded loaded) {
+        Summary summary = loaded.summary();
+        List<String> args = new ArrayList<>(8 + loaded.ranking().size() * 2);
+        args.add(String.valueOf(ttl.toMillis()));
+        args.add(String.valueOf(summary.count()));
+        args.add(String.valueOf(summary.ratingSumHundredths()));
+        for (long bucket : summary.histogram()) {
+            args.add(String.valueOf(bucket));
+        }
+        for (Ranked ranked : loaded.ranking()) {
+            args.add(String.valueOf(ranked.helpfulCount()));
+            args.add(ranked.reviewId().toString());
+        }
+        try {
+            redisTemplate.execute(
+                REBUILD_SCRIPT,
+                List.of(summaryKey(itemId), topKey(itemId), pendingKey(itemId)),
+                args.toArray()
+            );
+        } catch (DataAccessException ex) {
+            log.warn("Could not cache review summary of item {}: {}", itemId, ex.getMessage());
+        }
+    }
+
+    private static Summary fromHash(Map<Object, Object> fields, Set<String> top) {
+        long[] histogram = new long[5];
+        for (int stars = 1; stars <= 5; stars++) {
+            histogram[stars - 1] = longField(fields, String.valueOf(stars));
+        }
+        return new Summary(
+            histogram,
+            longField(fields, "count"),
+            longField(fields, "sum"),
+            top.stream().map(UUID::fromString).toList()
+        );
+    }
+
+    private static long longField(Map<Object, Object> fields, String name) {
+        Object value = fields.get(name);
+        return value != null ? Long.parseLong(value.toString()) : 0;
+    }
+
+    // Same bucketing as the rebuild query: nearest whole star, halves rounded up.
+    static int bucket(BigDecimal rating) {
+        return Math.min(5, Math.max(1, rating.setScale(0, RoundingMode.HALF_UP).intValue()));
+    }
+
+    // All keys share a hash tag so the scripts touch a single cluster slot.
+    private String summaryKey(UUID itemId) {
+        return keyPrefix + ":{" + itemId + "}";
+    }
+
+    private String topKey(UUID itemId) {
+        return keyPrefix + ":{" + itemId + "}:top";
+    }
+
+    private String pendingKey(UUID itemId) {
+        return keyPrefix + ":{" + itemId + "}:pending";
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
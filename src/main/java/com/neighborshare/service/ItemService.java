@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.neighborshare.domain.entity.Item;
 import com.neighborshare.domain.entity.User;
+import com.neighborshare.domain.repository.ApartmentRepository;
 import com.neighborshare.domain.repository.ItemRepository;
 import com.neighborshare.domain.repository.UserRepository;
 import com.neighborshare.dto.request.CreateItemRequest;
@@ -22,7 +23,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -30,15 +33,19 @@ public class ItemService {
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ApartmentRepository apartmentRepository;
+    private final UserContextCache userContextCache;
+    private final ImageVariantWorker imageVariantWorker;
     private final ObjectMapper objectMapper;
 
     @Transactional
     public ItemResponse createItem(UUID userId, UUID apartmentId, CreateItemRequest request) {
-        User owner = getUserInApartment(userId, apartmentId);
+        UserContextCache.UserSummary owner = userContextCache.requireMember(userId, apartmentId);
 
+        // References avoid loading the owner and apartment rows just to set the foreign keys.
         Item item = Item.builder()
-            .owner(owner)
-            .apartment(owner.getApartment())
+            .owner(userRepository.getReferenceById(userId))
+            .apartment(apartmentRepository.getReferenceById(apartmentId))
             .name(request.getName().trim())
             .description(request.getDescription())
             .category(request.getCategory().trim())
@@ -52,7 +59,9 @@ public class ItemService {
             .damageNotes(request.getDamageNotes())
             .build();
 
-        return toItemResponse(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        imageVariantWorker.attach(saved.getId(), request.getImages());
+        return toItemResponse(saved, owner);
     }
 
     @Transactional(readOnly = true)
@@ -61,12 +70,12 @@ public class ItemService {
             ? itemRepository.findByApartmentIdAndDeletedAtIsNull(apartmentId, pageable)
             : itemRepository.findByApartmentIdAndCategoryAndDeletedAtIsNull(apartmentId, category.trim(), pageable);
 
-        return page.map(this::toItemResponse);
+        return toItemResponses(page);
     }
 
     @Transactional(readOnly = true)
     public Page<ItemResponse> listMyItems(UUID userId, Pageable pageable) {
-        return itemRepository.findByOwnerIdAndDeletedAtIsNull(userId, pageable).map(this::toItemResponse);
+        return toItemResponses(itemRepository.findByOwnerIdAndDeletedAtIsNull(userId, pageable));
     }
 
     @Transactional(readOnly = true)
@@ -111,6 +120,7 @@ public class ItemService {
         }
         if (request.getImages() != null) {
             item.setImages(toJsonArray(request.getImages()));
+            imageVariantWorker.attach(item.getId(), request.getImages());
         }
         if (request.getCurrentCondition() != null && !request.getCurrentCondition().isBlank()) {
             item.setCurrentCondition(request.getCurrentCondition().trim());
@@ -145,29 +155,21 @@ public class ItemService {
         return itemRepository.findCategoriesByApartmentId(apartmentId);
     }
 
-    private User getUserInApartment(UUID userId, UUID apartmentId) {
-        return userRepository.findByIdAndApartmentId(userId, apartmentId)
-            .orElseThrow(() -> new UnauthorizedException("Invalid user context"));
+    private Page<ItemResponse> toItemResponses(Page<Item> page) {
+        Map<UUID, UserContextCache.UserSummary> owners = userContextCache.getAll(
+            page.getContent().stream().map(item -> item.getOwner().getId()).collect(Collectors.toSet())
+        );
+        return page.map(item -> toItemResponse(item, owners.get(item.getOwner().getId())));
     }
 
     private ItemResponse toItemResponse(Item item) {
-        User owner = item.getOwner();
+        return toItemResponse(item, userContextCache.get(item.getOwner().getId()).orElse(null));
+    }
 
-        UserResponse ownerResponse = UserResponse.builder()
-            .id(owner.getId())
-            .email(owner.getEmail())
-            .firstName(owner.getFirstName())
-            .lastName(owner.getLastName())
-            .phone(owner.getPhone())
-            .profilePicUrl(owner.getProfilePicUrl())
-            .bio(owner.getBio())
-            .averageRating(owner.getAverageRating())
-            .totalRatings(owner.getTotalRatings())
-            .trustScore(owner.getTrustScore())
-            .totalBorrowedItems(owner.getTotalBorrowedItems())
-            .totalLentItems(owner.getTotalLentItems())
-            .createdAt(owner.getCreatedAt())
-            .build();
+    private ItemResponse toItemResponse(Item item, UserContextCache.UserSummary ownerSummary) {
+        UserResponse ownerResponse = ownerSummary != null
+            ? ownerSummary.toResponse()
+            : toUserResponse(item.getOwner());
 
         return ItemResponse.builder()
             .id(item.getId())
@@ -180,6 +182,7 @@ public class ItemService {
             .isAvailable(item.getIsAvailable())
             .maxConsecutiveDays(item.getMaxConsecutiveDays())
             .images(item.getImages())
+            .imageVariants(item.getImageVariants())
             .currentCondition(item.getCurrentCondition())
             .averageRating(item.getAverageRating())
             .totalBookings(item.getTotalBookings())
@@ -188,6 +191,24 @@ public class ItemService {
             .build();
     }
 
+    private UserResponse toUserResponse(User owner) {
+        return UserResponse.builder()
+            .id(owner.getId())
+            .email(owner.getEmail())
+            .firstName(owner.getFirstName())
+            .lastName(owner.getLastName())
+            .phone(owner.getPhone())
+            .profilePicUrl(owner.getProfilePicUrl())
+            .bio(owner.getBio())
+            .averageRating(owner.getAverageRating())
+            .totalRatings(owner.getTotalRatings())
+            .trustScore(owner.getTrustScore())
+            .totalBorrowedItems(owner.getTotalBorrowedItems())
+            .totalLentItems(owner.getTotalLentItems())
+            .createdAt(owner.getCreatedAt())
+            .build();
+    }
+
     private String toJsonArray(List<String> images) {
         List<String> safeImages = images == null ? List.of() : images;
         try {
@@ -0,0 +1,277 @@
+package com.neighborshare.service;
+
+import com.neighborshare.domain.entity.Booking;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Append-only double-entry ledger for booking money movements. Each journal is a set of
+ * postings that sums to zero and is written once under a natural key, so recording the same
+ * payment from the confirm call, a webhook and reconciliation yields a single journal.
+ * Balances are read as the latest per-account snapshot plus the entries written after it.
+ *
+ * <p>Signs are from the account's point of view: a positive amount credits the account.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LedgerService {
+
+    public static final String PLATFORM_FEES = "platform:fees";
+    public static final String PLATFORM_PAYOUTS = "platform:payouts";
+    public static final String BOOKING_PAYMENT = "booking_payment";
+    public static final String DEPOSIT_RELEASE = "deposit_release";
+    public static final String OWNER_PAYOUT = "owner_payout";
+
+    // Arbitrary key for pg_try_advisory_xact_lock so only one node snapshots at a time.
+    private static final long SNAPSHOT_LOCK_KEY = 0x6c65646765720001L;
+    private static final int BATCH_SIZE = 500;
+
+    public record Posting(String account, BigDecimal amount) {
+    }
+
+    public record Journal(String key, String type, UUID bookingId, List<Posting> postings) {
+
+        public Journal {
+            BigDecimal sum = BigDecimal.ZERO;
+            for (Posting posting : postings) {
+                sum = sum.add(posting.amount());
+            }
+            if (sum.signum() != 0) {
+                throw new IllegalArgumentException("Journal " + key + " does not balance: " + sum);
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Entries younger than this are left out of snapshots: a sequence value can be taken
+    // before a lower one commits, and a snapshot must never skip over an uncommitted entry.
+    @Value("${app.ledger.snapshot-lag:5m}")
+    private Duration snapshotLag;
+
+    public static String ownerEarnings(UUID userId) {
+        return "user:" + userId + ":earnings";
+    }
+
+    public static String borrowerCharges(UUID userId) {
+        return "user:" + userId + ":charges";
+    }
+
+    public static String depositHold(UUID userId) {
+        return "user:" + userId + ":deposit";
+    }
+
+    /** Borrower pays the total; it is split into the owner's share, the fee and the held deposit. */
+    public void recordBookingPayment(Booking booking) {
+        post(List.of(paymentJournal(
+            booking.getId(),
+            booking.getBorrower().getId(),
+            booking.getOwner().getId(),
+            booking.getBasePrice(),
+            booking.getPlatformFee(),
+            booking.getDepositCollected()
+        )));
+    }
+
+    /** Records payment journals for paid bookings identified by gateway order id. */
+    public void recordBookingPayments(Collection<String> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        List<Journal> journals = jdbcTemplate.query(
+            "SELECT id, borrower_id, owner_id, base_price, platform_fee, deposit_collected FROM bookings "
+                + "WHERE paid_at IS NOT NULL AND payment_intent_id IN ("
+                + String.join(", ", Collections.nCopies(orderIds.size(), "?")) + ")",
+            (rs, rowNum) -> paymentJournal(
+                rs.getObject("id", UUID.class),
+                rs.getObject("borrower_id", UUID.class),
+                rs.getObject("owner_id", UUID.class),
+                rs.getBigDecimal("base_price"),
+                rs.getBigDecimal("platform_fee"),
+                rs.getBigDecimal("deposit_collected")
+            ),
+            orderIds.toArray()
+        );
+        post(journals);
+    }
+
+    /** Releases a settled deposit: {@code refund} goes back to the borrower, the rest to the owner. */
+    public void recordDepositRelease(Booking booking, BigDecimal refund) {
+        BigDecimal deposit = orZero(booking.getDepositCollected());
+        UUID borrowerId = booking.getBorrower().getId();
+        post(List.of(new Journal(
+            "booking:" + booking.getId() + ":deposit-release",
+            DEPOSIT_RELEASE,
+            booking.getId(),
+            List.of(
+                new Posting(depositHold(borrowerId), deposit.negate()),
+                new Posting(borrowerCharges(borrowerId), refund),
+                new Posting(ownerEarnings(booking.getOwner().getId()), deposit.subtract(refund))
+            )
+        )));
+    }
+
+    /** Moves a submitted payout out of the owner's earnings. */
+    public static Journal ownerPayout(long payoutId, UUID ownerId, BigDecimal amount) {
+        return new Journal(
+            "payout:" + payoutId,
+            OWNER_PAYOUT,
+            null,
+            List.of(
+                new Posting(ownerEarnings(ownerId), amount.negate()),
+                new Posting(PLATFORM_PAYOUTS, amount)
+            )
+        );
+    }
+
+    /**
+     * Inserts journals that do not exist yet and all of their entries in one batch. Journals
+     * whose key is already present are skipped along with their postings.
+     */
+    public void post(List<Journal> journals) {
+        List<Object[]> entries = new ArrayList<>();
+        for (Journal journal : journals) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                "INSERT INTO ledger_journals (journal_key, journal_type, booking_id) VALUES (?, ?, ?) "
+                    + "ON CONFLICT (journal_key) DO NOTHING RETURNING id",
+                Long.class,
+                journal.key(),
+                journal.type(),
+                journal.bookingId()
+            );
+            if (ids.isEmpty()) {
+                continue;
+            }
+            for (Posting posting : journal.postings()) {
+                if (posting.amount().signum() != 0) {
+                    entries.add(new Object[]{ids.get(0), posting.account(), posting.amount()});
+                }
+            }
+        }
+        for (int from = 0; from < entries.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO ledger_entries (journal_id, account, amount) VALUES (?, ?, ?)",
+                entries.subList(from, Math.min(entries.size(), from + BATCH_SIZE))
+            );
+        }
+    }
+
+    public BigDecimal balance(String account) {
+        return balances(List.of(account)).get(account);
+    }
+
+    /** Snapshot plus delta for each account; accounts without entries read as zero. */
+    public Map<String, BigDecimal> balances(List<String> accounts) {
+        Map<String, BigDecimal> balances = new LinkedHashMap<>();
+        accounts.forEach(account -> balances.put(account, BigDecimal.ZERO));
+        if (accounts.isEmpty()) {
+            return balances;
+        }
+        jdbcTemplate.query(
+            """
+                SELECT a.account,
+                       COALESCE(s.balance, 0) + COALESCE((
+                           SELECT SUM(e.amount) FROM ledger_entries e
+                           WHERE e.account = a.account AND e.id > COALESCE(s.last_entry_id, 0)
+                       ), 0) AS balance
+                FROM (VALUES %s) AS a(account)
+                LEFT JOIN ledger_balance_snapshots s ON s.account = a.account
+                """.formatted(String.join(", ", Collections.nCopies(accounts.size(), "(CAST(? AS varchar))"))),
+            rs -> {
+                balances.put(rs.getString("account"), rs.getBigDecimal("balance"));
+            },
+            accounts.toArray()
+        );
+        return balances;
+    }
+
+    /**
+     * Rolls entries older than the snapshot lag into the per-account snapshots. Every run covers
+     * all accounts up to one horizon, so the highest {@code last_entry_id} is the watermark for
+     * the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.ledger.snapshot-interval-ms:300000}")
+    @Transactional
+    public int snapshot() {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, SNAPSHOT_LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) {
+            return 0;
+        }
+        int accounts = jdbcTemplate.update(
+            """
+                WITH horizon AS (
+                    SELECT COALESCE((
+                        SELECT id FROM ledger_entries
+                        WHERE created_at < CURRENT_TIMESTAMP - make_interval(secs => ?)
+                        ORDER BY created_at DESC, id DESC
+                        LIMIT 1
+                    ), 0) AS entry_id
+                ), watermark AS (
+                    SELECT COALESCE(MAX(last_entry_id), 0) AS entry_id FROM ledger_balance_snapshots
+                ), delta AS (
+                    SELECT e.account, SUM(e.amount) AS amount, MAX(e.id) AS last_entry_id
+                    FROM ledger_entries e
+                    WHERE e.id > (SELECT entry_id FROM watermark)
+                      AND e.id <= (SELECT entry_id FROM horizon)
+                    GROUP BY e.account
+                )
+                INSERT INTO ledger_balance_snapshots (account, balance, last_entry_id, taken_at)
+                SELECT account, amount, last_entry_id, CURRENT_TIMESTAMP FROM delta
+                ON CONFLICT (account) DO UPDATE SET
+                    balance = ledger_balance_snapshots.balance + EXCLUDED.balance,
+                    last_entry_id = EXCLUDED.last_entry_id,
+                    taken_at = EXCLUDED.taken_at
+                WHERE ledger_balance_snapshots.last_entry_id < EXCLUDED.last_entry_id
+                """,
+            snapshotLag.toMillis() / 1000.0
+        );
+        if (accounts > 0) {
+            log.debug("Ledger snapshot advanced {} accounts", accounts);
+        }
+        return accounts;
+    }
+
+    private static Journal paymentJournal(
+        UUID bookingId,
+        UUID borrowerId,
+        UUID ownerId,
+        BigDecimal basePrice,
+        BigDecimal platformFee,
+        BigDecimal deposit
+    ) {
+        BigDecimal base = orZero(basePrice);
+        BigDecimal fee = orZero(platformFee);
+        BigDecimal held = orZero(deposit);
+        return new Journal(
+            "booking:" + bookingId + ":payment",
+            BOOKING_PAYMENT,
+            bookingId,
+            List.of(
+                new Posting(borrowerCharges(borrowerId), base.add(fee).add(held).negate()),
+                new Posting(ownerEarnings(ownerId), base),
+                new Posting(PLATFORM_FEES, fee),
+                new Posting(depositHold(borrowerId), held)
+            )
+        );
+    }
+
+    private static BigDecimal orZero(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,321 @@
+package com.neighborshare.service;
+
+import com.neighborshare.exception.PaymentGatewayException;
+import com.neighborshare.integration.CircuitBreaker;
+import com.neighborshare.integration.GatewayPayout;
+import com.neighborshare.integration.PaymentGatewayClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Pays owners for completed bookings. Each cycle streams the bookings completed since the
+ * previous cycle in keyset batches, adds the deposit shares retained by disputes resolved since,
+ * sums earnings per owner in memory and stores one payout per owner; pending payouts are then
+ * submitted to RazorpayX with bounded concurrency. Payouts left pending by a crash or a gateway
+ * outage are picked up again by the next run.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OwnerPayoutService {
+
+    // Extends the lock only while this node still holds it.
+    private static final RedisScript<Long> RENEW_LOCK_SCRIPT = new DefaultRedisScript<>("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+            return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+        end
+        return 0
+        """, Long.class);
+
+    public record Report(
+        Instant startedAt,
+        Duration elapsed,
+        @Nullable Long cycleId,
+        long bookings,
+        int owners,
+        BigDecimal amount,
+        long submitted,
+        long failed,
+        long onHold,
+        boolean completed
+    ) {
+    }
+
+    private record Aggregate(
+        OwnerPayoutStore.Cursor to,
+        Map<UUID, OwnerPayoutStore.OwnerTotal> totals,
+        long bookings,
+        List<Long> settlementIds
+    ) {
+    }
+
+    private record SubmitSummary(long submitted, long failed, long onHold, boolean completed) {
+    }
+
+    private record Submission(OwnerPayoutStore.DuePayout payout, @Nullable GatewayPayout result, @Nullable Throwable error) {
+    }
+
+    private final OwnerPayoutStore store;
+    private final PaymentGatewayClient paymentGatewayClient;
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.owner-payouts.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.owner-payouts.batch-size:10000}")
+    private int batchSize;
+
+    @Value("${app.owner-payouts.submit-batch-size:200}")
+    private int submitBatchSize;
+
+    @Value("${app.owner-payouts.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${app.owner-payouts.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.owner-payouts.completion-lag:5m}")
+    private Duration completionLag;
+
+    @Value("${app.owner-payouts.lock-ttl:30m}")
+    private Duration lockTtl;
+
+    private volatile Report lastReport;
+
+    @Nullable
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.owner-payouts.initial-delay-ms:120000}",
+        fixedDelayString = "${app.owner-payouts.interval-ms:3600000}"
+    )
+    public void scheduledRun() {
+        if (!enabled || !paymentGatewayClient.isPayoutConfigured()) {
+            return;
+        }
+        // Several nodes share the schedule; only the one holding the lock opens a cycle.
+        String lockKey = "owner-payouts:lock";
+        String token = UUID.randomUUID().toString();
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTtl))) {
+                return;
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Owner payouts skipped, Redis unavailable: {}", ex.getMessage());
+            return;
+        }
+        try {
+            run(() -> renewLock(lockKey, token));
+        } finally {
+            try {
+                if (token.equals(redisTemplate.opsForValue().get(lockKey))) {
+                    redisTemplate.delete(lockKey);
+                }
+            } catch (DataAccessException ex) {
+                log.debug("Could not release payout lock, it expires on its own: {}", ex.getMessage());
+            }
+        }
+    }
+
+    public Report run() {
+        return run(() -> true);
+    }
+
+    /**
+     * Runs one cycle, calling {@code holdsLock} between batches. Aggregation only renews the lock,
+     * since opening a cycle is already exclusive; submission stops once the lock is lost.
+     */
+    Report run(BooleanSupplier holdsLock) {
+        Instant startedAt = Instant.now();
+        OwnerPayoutStore.Cursor from = store.watermark();
+        Aggregate aggregate = aggregate(from, store.horizon(completionLag), holdsLock);
+
+        Long cycleId = null;
+        long paise = 0;
+        if (!aggregate.totals().isEmpty()) {
+            Optional<Long> opened = store.openCycle(from, aggregate.to(), aggregate.totals(), aggregate.settlementIds());
+            if (opened.isEmpty()) {
+                log.info("Owner payout cycle from {} was already opened elsewhere", from);
+            } else {
+                cycleId = opened.get();
+                paise = aggregate.totals().values().stream().mapToLong(OwnerPayoutStore.OwnerTotal::amountPaise).sum();
+            }
+        }
+
+        SubmitSummary summary = submitDue(holdsLock);
+        store.completeCycles();
+
+        Report report = new Report(
+            startedAt,
+            Duration.between(startedAt, Instant.now()),
+            cycleId,
+            cycleId != null ? aggregate.bookings() : 0,
+            cycleId != null ? aggregate.totals().size() : 0,
+            BigDecimal.valueOf(paise, 2),
+            summary.submitted(),
+            summary.failed(),
+            summary.onHold(),
+            summary.completed()
+        );
+        lastReport = report;
+        log.info("Owner payouts {}: cycle={} bookings={} owners={} amount={} submitted={} failed={} onHold={} in {} ms",
+            report.completed() ? "finished" : "aborted", cycleId, report.bookings(), report.owners(), report.amount(),
+            report.submitted(), report.failed(), report.onHold(), report.elapsed().toMillis());
+        return report;
+    }
+
+    private Aggregate aggregate(OwnerPayoutStore.Cursor from, LocalDateTime horizon, BooleanSupplier holdsLock) {
+        Map<UUID, long[]> totals = new HashMap<>();
+        OwnerPayoutStore.Cursor cursor = from;
+        long bookings = 0;
+        List<OwnerPayoutStore.Earning> batch;
+        do {
+            batch = store.nextBatch(cursor, horizon, batchSize);
+            for (OwnerPayoutStore.Earning earning : batch) {
+                long[] total = totals.computeIfAbsent(earning.ownerId(), ignored -> new long[2]);
+                total[0] += earning.amountPaise();
+                total[1]++;
+            }
+            if (!batch.isEmpty()) {
+                OwnerPayoutStore.Earning last = batch.get(batch.size() - 1);
+                cursor = new OwnerPayoutStore.Cursor(last.completedAt(), last.bookingId());
+                bookings += batch.size();
+            }
+            holdsLock.getAsBoolean();
+        } while (batch.size() == batchSize);
+
+        // A cycle must advance the booking watermark, so retained shares wait for one that does.
+        List<Long> settlementIds = new ArrayList<>();
+        if (bookings > 0) {
+            long afterId = 0;
+            List<OwnerPayoutStore.RetainedShare> shares;
+            do {
+                shares = store.unpaidRetainedShares(afterId, batchSize);
+                for (OwnerPayoutStore.RetainedShare share : shares) {
+                    totals.computeIfAbsent(share.ownerId(), ignored -> new long[2])[0] += share.amountPaise();
+                    settlementIds.add(share.settlementId());
+                    afterId = share.settlementId();
+                }
+                holdsLock.getAsBoolean();
+            } while (shares.size() == batchSize);
+        }
+
+        Map<UUID, OwnerPayoutStore.OwnerTotal> result = new HashMap<>(totals.size() * 2);
+        totals.forEach((ownerId, total) -> {
+            if (total[0] > 0) {
+                result.put(ownerId, new OwnerPayoutStore.OwnerTotal(total[0], (int) total[1]));
+            }
+        });
+        return new Aggregate(cursor, result, bookings, settlementIds);
+    }
+
+    private SubmitSummary submitDue(BooleanSupplier holdsLock) {
+        Semaphore inFlight = new Semaphore(maxConcurrency);
+        long submittedCount = 0;
+        long failedCount = 0;
+        long onHoldCount = 0;
+        long afterId = 0;
+        List<OwnerPayoutStore.DuePayout> batch;
+        do {
+            batch = store.duePayouts(afterId, submitBatchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1).id();
+
+            List<OwnerPayoutStore.DuePayout> onHold = new ArrayList<>();
+            List<CompletableFuture<Submission>> futures = new ArrayList<>(batch.size());
+            try {
+                for (OwnerPayoutStore.DuePayout payout : batch) {
+                    if (payout.fundAccountId() == null || payout.fundAccountId().isBlank()) {
+                        onHold.add(payout);
+                        continue;
+                    }
+                    inFlight.acquire();
+                    futures.add(paymentGatewayClient.createPayoutAsync(
+                            "payout_" + payout.id(),
+                            payout.fundAccountId(),
+                            payout.amount().movePointRight(2).longValueExact(),
+                            payout.currency()
+                        )
+                        .handle((result, error) -> new Submission(payout, result, error))
+                        .whenComplete((submission, error) -> inFlight.release()));
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return new SubmitSummary(submittedCount, failedCount, onHoldCount, false);
+            }
+
+            List<OwnerPayoutStore.Submitted> submitted = new ArrayList<>();
+            List<OwnerPayoutStore.Failed> failed = new ArrayList<>();
+            for (CompletableFuture<Submission> future : futures) {
+                Submission submission = future.join();
+                if (submission.result() != null) {
+                    submitted.add(new OwnerPayoutStore.Submitted(submission.payout(), submission.result().id()));
+                } else {
+                    failed.add(toFailure(submission.payout(), submission.error()));
+                }
+            }
+            store.applyOutcomes(submitted, failed, onHold);
+            submittedCount += submitted.size();
+            failedCount += failed.stream().filter(OwnerPayoutStore.Failed::terminal).count();
+            onHoldCount += onHold.size();
+
+            if (paymentGatewayClient.getCircuitState() == CircuitBreaker.State.OPEN) {
+                log.warn("Owner payouts stopped early, gateway circuit is open");
+                return new SubmitSummary(submittedCount, failedCount, onHoldCount, false);
+            }
+            if (!holdsLock.getAsBoolean()) {
+                log.warn("Owner payouts stopped, lock was taken over by another node");
+                return new SubmitSummary(submittedCount, failedCount, onHoldCount, false);
+            }
+        } while (batch.size() == submitBatchSize);
+        return new SubmitSummary(submittedCount, failedCount, onHoldCount, true);
+    }
+
+    private boolean renewLock(String lockKey, String token) {
+        try {
+            Long renewed = redisTemplate.execute(
+                RENEW_LOCK_SCRIPT, List.of(lockKey), token, String.valueOf(lockTtl.toMillis()));
+            return renewed != null && renewed == 1L;
+        } catch (DataAccessException ex) {
+            // No other node can take the lock while Redis is unreachable either.
+            log.debug("Could not renew payout lock: {}", ex.getMessage());
+            return true;
+        }
+    }
+
+    private OwnerPayoutStore.Failed toFailure(OwnerPayoutStore.DuePayout payout, @Nullable Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        boolean retryable = cause instanceof PaymentGatewayException gatewayException && gatewayException.isRetryable();
+        boolean terminal = !retryable || payout.attempts() + 1 >= maxAttempts;
+        String message = cause != null ? cause.getMessage() : "Unknown payout failure";
+        log.debug("Payout {} for owner {} failed: {}", payout.id(), payout.ownerId(), message);
+        return new OwnerPayoutStore.Failed(payout, message, terminal);
+    }
+}
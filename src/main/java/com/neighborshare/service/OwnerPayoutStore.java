@@ -0,0 +1,251 @@
+package com.neighborshare.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * SQL side of owner payouts. Completed bookings are read in (status_updated_at, id) keyset order
+ * from the end of the previous cycle, and a cycle with all of its payouts is written in a single
+ * transaction, so an interrupted aggregation leaves nothing behind and simply runs again.
+ * Deposit shares retained by a dispute are not tied to the booking keyset, since the dispute can
+ * resolve after its booking's cycle; each is stamped with the cycle that pays it out instead.
+ */
+@Component
+@RequiredArgsConstructor
+public class OwnerPayoutStore {
+
+    /** A completed booking and what its owner earned from it, in paise. */
+    public record Earning(UUID bookingId, UUID ownerId, LocalDateTime completedAt, long amountPaise) {
+    }
+
+    /** Position after the last booking of the previous batch or cycle. */
+    public record Cursor(LocalDateTime completedAt, UUID bookingId) {
+
+        public static final Cursor START = new Cursor(LocalDateTime.of(1970, 1, 1, 0, 0), new UUID(0, 0));
+    }
+
+    /** Deposit share an owner kept when a dispute resolved, in paise. */
+    public record RetainedShare(long settlementId, UUID ownerId, long amountPaise) {
+    }
+
+    public record OwnerTotal(long amountPaise, int bookings) {
+    }
+
+    public record DuePayout(long id, UUID ownerId, BigDecimal amount, String currency, int attempts, String fundAccountId) {
+    }
+
+    public record Submitted(DuePayout payout, String gatewayPayoutId) {
+    }
+
+    public record Failed(DuePayout payout, String error, boolean terminal) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LedgerService ledgerService;
+
+    public Cursor watermark() {
+        List<Cursor> cursors = jdbcTemplate.query(
+            "SELECT to_completed_at, to_booking_id FROM payout_cycles ORDER BY id DESC LIMIT 1",
+            (rs, rowNum) -> new Cursor(rs.getTimestamp("to_completed_at").toLocalDateTime(), rs.getObject("to_booking_id", UUID.class))
+        );
+        return cursors.isEmpty() ? Cursor.START : cursors.get(0);
+    }
+
+    /** Latest completion time a cycle may include; younger completions may not be committed yet. */
+    public LocalDateTime horizon(Duration lag) {
+        return jdbcTemplate.queryForObject(
+            "SELECT CURRENT_TIMESTAMP - make_interval(secs => ?)",
+            Timestamp.class,
+            lag.toMillis() / 1000.0
+        ).toLocalDateTime();
+    }
+
+    // The owner keeps the rental price plus whatever the completion settlement retained for damage;
+    // shares retained by a dispute come from unpaidRetainedShares.
+    public List<Earning> nextBatch(Cursor after, LocalDateTime horizon, int limit) {
+        return jdbcTemplate.query(
+            """
+                SELECT b.id, b.owner_id, b.status_updated_at,
+                       b.base_price + COALESCE(s.retained_amount, 0) AS amount
+                FROM bookings b
+                LEFT JOIN deposit_settlements s ON s.booking_id = b.id AND s.source = 'completion'
+                WHERE b.status = 'COMPLETED'
+                  AND (b.status_updated_at, b.id) > (?, ?)
+                  AND b.status_updated_at <= ?
+                  AND b.paid_at IS NOT NULL
+                ORDER BY b.status_updated_at, b.id
+                LIMIT ?
+                """,
+            (rs, rowNum) -> new Earning(
+                rs.getObject("id", UUID.class),
+                rs.getObject("owner_id", UUID.class),
+                rs.getTimestamp("status_updated_at").toLocalDateTime(),
+                rs.getBigDecimal("amount").movePointRight(2).longValueExact()
+            ),
+            Timestamp.valueOf(after.completedAt()),
+            after.bookingId(),
+            Timestamp.valueOf(horizon),
+            limit
+        );
+    }
+
+    /** Dispute-retained deposit shares not yet paid out by a cycle, in id order after {@code afterId}. */
+    public List<RetainedShare> unpaidRetainedShares(long afterId, int limit) {
+        return jdbcTemplate.query(
+            """
+                SELECT s.id, b.owner_id, s.retained_amount
+                FROM deposit_settlements s
+                JOIN bookings b ON b.id = s.booking_id
+                WHERE s.source = 'dispute'
+                  AND s.retained_amount > 0
+                  AND s.payout_cycle_id IS NULL
+                  AND s.id > ?
+                ORDER BY s.id
+                LIMIT ?
+                """,
+            (rs, rowNum) -> new RetainedShare(
+                rs.getLong("id"),
+                rs.getObject("owner_id", UUID.class),
+                rs.getBigDecimal("retained_amount").movePointRight(2).longValueExact()
+            ),
+            afterId,
+            limit
+        );
+    }
+
+    /**
+     * Writes a cycle and one pending payout per owner, and stamps the retained shares included in
+     * the totals with the cycle. Returns empty when another node already opened a cycle from the
+     * same watermark.
+     */
+    @Transactional
+    public Optional<Long> openCycle(Cursor from, Cursor to, Map<UUID, OwnerTotal> totals, List<Long> settlementIds) {
+        long bookings = 0;
+        long paise = 0;
+        for (OwnerTotal total : totals.values()) {
+            bookings += total.bookings();
+            paise += total.amountPaise();
+        }
+        List<Long> ids = jdbcTemplate.queryForList(
+            """
+                INSERT INTO payout_cycles (from_completed_at, from_booking_id, to_completed_at, to_booking_id,
+                                           booking_count, owner_count, total_amount)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT (from_completed_at, from_booking_id) DO NOTHING
+                RETURNING id
+                """,
+            Long.class,
+            Timestamp.valueOf(from.completedAt()),
+            from.bookingId(),
+            Timestamp.valueOf(to.completedAt()),
+            to.bookingId(),
+            bookings,
+            totals.size(),
+            BigDecimal.valueOf(paise, 2)
+        );
+        if (ids.isEmpty()) {
+            return Optional.empty();
+        }
+        long cycleId = ids.get(0);
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((ownerId, total) ->
+            rows.add(new Object[]{cycleId, ownerId, BigDecimal.valueOf(total.amountPaise(), 2), total.bookings()}));
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO owner_payouts (cycle_id, owner_id, amount, booking_count) VALUES (?, ?, ?, ?) "
+                + "ON CONFLICT (cycle_id, owner_id) DO NOTHING",
+            rows
+        );
+        if (!settlementIds.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "UPDATE deposit_settlements SET payout_cycle_id = ? WHERE id = ? AND payout_cycle_id IS NULL",
+                settlementIds.stream().map(id -> new Object[]{cycleId, id}).toList()
+            );
+        }
+        return Optional.of(cycleId);
+    }
+
+    public List<DuePayout> duePayouts(long afterId, int limit) {
+        return jdbcTemplate.query(
+            """
+                SELECT p.id, p.owner_id, p.amount, p.currency, p.attempts, u.payout_fund_account_id
+                FROM owner_payouts p
+                JOIN users u ON u.id = p.owner_id
+                WHERE p.status IN ('pending', 'on_hold') AND p.id > ?
+                ORDER BY p.id
+                LIMIT ?
+                """,
+            (rs, rowNum) -> new DuePayout(
+                rs.getLong("id"),
+                rs.getObject("owner_id", UUID.class),
+                rs.getBigDecimal("amount"),
+                rs.getString("currency"),
+                rs.getInt("attempts"),
+                rs.getString("payout_fund_account_id")
+            ),
+            afterId,
+            limit
+        );
+    }
+
+    /**
+     * Applies one batch of submission outcomes. A payout only leaves the owner's ledger earnings
+     * when its row actually moved to submitted, so a replayed batch posts nothing twice.
+     */
+    @Transactional
+    public void applyOutcomes(List<Submitted> submitted, List<Failed> failed, List<DuePayout> onHold) {
+        if (!submitted.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE owner_payouts SET status = 'submitted', gateway_payout_id = ?, attempts = attempts + 1, "
+                    + "last_error = NULL, submitted_at = CURRENT_TIMESTAMP WHERE id = ? AND status IN ('pending', 'on_hold')",
+                submitted.stream().map(s -> new Object[]{s.gatewayPayoutId(), s.payout().id()}).toList()
+            );
+            List<LedgerService.Journal> journals = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    DuePayout payout = submitted.get(i).payout();
+                    journals.add(LedgerService.ownerPayout(payout.id(), payout.ownerId(), payout.amount()));
+                }
+            }
+            ledgerService.post(journals);
+        }
+        if (!failed.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "UPDATE owner_payouts SET status = CASE WHEN ? THEN 'failed' ELSE status END, "
+                    + "attempts = attempts + 1, last_error = ? WHERE id = ? AND status IN ('pending', 'on_hold')",
+                failed.stream().map(f -> new Object[]{f.terminal(), f.error(), f.payout().id()}).toList()
+            );
+        }
+        if (!onHold.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "UPDATE owner_payouts SET status = 'on_hold', last_error = 'Owner has no payout fund account' "
+                    + "WHERE id = ? AND status = 'pending'",
+                onHold.stream().map(payout -> new Object[]{payout.id()}).toList()
+            );
+        }
+    }
+
+    /** Closes cycles with no payout left waiting for submission; on-hold payouts do not block. */
+    public int completeCycles() {
+        return jdbcTemplate.update(
+            """
+                UPDATE payout_cycles SET status = 'completed', completed_at = CURRENT_TIMESTAMP
+                WHERE status = 'submitting'
+                  AND NOT EXISTS (
+                      SELECT 1 FROM owner_payouts p WHERE p.cycle_id = payout_cycles.id AND p.status = 'pending'
+                  )
+                """
+        );
+    }
+}
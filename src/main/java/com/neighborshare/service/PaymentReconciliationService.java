@@ -0,0 +1,269 @@
+package com.neighborshare.service;
+
+import com.neighborshare.exception.PaymentGatewayException;
+import com.neighborshare.integration.CircuitBreaker;
+import com.neighborshare.integration.GatewayOrder;
+import com.neighborshare.integration.PaymentGatewayClient;
+import com.neighborshare.security.LocalTokenBucket;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Settles booking payments whose webhook never arrived. Stale pending transactions are streamed
+ * in keyset batches; for each batch the gateway is asked for the order status with bounded
+ * concurrency and a request rate cap, then the outcomes are written back in batched updates.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PaymentReconciliationService {
+
+    // Extends the lock only while this node still holds it.
+    private static final RedisScript<Long> RENEW_LOCK_SCRIPT = new DefaultRedisScript<>("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+            return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+        end
+        return 0
+        """, Long.class);
+
+    public record Report(
+        Instant startedAt,
+        Duration elapsed,
+        long scanned,
+        long settled,
+        long abandoned,
+        long stillPending,
+        long errors,
+        boolean completed
+    ) {
+    }
+
+    private record Outcome(
+        PaymentReconciliationStore.PendingPayment payment,
+        @Nullable GatewayOrder order,
+        boolean notFound,
+        boolean unauthorized
+    ) {
+    }
+
+    private final PaymentReconciliationStore store;
+    private final PaymentGatewayClient paymentGatewayClient;
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${app.payment-reconciliation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.payment-reconciliation.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.payment-reconciliation.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${app.payment-reconciliation.requests-per-second:20}")
+    private double requestsPerSecond;
+
+    @Value("${app.payment-reconciliation.stale-after:30m}")
+    private Duration staleAfter;
+
+    @Value("${app.payment-reconciliation.abandon-after:48h}")
+    private Duration abandonAfter;
+
+    @Value("${app.payment-reconciliation.lock-ttl:30m}")
+    private Duration lockTtl;
+
+    private volatile Report lastReport;
+
+    @Nullable
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.payment-reconciliation.initial-delay-ms:60000}",
+        fixedDelayString = "${app.payment-reconciliation.interval-ms:900000}"
+    )
+    public void scheduledRun() {
+        if (!enabled || !paymentGatewayClient.isConfigured()) {
+            return;
+        }
+        // Several nodes share the schedule; only the one holding the lock calls the gateway.
+        String lockKey = "payment-reconciliation:lock";
+        String token = UUID.randomUUID().toString();
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTtl))) {
+                return;
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Payment reconciliation skipped, Redis unavailable: {}", ex.getMessage());
+            return;
+        }
+        try {
+            reconcile(() -> renewLock(lockKey, token));
+        } finally {
+            try {
+                if (token.equals(redisTemplate.opsForValue().get(lockKey))) {
+                    redisTemplate.delete(lockKey);
+                }
+            } catch (DataAccessException ex) {
+                log.debug("Could not release reconciliation lock, it expires on its own: {}", ex.getMessage());
+            }
+        }
+    }
+
+    public Report reconcile() {
+        return reconcile(() -> true);
+    }
+
+    /** Runs one pass, checking {@code holdsLock} between batches and stopping once it returns false. */
+    Report reconcile(BooleanSupplier holdsLock) {
+        Instant startedAt = Instant.now();
+        LocalTokenBucket pacer = new LocalTokenBucket(
+            Math.max(1, (long) requestsPerSecond),
+            requestsPerSecond / 1000.0,
+            System.currentTimeMillis()
+        );
+        Semaphore inFlight = new Semaphore(maxConcurrency);
+        long scanned = 0;
+        long settled = 0;
+        long abandoned = 0;
+        long stillPending = 0;
+        long errors = 0;
+        boolean completed = true;
+
+        PaymentReconciliationStore.Cursor cursor = PaymentReconciliationStore.Cursor.START;
+        List<PaymentReconciliationStore.PendingPayment> batch;
+        do {
+            batch = store.nextBatch(cursor, staleAfter, abandonAfter, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            scanned += batch.size();
+            PaymentReconciliationStore.PendingPayment last = batch.get(batch.size() - 1);
+            cursor = new PaymentReconciliationStore.Cursor(last.createdAt(), last.id());
+
+            List<Outcome> outcomes;
+            try {
+                outcomes = lookup(batch, pacer, inFlight);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                completed = false;
+                break;
+            }
+
+            List<PaymentReconciliationStore.PendingPayment> paid = new ArrayList<>();
+            List<PaymentReconciliationStore.PendingPayment> expired = new ArrayList<>();
+            boolean unauthorized = false;
+            for (Outcome outcome : outcomes) {
+                unauthorized |= outcome.unauthorized();
+                if (outcome.order() != null && outcome.order().isPaid()) {
+                    paid.add(outcome.payment());
+                } else if ((outcome.order() != null || outcome.notFound()) && outcome.payment().abandoned()) {
+                    expired.add(outcome.payment());
+                } else if (outcome.order() == null) {
+                    errors++;
+                } else {
+                    stillPending++;
+                }
+            }
+            PaymentReconciliationStore.Settlement settlement = store.settle(paid, expired);
+            settled += settlement.settled();
+            abandoned += settlement.abandoned();
+
+            // Every further lookup would be refused the same way until the credentials are fixed.
+            if (unauthorized) {
+                log.error("Payment reconciliation stopped, gateway rejected the credentials");
+                completed = false;
+                break;
+            }
+            // No point walking the rest of the table while every gateway call fails fast.
+            if (paymentGatewayClient.getCircuitState() == CircuitBreaker.State.OPEN) {
+                log.warn("Payment reconciliation stopped early, gateway circuit is open");
+                completed = false;
+                break;
+            }
+            if (!holdsLock.getAsBoolean()) {
+                log.warn("Payment reconciliation stopped, lock was taken over by another node");
+                completed = false;
+                break;
+            }
+        } while (batch.size() == batchSize);
+
+        Report report = new Report(
+            startedAt,
+            Duration.between(startedAt, Instant.now()),
+            scanned,
+            settled,
+            abandoned,
+            stillPending,
+            errors,
+            completed
+        );
+        lastReport = report;
+        log.info("Payment reconciliation {}: scanned={} settled={} abandoned={} stillPending={} errors={} in {} ms",
+            completed ? "finished" : "aborted", scanned, settled, abandoned, stillPending, errors, report.elapsed().toMillis());
+        return report;
+    }
+
+    private boolean renewLock(String lockKey, String token) {
+        try {
+            Long renewed = redisTemplate.execute(
+                RENEW_LOCK_SCRIPT, List.of(lockKey), token, String.valueOf(lockTtl.toMillis()));
+            return renewed != null && renewed == 1L;
+        } catch (DataAccessException ex) {
+            // No other node can take the lock while Redis is unreachable either.
+            log.debug("Could not renew reconciliation lock: {}", ex.getMessage());
+            return true;
+        }
+    }
+
+    private List<Outcome> lookup(
+        List<PaymentReconciliationStore.PendingPayment> batch,
+        LocalTokenBucket pacer,
+        Semaphore inFlight
+    ) throws InterruptedException {
+        List<CompletableFuture<Outcome>> futures = new ArrayList<>(batch.size());
+        for (PaymentReconciliationStore.PendingPayment payment : batch) {
+            long waitMillis;
+            while ((waitMillis = pacer.tryConsume(System.currentTimeMillis())) > 0) {
+                Thread.sleep(waitMillis);
+            }
+            inFlight.acquire();
+            futures.add(paymentGatewayClient.fetchOrderAsync(payment.orderId())
+                .handle((order, error) -> toOutcome(payment, order, error))
+                .whenComplete((outcome, error) -> inFlight.release()));
+        }
+        return futures.stream().map(CompletableFuture::join).filter(Objects::nonNull).toList();
+    }
+
+    private Outcome toOutcome(PaymentReconciliationStore.PendingPayment payment, @Nullable GatewayOrder order, @Nullable Throwable error) {
+        if (error == null) {
+            return new Outcome(payment, order, false, false);
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        int status = cause instanceof PaymentGatewayException gatewayException ? gatewayException.getStatus() : 0;
+        // Only an unknown order shows the payment never happened; other failures say nothing about it.
+        boolean notFound = status == 404 || status == 400;
+        boolean unauthorized = status == 401 || status == 403;
+        log.debug("Reconciliation lookup for order {} failed: {}", payment.orderId(), cause.getMessage());
+        return new Outcome(payment, null, notFound, unauthorized);
+    }
+}
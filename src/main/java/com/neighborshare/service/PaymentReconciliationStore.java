@@ -0,0 +1,124 @@
+package com.neighborshare.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * SQL side of payment reconciliation. Pending transactions are read in (created_at, id) keyset
+ * order so a run touches each row once and never holds more than one batch in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class PaymentReconciliationStore {
+
+    public record PendingPayment(UUID id, String orderId, LocalDateTime createdAt, boolean abandoned) {
+    }
+
+    /** Position after the last row of the previous batch. */
+    public record Cursor(LocalDateTime createdAt, UUID id) {
+
+        public static final Cursor START = new Cursor(LocalDateTime.of(1970, 1, 1, 0, 0), new UUID(0, 0));
+    }
+
+    public record Settlement(int settled, int abandoned) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LedgerService ledgerService;
+
+    public List<PendingPayment> nextBatch(Cursor after, Duration staleAfter, Duration abandonAfter, int limit) {
+        return jdbcTemplate.query(
+            """
+                SELECT id, stripe_transaction_id, created_at,
+                       created_at < CURRENT_TIMESTAMP - make_interval(secs => ?) AS abandoned
+                FROM transactions
+                WHERE status = 'pending'
+                  AND transaction_type = 'booking_payment'
+                  AND stripe_transaction_id IS NOT NULL
+                  AND created_at < CURRENT_TIMESTAMP - make_interval(secs => ?)
+                  AND (created_at, id) > (?, ?)
+                ORDER BY created_at, id
+                LIMIT ?
+                """,
+            (rs, rowNum) -> new PendingPayment(
+                rs.getObject("id", UUID.class),
+                rs.getString("stripe_transaction_id"),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                rs.getBoolean("abandoned")
+            ),
+            seconds(abandonAfter),
+            seconds(staleAfter),
+            Timestamp.valueOf(after.createdAt()),
+            after.id(),
+            limit
+        );
+    }
+
+    /**
+     * Applies one batch of outcomes. Every update is conditional on the row still being pending
+     * (or the booking still unpaid), so a webhook that landed meanwhile always wins. Ledger
+     * journals are keyed per booking, so one already posted by that webhook is not repeated.
+     */
+    @Transactional
+    public Settlement settle(List<PendingPayment> paid, List<PendingPayment> abandoned) {
+        int settled = 0;
+        if (!paid.isEmpty()) {
+            List<Object[]> orders = paid.stream().map(payment -> new Object[]{payment.orderId()}).toList();
+            jdbcTemplate.batchUpdate(
+                """
+                    UPDATE bookings SET
+                        paid_at = CURRENT_TIMESTAMP,
+                        status = CASE WHEN status = 'ACCEPTED' AND start_date <= CURRENT_TIMESTAMP THEN 'ACTIVE' ELSE status END,
+                        status_updated_at = CASE WHEN status = 'ACCEPTED' AND start_date <= CURRENT_TIMESTAMP
+                            THEN CURRENT_TIMESTAMP ELSE status_updated_at END,
+                        version = version + 1
+                    WHERE payment_intent_id = ? AND paid_at IS NULL
+                    """,
+                orders
+            );
+            ledgerService.recordBookingPayments(paid.stream().map(PendingPayment::orderId).toList());
+            List<Object[]> rows = paid.stream().map(payment -> new Object[]{payment.orderId(), payment.id()}).toList();
+            settled = sum(jdbcTemplate.batchUpdate(
+                """
+                    UPDATE transactions SET
+                        status = 'completed',
+                        completed_at = CURRENT_TIMESTAMP,
+                        description = 'Razorpay payment reconciled for booking ' || booking_id,
+                        metadata = jsonb_build_object('gateway', 'razorpay', 'orderId', ?::text, 'source', 'reconciliation')
+                    WHERE id = ? AND status = 'pending'
+                    """,
+                rows
+            ));
+        }
+        int expired = 0;
+        if (!abandoned.isEmpty()) {
+            List<Object[]> rows = abandoned.stream().map(payment -> new Object[]{payment.id()}).toList();
+            expired = sum(jdbcTemplate.batchUpdate(
+                "UPDATE transactions SET status = 'failed', description = 'Razorpay order abandoned unpaid' "
+                    + "WHERE id = ? AND status = 'pending'",
+                rows
+            ));
+        }
+        return new Settlement(settled, expired);
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += Math.max(0, count);
+        }
+        return total;
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+}
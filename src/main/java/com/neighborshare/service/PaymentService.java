@@ -7,6 +7,7 @@ import com.neighborshare.domain.entity.Transaction;
 import com.neighborshare.domain.repository.BookingRepository;
 import com.neighborshare.domain.repository.TransactionRepository;
 import com.neighborshare.domain.valueobject.BookingStatus;
+import com.neighborshare.dto.response.AccountBalancesResponse;
 import com.neighborshare.dto.response.ApiMessageResponse;
 import com.neighborshare.dto.response.PaymentIntentResponse;
 import com.neighborshare.dto.response.TransactionResponse;
@@ -14,25 +15,26 @@ import com.neighborshare.exception.InvalidStateException;
 import com.neighborshare.exception.ResourceNotFoundException;
 import com.neighborshare.exception.UnauthorizedException;
 import com.neighborshare.exception.ValidationException;
+import com.neighborshare.integration.GatewayOrder;
+import com.neighborshare.integration.PaymentGatewayClient;
+import com.neighborshare.integration.RazorpaySignatureVerifier;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
-import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -43,36 +45,38 @@ public class PaymentService {
     private final BookingRepository bookingRepository;
     private final TransactionRepository transactionRepository;
     private final ObjectMapper objectMapper;
-    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final PaymentGatewayClient paymentGatewayClient;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentWebhookInbox paymentWebhookInbox;
+    private final RazorpaySignatureVerifier signatureVerifier;
+    private final LedgerService ledgerService;
+    private final FraudDetector fraudDetector;
 
     @Value("${razorpay.key-id:}")
     private String razorpayKeyId;
 
-    @Value("${razorpay.key-secret:}")
-    private String razorpayKeySecret;
-
-    @Value("${razorpay.webhook-secret:}")
-    private String razorpayWebhookSecret;
-
-    @Value("${razorpay.base-url:https://api.razorpay.com}")
-    private String razorpayBaseUrl;
-
     @Value("${razorpay.mock-enabled:false}")
     private boolean razorpayMockEnabled;
 
-    @Transactional
+    // Not @Transactional: the gateway call runs between two short transactions so a slow
+    // Razorpay never holds a pooled connection.
     public PaymentIntentResponse createBookingOrder(UUID userId, UUID apartmentId, UUID bookingId) {
-        Booking booking = bookingRepository.findByIdAndBorrowerId(bookingId, userId)
-            .orElseThrow(() -> new ResourceNotFoundException("Booking", bookingId.toString()));
-        assertBookingInApartment(booking, apartmentId);
-
-        if (booking.getStatus() != BookingStatus.ACCEPTED) {
-            throw new InvalidStateException("Order can only be created for accepted bookings");
-        }
-        if (booking.getPaidAt() != null) {
-            throw new InvalidStateException("Booking is already paid");
+        OrderPlan plan = transactionTemplate.execute(status -> planOrder(userId, apartmentId, bookingId));
+        if (plan.existing() != null) {
+            return plan.existing();
         }
 
+        GatewayOrder order = paymentGatewayClient.createOrder(plan.amountPaise(), "INR", "booking_" + bookingId);
+        return transactionTemplate.execute(status -> attachOrder(userId, bookingId, order));
+    }
+
+    private record OrderPlan(PaymentIntentResponse existing, long amountPaise) {
+    }
+
+    private OrderPlan planOrder(UUID userId, UUID apartmentId, UUID bookingId) {
+        Booking booking = getPayableBooking(userId, bookingId);
+        assertBookingInApartment(booking, apartmentId);
+
         if (razorpayMockEnabled) {
             String orderId = booking.getPaymentIntentId();
             if (orderId == null || orderId.isBlank()) {
@@ -81,74 +85,63 @@ public class PaymentService {
                 bookingRepository.save(booking);
             }
             upsertPendingTransaction(booking, orderId, "created");
-            return PaymentIntentResponse.builder()
-                .orderId(orderId)
-                .keyId((razorpayKeyId == null || razorpayKeyId.isBlank()) ? "rzp_test_mock" : razorpayKeyId)
-                .amount(toPaise(booking.getTotalAmount()))
-                .currency("INR")
-                .status("created")
-                .bookingStatus(booking.getStatus().name())
-                .build();
+            String keyId = (razorpayKeyId == null || razorpayKeyId.isBlank()) ? "rzp_test_mock" : razorpayKeyId;
+            return new OrderPlan(createdOrderResponse(booking, orderId, keyId), 0);
         }
 
-        ensureRazorpayConfigured();
-
-        try {
-            if (booking.getPaymentIntentId() != null && !booking.getPaymentIntentId().isBlank()) {
-                upsertPendingTransaction(booking, booking.getPaymentIntentId(), "created");
-                return PaymentIntentResponse.builder()
-                    .orderId(booking.getPaymentIntentId())
-                    .keyId(razorpayKeyId)
-                    .amount(toPaise(booking.getTotalAmount()))
-                    .currency("INR")
-                    .status("created")
-                    .bookingStatus(booking.getStatus().name())
-                    .build();
-            }
-
-            long amountPaise = toPaise(booking.getTotalAmount());
-            String body = objectMapper.createObjectNode()
-                .put("amount", amountPaise)
-                .put("currency", "INR")
-                .put("receipt", "booking_" + booking.getId())
-                .put("payment_capture", 1)
-                .toString();
-
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(razorpayBaseUrl + "/v1/orders"))
-                .header("Authorization", basicAuthHeader())
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(body))
-                .build();
+        if (!paymentGatewayClient.isConfigured()) {
+            throw new ValidationException("Razorpay credentials are not configured");
+        }
+        if (booking.getPaymentIntentId() != null && !booking.getPaymentIntentId().isBlank()) {
+            upsertPendingTransaction(booking, booking.getPaymentIntentId(), "created");
+            return new OrderPlan(createdOrderResponse(booking, booking.getPaymentIntentId(), razorpayKeyId), 0);
+        }
+        return new OrderPlan(null, toPaise(booking.getTotalAmount()));
+    }
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() < 200 || response.statusCode() >= 300) {
-                throw new ValidationException("Razorpay order creation failed: " + response.body());
-            }
+    private PaymentIntentResponse attachOrder(UUID userId, UUID bookingId, GatewayOrder order) {
+        // Re-validate: the booking may have changed while the gateway call was in flight.
+        Booking booking = getPayableBooking(userId, bookingId);
+        if (booking.getPaymentIntentId() != null && !booking.getPaymentIntentId().isBlank()) {
+            // A concurrent request attached its order first; the new order is left unpaid and expires.
+            return createdOrderResponse(booking, booking.getPaymentIntentId(), razorpayKeyId);
+        }
 
-            JsonNode json = objectMapper.readTree(response.body());
-            String orderId = json.path("id").asText(null);
-            if (orderId == null || orderId.isBlank()) {
-                throw new ValidationException("Razorpay returned empty order id");
-            }
+        booking.setPaymentIntentId(order.id());
+        bookingRepository.save(booking);
+        upsertPendingTransaction(booking, order.id(), order.status());
 
-            booking.setPaymentIntentId(orderId);
-            bookingRepository.save(booking);
-            upsertPendingTransaction(booking, orderId, json.path("status").asText("created"));
+        return PaymentIntentResponse.builder()
+            .orderId(order.id())
+            .keyId(razorpayKeyId)
+            .amount(order.amount() > 0 ? order.amount() : toPaise(booking.getTotalAmount()))
+            .currency(order.currency())
+            .status(order.status())
+            .bookingStatus(booking.getStatus().name())
+            .build();
+    }
 
-            return PaymentIntentResponse.builder()
-                .orderId(orderId)
-                .keyId(razorpayKeyId)
-                .amount(json.path("amount").asLong(amountPaise))
-                .currency(json.path("currency").asText("INR"))
-                .status(json.path("status").asText("created"))
-                .bookingStatus(booking.getStatus().name())
-                .build();
-        } catch (ValidationException ex) {
-            throw ex;
-        } catch (Exception ex) {
-            throw new ValidationException("Razorpay integration error: " + ex.getMessage());
+    private Booking getPayableBooking(UUID userId, UUID bookingId) {
+        Booking booking = bookingRepository.findByIdAndBorrowerId(bookingId, userId)
+            .orElseThrow(() -> new ResourceNotFoundException("Booking", bookingId.toString()));
+        if (booking.getStatus() != BookingStatus.ACCEPTED) {
+            throw new InvalidStateException("Order can only be created for accepted bookings");
         }
+        if (booking.getPaidAt() != null) {
+            throw new InvalidStateException("Booking is already paid");
+        }
+        return booking;
+    }
+
+    private PaymentIntentResponse createdOrderResponse(Booking booking, String orderId, String keyId) {
+        return PaymentIntentResponse.builder()
+            .orderId(orderId)
+            .keyId(keyId)
+            .amount(toPaise(booking.getTotalAmount()))
+            .currency("INR")
+            .status("created")
+            .bookingStatus(booking.getStatus().name())
+            .build();
     }
 
     @Transactional
@@ -199,7 +192,8 @@ public class PaymentService {
             verifyRazorpayPaymentSignature(orderId, paymentId, signature);
         }
 
-        if (booking.getPaidAt() == null) {
+        boolean newlyPaid = booking.getPaidAt() == null;
+        if (newlyPaid) {
             booking.setPaidAt(LocalDateTime.now());
         }
         if (booking.getStatus() == BookingStatus.ACCEPTED && !LocalDateTime.now().isBefore(booking.getStartDate())) {
@@ -207,6 +201,9 @@ public class PaymentService {
             booking.setStatusUpdatedAt(LocalDateTime.now());
         }
         bookingRepository.save(booking);
+        if (newlyPaid) {
+            ledgerService.recordBookingPayment(booking);
+        }
 
         upsertCompletedTransaction(booking, orderId, paymentId);
 
@@ -220,9 +217,12 @@ public class PaymentService {
             .build();
     }
 
-    @Transactional
-    public ApiMessageResponse handleRazorpayWebhook(String payload, String signatureHeader) {
-        if (razorpayWebhookSecret == null || razorpayWebhookSecret.isBlank()) {
+    /**
+     * Verifies and stores a webhook in the inbox, then returns without touching bookings;
+     * {@link PaymentWebhookWorker} applies it asynchronously via {@link #applyWebhookEvent}.
+     */
+    public ApiMessageResponse handleRazorpayWebhook(String payload, String signatureHeader, String eventIdHeader) {
+        if (!signatureVerifier.isWebhookConfigured()) {
             return ApiMessageResponse.builder()
                 .message("Razorpay webhook secret not configured. Event ignored.")
                 .build();
@@ -233,46 +233,66 @@ public class PaymentService {
 
         verifyWebhookSignature(payload, signatureHeader);
 
+        JsonNode root;
         try {
-            JsonNode root = objectMapper.readTree(payload);
-            String event = root.path("event").asText("");
-            JsonNode paymentEntity = root.path("payload").path("payment").path("entity");
-            String orderId = paymentEntity.path("order_id").asText(null);
-            String paymentId = paymentEntity.path("id").asText(null);
+            root = objectMapper.readTree(payload);
+        } catch (Exception ex) {
+            throw new ValidationException("Invalid webhook payload");
+        }
+        String event = root.path("event").asText("");
+        String orderId = root.path("payload").path("payment").path("entity").path("order_id").asText(null);
+        // Razorpay sends the same event id on redelivery; fall back to the payload digest without it.
+        String eventId = (eventIdHeader == null || eventIdHeader.isBlank()) ? "sha256:" + sha256Hex(payload) : eventIdHeader;
+
+        boolean accepted = paymentWebhookInbox.append(eventId, event, orderId, payload);
+        return ApiMessageResponse.builder()
+            .message(accepted ? "Webhook accepted: " + event : "Webhook already received: " + event)
+            .build();
+    }
 
-            if (orderId == null || orderId.isBlank()) {
-                return ApiMessageResponse.builder().message("Webhook ignored: missing order_id").build();
-            }
+    /** Applies a verified webhook payload. Safe to call more than once for the same event. */
+    @Transactional
+    public String applyWebhookEvent(String payload) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(payload);
+        } catch (Exception ex) {
+            throw new ValidationException("Invalid webhook payload");
+        }
+        String event = root.path("event").asText("");
+        JsonNode paymentEntity = root.path("payload").path("payment").path("entity");
+        String orderId = paymentEntity.path("order_id").asText(null);
+        String paymentId = paymentEntity.path("id").asText(null);
 
-            Optional<Booking> bookingOptional = bookingRepository.findByPaymentIntentId(orderId);
-            if (bookingOptional.isEmpty()) {
-                return ApiMessageResponse.builder().message("Webhook ignored: booking not found").build();
-            }
+        if (orderId == null || orderId.isBlank()) {
+            return "Webhook ignored: missing order_id";
+        }
+
+        Optional<Booking> bookingOptional = bookingRepository.findByPaymentIntentId(orderId);
+        if (bookingOptional.isEmpty()) {
+            return "Webhook ignored: booking not found";
+        }
 
-            Booking booking = bookingOptional.get();
-            if ("payment.captured".equals(event)) {
-                // Idempotent handling for duplicate capture webhooks.
-                if (booking.getPaidAt() == null) {
-                    booking.setPaidAt(LocalDateTime.now());
-                    if (booking.getStatus() == BookingStatus.ACCEPTED && !LocalDateTime.now().isBefore(booking.getStartDate())) {
-                        booking.setStatus(BookingStatus.ACTIVE);
-                        booking.setStatusUpdatedAt(LocalDateTime.now());
-                    }
-                    bookingRepository.save(booking);
+        Booking booking = bookingOptional.get();
+        if ("payment.captured".equals(event)) {
+            // Idempotent handling for duplicate capture webhooks.
+            if (booking.getPaidAt() == null) {
+                booking.setPaidAt(LocalDateTime.now());
+                if (booking.getStatus() == BookingStatus.ACCEPTED && !LocalDateTime.now().isBefore(booking.getStartDate())) {
+                    booking.setStatus(BookingStatus.ACTIVE);
+                    booking.setStatusUpdatedAt(LocalDateTime.now());
                 }
-                upsertCompletedTransaction(booking, orderId, paymentId);
-            } else if ("payment.failed".equals(event)) {
-                upsertFailedTransaction(booking, orderId, paymentId);
-            } else {
-                return ApiMessageResponse.builder().message("Webhook ignored: " + event).build();
+                bookingRepository.save(booking);
+                ledgerService.recordBookingPayment(booking);
             }
-
-            return ApiMessageResponse.builder().message("Webhook processed: " + event).build();
-        } catch (ValidationException ex) {
-            throw ex;
-        } catch (Exception ex) {
-            throw new ValidationException("Invalid webhook payload");
+            upsertCompletedTransaction(booking, orderId, paymentId);
+        } else if ("payment.failed".equals(event)) {
+            upsertFailedTransaction(booking, orderId, paymentId);
+        } else {
+            return "Webhook ignored: " + event;
         }
+
+        return "Webhook processed: " + event;
     }
 
     @Transactional(readOnly = true)
@@ -283,101 +303,104 @@ public class PaymentService {
         return page.map(this::toResponse);
     }
 
+    public AccountBalancesResponse getMyBalances(UUID userId) {
+        String charges = LedgerService.borrowerCharges(userId);
+        String earnings = LedgerService.ownerEarnings(userId);
+        String deposit = LedgerService.depositHold(userId);
+        Map<String, BigDecimal> balances = ledgerService.balances(List.of(charges, earnings, deposit));
+        return AccountBalancesResponse.builder()
+            .totalPaid(balances.get(charges).negate())
+            .earnings(balances.get(earnings))
+            .depositHeld(balances.get(deposit))
+            .currency("INR")
+            .build();
+    }
+
     private void upsertPendingTransaction(Booking booking, String orderId, String orderStatus) {
-        Transaction transaction = transactionRepository.findByStripeTransactionId(orderId)
-            .orElseGet(() -> Transaction.builder()
-                .user(booking.getBorrower())
-                .booking(booking)
-                .transactionType("booking_payment")
-                .amount(booking.getTotalAmount())
-                .currency("INR")
-                .build());
-        transaction.setStripeTransactionId(orderId);
-        transaction.setStatus("pending");
-        transaction.setDescription("Razorpay order created for booking " + booking.getId());
-        transaction.setMetadata("{\"gateway\":\"razorpay\",\"orderStatus\":\"" + orderStatus + "\"}");
-        transactionRepository.save(transaction);
+        upsertTransaction(
+            booking,
+            orderId,
+            "pending",
+            "Razorpay order created for booking " + booking.getId(),
+            "{\"gateway\":\"razorpay\",\"orderStatus\":\"" + orderStatus + "\"}",
+            null
+        );
     }
 
     private void upsertCompletedTransaction(Booking booking, String orderId, String paymentId) {
-        Transaction transaction = transactionRepository.findByStripeTransactionId(orderId)
-            .orElseGet(() -> Transaction.builder()
-                .user(booking.getBorrower())
-                .booking(booking)
-                .transactionType("booking_payment")
-                .amount(booking.getTotalAmount())
-                .currency("INR")
-                .stripeTransactionId(orderId)
-                .build());
-        transaction.setStatus("completed");
-        transaction.setDescription("Razorpay payment captured for booking " + booking.getId());
-        transaction.setMetadata("{\"gateway\":\"razorpay\",\"orderId\":\"" + orderId + "\",\"paymentId\":\"" + paymentId + "\"}");
-        transaction.setCompletedAt(LocalDateTime.now());
-        transactionRepository.save(transaction);
+        fraudDetector.recordPaymentSucceeded(booking.getBorrower().getId());
+        upsertTransaction(
+            booking,
+            orderId,
+            "completed",
+            "Razorpay payment captured for booking " + booking.getId(),
+            "{\"gateway\":\"razorpay\",\"orderId\":\"" + orderId + "\",\"paymentId\":\"" + paymentId + "\"}",
+            LocalDateTime.now()
+        );
     }
 
     private void upsertFailedTransaction(Booking booking, String orderId, String paymentId) {
-        Transaction transaction = transactionRepository.findByStripeTransactionId(orderId)
-            .orElseGet(() -> Transaction.builder()
-                .user(booking.getBorrower())
-                .booking(booking)
-                .transactionType("booking_payment")
-                .amount(booking.getTotalAmount())
-                .currency("INR")
-                .stripeTransactionId(orderId)
-                .build());
-        transaction.setStatus("failed");
-        transaction.setDescription("Razorpay payment failed for booking " + booking.getId());
-        transaction.setMetadata("{\"gateway\":\"razorpay\",\"orderId\":\"" + orderId + "\",\"paymentId\":\"" + paymentId + "\"}");
-        transactionRepository.save(transaction);
+        fraudDetector.recordPaymentFailed(booking.getBorrower().getId());
+        upsertTransaction(
+            booking,
+            orderId,
+            "failed",
+            "Razorpay payment failed for booking " + booking.getId(),
+            "{\"gateway\":\"razorpay\",\"orderId\":\"" + orderId + "\",\"paymentId\":\"" + paymentId + "\"}",
+            null
+        );
+    }
+
+    private void upsertTransaction(
+        Booking booking,
+        String orderId,
+        String status,
+        String description,
+        String metadata,
+        LocalDateTime completedAt
+    ) {
+        transactionRepository.upsertByGatewayReference(
+            booking.getBorrower().getId(),
+            booking.getId(),
+            "booking_payment",
+            booking.getTotalAmount(),
+            "INR",
+            orderId,
+            status,
+            description,
+            metadata,
+            completedAt
+        );
     }
 
     private void verifyRazorpayPaymentSignature(String orderId, String paymentId, String signature) {
-        ensureRazorpayConfigured();
-        String payload = orderId + "|" + paymentId;
-        String expected = hmacSha256Hex(payload, razorpayKeySecret);
-        if (!expected.equals(signature)) {
+        if (!paymentGatewayClient.isConfigured()) {
+            throw new ValidationException("Razorpay credentials are not configured");
+        }
+        if (!signatureVerifier.verifyPayment(orderId, paymentId, signature)) {
             throw new ValidationException("Invalid Razorpay payment signature");
         }
     }
 
     private void verifyWebhookSignature(String payload, String signature) {
-        String expected = hmacSha256Hex(payload, razorpayWebhookSecret);
-        if (!expected.equals(signature)) {
+        if (!signatureVerifier.verifyWebhook(payload, signature)) {
             throw new ValidationException("Invalid Razorpay webhook signature");
         }
     }
 
-    private String hmacSha256Hex(String data, String secret) {
+    private String sha256Hex(String data) {
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
-            byte[] hash = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder();
-            for (byte b : hash) {
-                sb.append(String.format("%02x", b));
-            }
-            return sb.toString();
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
         } catch (Exception ex) {
-            throw new ValidationException("Unable to compute signature");
+            throw new ValidationException("Unable to compute payload digest");
         }
     }
 
-    private String basicAuthHeader() {
-        String token = razorpayKeyId + ":" + razorpayKeySecret;
-        return "Basic " + Base64.getEncoder().encodeToString(token.getBytes(StandardCharsets.UTF_8));
-    }
-
     private long toPaise(BigDecimal amount) {
         return amount.multiply(BigDecimal.valueOf(100)).setScale(0, RoundingMode.HALF_UP).longValueExact();
     }
 
-    private void ensureRazorpayConfigured() {
-        if (razorpayKeyId == null || razorpayKeyId.isBlank() || razorpayKeySecret == null || razorpayKeySecret.isBlank()) {
-            throw new ValidationException("Razorpay credentials are not configured");
-        }
-    }
-
     private TransactionResponse toResponse(Transaction transaction) {
         return TransactionResponse.builder()
             .id(transaction.getId())
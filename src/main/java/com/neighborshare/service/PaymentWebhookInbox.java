@@ -0,0 +1,147 @@
+package com.neighborshare.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Durable store for received Razorpay webhooks. Events are appended once per event id and
+ * claimed in batches by {@link PaymentWebhookWorker}; only the oldest open event of an order is
+ * ever claimable, so events for the same order are applied in the order they arrived.
+ */
+@Component
+@RequiredArgsConstructor
+public class PaymentWebhookInbox {
+
+    public record Event(
+        long id,
+        String eventId,
+        String eventType,
+        String orderId,
+        String payload,
+        int attempts,
+        Duration queuedFor
+    ) {
+    }
+
+    public record Stats(long depth, Duration oldestAge) {
+    }
+
+    private static final RowMapper<Event> EVENT_MAPPER = (rs, rowNum) -> new Event(
+        rs.getLong("id"),
+        rs.getString("event_id"),
+        rs.getString("event_type"),
+        rs.getString("order_id"),
+        rs.getString("payload"),
+        rs.getInt("attempts"),
+        Duration.ofMillis(Math.max(0, Math.round(rs.getDouble("queued_for") * 1000)))
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Returns false when the event id was already received. */
+    public boolean append(String eventId, String eventType, String orderId, String payload) {
+        int inserted = jdbcTemplate.update(
+            "INSERT INTO payment_webhook_events (event_id, event_type, order_id, payload) VALUES (?, ?, ?, ?) "
+                + "ON CONFLICT (event_id) DO NOTHING",
+            eventId, eventType, orderId, payload
+        );
+        return inserted > 0;
+    }
+
+    /**
+     * Marks up to {@code limit} due events as processing and returns them. SKIP LOCKED lets
+     * several nodes claim concurrently, and an event is skipped while an earlier event of the
+     * same order is still open.
+     */
+    public List<Event> claim(int limit, Duration lockTimeout) {
+        return jdbcTemplate.query(
+            """
+                WITH claimable AS (
+                    SELECT e.id FROM payment_webhook_events e
+                    WHERE e.status = 'pending'
+                      AND e.next_attempt_at <= CURRENT_TIMESTAMP
+                      AND NOT EXISTS (
+                          SELECT 1 FROM payment_webhook_events p
+                          WHERE p.order_id = e.order_id
+                            AND p.id < e.id
+                            AND p.status IN ('pending', 'processing')
+                      )
+                    ORDER BY e.next_attempt_at, e.id
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                UPDATE payment_webhook_events w
+                SET status = 'processing', attempts = w.attempts + 1,
+                    locked_until = CURRENT_TIMESTAMP + make_interval(secs => ?)
+                FROM claimable
+                WHERE w.id = claimable.id
+                RETURNING w.id, w.event_id, w.event_type, w.order_id, w.payload, w.attempts,
+                    EXTRACT(EPOCH FROM CURRENT_TIMESTAMP - w.received_at) AS queued_for
+                """,
+            EVENT_MAPPER,
+            limit,
+            seconds(lockTimeout)
+        );
+    }
+
+    public void markProcessed(long id) {
+        jdbcTemplate.update(
+            "UPDATE payment_webhook_events SET status = 'processed', processed_at = CURRENT_TIMESTAMP, "
+                + "locked_until = NULL, last_error = NULL WHERE id = ?",
+            id
+        );
+    }
+
+    public void scheduleRetry(long id, Duration delay, String error) {
+        jdbcTemplate.update(
+            "UPDATE payment_webhook_events SET status = 'pending', "
+                + "next_attempt_at = CURRENT_TIMESTAMP + make_interval(secs => ?), locked_until = NULL, "
+                + "last_error = ? WHERE id = ?",
+            seconds(delay), error, id
+        );
+    }
+
+    public void markFailed(long id, String error) {
+        jdbcTemplate.update(
+            "UPDATE payment_webhook_events SET status = 'failed', locked_until = NULL, last_error = ? WHERE id = ?",
+            error, id
+        );
+    }
+
+    /** Returns events left in processing by a node that died to the pending state. */
+    public int releaseExpiredClaims() {
+        return jdbcTemplate.update(
+            "UPDATE payment_webhook_events SET status = 'pending', locked_until = NULL "
+                + "WHERE status = 'processing' AND locked_until < CURRENT_TIMESTAMP"
+        );
+    }
+
+    public Stats stats() {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) AS depth, "
+                + "COALESCE(EXTRACT(EPOCH FROM CURRENT_TIMESTAMP - MIN(received_at)), 0) AS oldest_age "
+                + "FROM payment_webhook_events WHERE status IN ('pending', 'processing')",
+            (rs, rowNum) -> new Stats(
+                rs.getLong("depth"),
+                Duration.ofMillis(Math.max(0, Math.round(rs.getDouble("oldest_age") * 1000)))
+            )
+        );
+    }
+
+    public int purgeProcessedOlderThan(Duration retention) {
+        return jdbcTemplate.update(
+            "DELETE FROM payment_webhook_events WHERE status = 'processed' "
+                + "AND processed_at < CURRENT_TIMESTAMP - make_interval(secs => ?)",
+            seconds(retention)
+        );
+    }
+
+    private static double seconds(Duration duration) {
+        return duration.toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,174 @@
+package com.neighborshare.service;
+
+import com.neighborshare.exception.ValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@link PaymentWebhookInbox}. Each event is applied and marked processed in one
+ * transaction, so a crash in between leaves it pending and it is simply applied again;
+ * the payment handlers are idempotent. Failures are retried with exponential backoff and
+ * parked as failed once {@code max-attempts} is reached.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PaymentWebhookWorker {
+
+    private final PaymentWebhookInbox inbox;
+    private final PaymentService paymentService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.payment-webhooks.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.payment-webhooks.workers:4}")
+    private int workers;
+
+    @Value("${app.payment-webhooks.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.payment-webhooks.retry-base-delay:5s}")
+    private Duration retryBaseDelay;
+
+    @Value("${app.payment-webhooks.retry-max-delay:15m}")
+    private Duration retryMaxDelay;
+
+    @Value("${app.payment-webhooks.lock-timeout:5m}")
+    private Duration lockTimeout;
+
+    @Value("${app.payment-webhooks.retention:7d}")
+    private Duration retention;
+
+    private final AtomicLong inboxDepth = new AtomicLong();
+    private final AtomicLong oldestEventAgeMillis = new AtomicLong();
+
+    private ExecutorService executor;
+    private Timer processingLag;
+    private Counter processed;
+    private Counter retried;
+    private Counter failed;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(workers);
+        Gauge.builder("payment.webhook.inbox.depth", inboxDepth, AtomicLong::get)
+            .description("Webhook events waiting to be applied")
+            .register(meterRegistry);
+        Gauge.builder("payment.webhook.inbox.lag", oldestEventAgeMillis, value -> value.get() / 1000.0)
+            .description("Age of the oldest unapplied webhook event")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        processingLag = Timer.builder("payment.webhook.processing.lag")
+            .description("Time from receipt to processing of a webhook event")
+            .register(meterRegistry);
+        processed = meterRegistry.counter("payment.webhook.events", "outcome", "processed");
+        retried = meterRegistry.counter("payment.webhook.events", "outcome", "retried");
+        failed = meterRegistry.counter("payment.webhook.events", "outcome", "failed");
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${app.payment-webhooks.poll-interval-ms:500}")
+    public void drain() {
+        try {
+            List<PaymentWebhookInbox.Event> batch;
+            do {
+                batch = inbox.claim(batchSize, lockTimeout);
+                List<Callable<Void>> tasks = new ArrayList<>(batch.size());
+                for (PaymentWebhookInbox.Event event : batch) {
+                    tasks.add(() -> {
+                        process(event);
+                        return null;
+                    });
+                }
+                executor.invokeAll(tasks);
+            } while (batch.size() == batchSize);
+        } catch (DataAccessException ex) {
+            log.warn("Webhook inbox drain skipped: {}", ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.payment-webhooks.housekeeping-interval-ms:15000}")
+    public void housekeeping() {
+        try {
+            int released = inbox.releaseExpiredClaims();
+            if (released > 0) {
+                log.warn("Released {} webhook events abandoned mid-processing", released);
+            }
+            inbox.purgeProcessedOlderThan(retention);
+            PaymentWebhookInbox.Stats stats = inbox.stats();
+            inboxDepth.set(stats.depth());
+            oldestEventAgeMillis.set(stats.oldestAge().toMillis());
+        } catch (DataAccessException ex) {
+            log.warn("Webhook inbox housekeeping skipped: {}", ex.getMessage());
+        }
+    }
+
+    void process(PaymentWebhookInbox.Event event) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                paymentService.applyWebhookEvent(event.payload());
+                inbox.markProcessed(event.id());
+            });
+            processingLag.record(event.queuedFor());
+            processed.increment();
+        } catch (ValidationException ex) {
+            // The payload passed signature checks but can never be applied; retrying will not help.
+            inbox.markFailed(event.id(), ex.getMessage());
+            failed.increment();
+            log.error("Webhook event {} rejected: {}", event.eventId(), ex.getMessage());
+        } catch (RuntimeException ex) {
+            if (event.attempts() >= maxAttempts) {
+                inbox.markFailed(event.id(), describe(ex));
+                failed.increment();
+                log.error("Webhook event {} failed after {} attempts", event.eventId(), event.attempts(), ex);
+            } else {
+                inbox.scheduleRetry(event.id(), backoff(event.attempts()), describe(ex));
+                retried.increment();
+                log.warn("Webhook event {} failed (attempt {}), will retry: {}", event.eventId(), event.attempts(), ex.getMessage());
+            }
+        }
+    }
+
+    // Exponential backoff with jitter, so a burst of failures does not retry in lockstep.
+    Duration backoff(int attempts) {
+        long base = retryBaseDelay.toMillis();
+        long exponential = base << Math.min(attempts - 1, 20);
+        long capped = Math.min(retryMaxDelay.toMillis(), exponential);
+        return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+    }
+
+    private static String describe(RuntimeException ex) {
+        String message = ex.getClass().getSimpleName() + ": " + ex.getMessage();
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
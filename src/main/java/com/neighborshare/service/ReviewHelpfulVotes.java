@@ -0,0 +1,113 @@
+package com.neighborshare.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Helpful votes on reviews. Each review has a Redis set of voter ids, which both deduplicates
+ * votes and is the authoritative count; a vote never touches the reviews table. Voted reviews
+ * are remembered in memory and their set sizes are copied to {@code reviews.helpful_count} in
+ * batches, so a hot review costs one UPDATE per flush however many votes it receives.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ReviewHelpfulVotes {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemReviewSummaryCache itemReviewSummaryCache;
+
+    @Value("${app.review-votes.key-prefix:review:helpful}")
+    private String keyPrefix;
+
+    // Voted review id -> its item id, for re-ranking the item's top reviews.
+    private final Map<UUID, UUID> dirtyReviews = new ConcurrentHashMap<>();
+
+    /** Returns false when the voter had already marked this review helpful. */
+    public boolean vote(UUID reviewId, UUID itemId, UUID voterId) {
+        Long added = redisTemplate.opsForSet().add(key(reviewId), voterId.toString());
+        if (added == null || added == 0) {
+            return false;
+        }
+        dirtyReviews.put(reviewId, itemId);
+        return true;
+    }
+
+    public int pendingCount() {
+        return dirtyReviews.size();
+    }
+
+    // Counts are copied rather than added, so a flush that fails halfway or runs twice never
+    // double-counts, and a review left dirty by a crash is corrected by its next vote.
+    @Scheduled(fixedDelayString = "${app.review-votes.flush-interval-ms:5000}")
+    public void flush() {
+        List<Map.Entry<UUID, UUID>> reviews = new ArrayList<>();
+        for (UUID reviewId : List.copyOf(dirtyReviews.keySet())) {
+            UUID itemId = dirtyReviews.remove(reviewId);
+            if (itemId != null) {
+                reviews.add(Map.entry(reviewId, itemId));
+            }
+        }
+        for (int from = 0; from < reviews.size(); from += BATCH_SIZE) {
+            List<Map.Entry<UUID, UUID>> chunk = reviews.subList(from, Math.min(reviews.size(), from + BATCH_SIZE));
+            try {
+                writeCounts(chunk);
+            } catch (DataAccessException ex) {
+                log.warn("Failed to flush helpful counts for {} reviews, will retry: {}", chunk.size(), ex.getMessage());
+                reviews.subList(from, reviews.size()).forEach(review -> dirtyReviews.putIfAbsent(review.getKey(), review.getValue()));
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void writeCounts(List<Map.Entry<UUID, UUID>> reviews) {
+        List<Object> sizes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<UUID, UUID> review : reviews) {
+                connection.setCommands().sCard(key(review.getKey()).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        List<Object[]> batch = new ArrayList<>(reviews.size());
+        List<ItemReviewSummaryCache.HelpfulCount> counts = new ArrayList<>(reviews.size());
+        for (int i = 0; i < reviews.size(); i++) {
+            long count = ((Number) sizes.get(i)).longValue();
+            UUID reviewId = reviews.get(i).getKey();
+            batch.add(new Object[]{count, reviewId, count});
+            counts.add(new ItemReviewSummaryCache.HelpfulCount(reviews.get(i).getValue(), reviewId, count));
+        }
+        // Never lowers the column: a flush racing an older one must not write back a stale count.
+        jdbcTemplate.batchUpdate(
+            "UPDATE reviews SET helpful_count = GREATEST(helpful_count, ?) "
+                + "WHERE id = ? AND (helpful_count IS NULL OR helpful_count < ?)",
+            batch
+        );
+        itemReviewSummaryCache.updateHelpfulCounts(counts);
+    }
+
+    private String key(UUID reviewId) {
+        return keyPrefix + ":" + reviewId;
+    }
+}
@@ -4,23 +4,35 @@ import com.neighborshare.domain.entity.Booking;
 import com.neighborshare.domain.entity.Review;
 import com.neighborshare.domain.entity.User;
 import com.neighborshare.domain.repository.BookingRepository;
+import com.neighborshare.domain.repository.ItemRepository;
 import com.neighborshare.domain.repository.ReviewRepository;
-import com.neighborshare.domain.repository.UserRepository;
 import com.neighborshare.domain.valueobject.BookingStatus;
 import com.neighborshare.dto.request.CreateReviewRequest;
+import com.neighborshare.dto.response.ApiMessageResponse;
+import com.neighborshare.dto.response.ItemReviewSummaryResponse;
+import com.neighborshare.dto.response.ReviewFeedResponse;
 import com.neighborshare.dto.response.ReviewResponse;
 import com.neighborshare.exception.InvalidStateException;
 import com.neighborshare.exception.ResourceNotFoundException;
 import com.neighborshare.exception.UnauthorizedException;
 import com.neighborshare.exception.ValidationException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
@@ -29,7 +41,16 @@ public class ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final UserRatingStore userRatingStore;
+    private final ItemCounterStore itemCounterStore;
+    private final TrustScoreStore trustScoreStore;
+    private final ReviewHelpfulVotes reviewHelpfulVotes;
+    private final ItemReviewSummaryCache itemReviewSummaryCache;
+    private final UserContextCache userContextCache;
+
+    @Value("${app.review-feed.max-page-size:50}")
+    private int maxFeedPageSize;
 
     @Transactional
     public ReviewResponse createReview(UUID reviewerId, CreateReviewRequest request) {
@@ -73,29 +94,112 @@ public class ReviewService {
         }
         bookingRepository.save(booking);
 
-        refreshUserRating(reviewedUser.getId());
+        userRatingStore.addRating(reviewedUser.getId(), request.getRating());
+        trustScoreStore.recordRating(reviewedUser.getId());
+        if (isBorrower) {
+            // The borrower's review is the one that rates the item itself.
+            itemCounterStore.recordRating(booking.getItem().getId(), request.getRating());
+            itemReviewSummaryCache.recordReview(booking.getItem().getId(), saved.getId(), request.getRating());
+        }
+        userContextCache.evict(reviewedUser.getId());
         return toResponse(saved);
     }
 
+    /** Marks a review helpful once per user; helpful counts catch up within a flush interval. */
+    @Transactional(readOnly = true)
+    public ApiMessageResponse markHelpful(UUID userId, UUID apartmentId, UUID reviewId) {
+        Review review = reviewRepository.findById(reviewId)
+            .orElseThrow(() -> new ResourceNotFoundException("Review", reviewId.toString()));
+        requireItemInApartment(apartmentId, review.getItem().getId());
+        if (review.getReviewer().getId().equals(userId)) {
+            throw new ValidationException("You cannot mark your own review as helpful");
+        }
+        boolean counted;
+        try {
+            counted = reviewHelpfulVotes.vote(reviewId, review.getItem().getId(), userId);
+        } catch (DataAccessException ex) {
+            throw new InvalidStateException("Helpful votes are temporarily unavailable");
+        }
+        return ApiMessageResponse.builder()
+            .message(counted ? "Review marked as helpful" : "You already marked this review as helpful")
+            .build();
+    }
+
+    /** Reviews of an item, newest first. {@code cursor} is the {@code nextCursor} of the previous page. */
+    @Transactional(readOnly = true)
+    public ReviewFeedResponse listItemReviews(UUID apartmentId, UUID itemId, String cursor, int size) {
+        requireItemInApartment(apartmentId, itemId);
+        int limit = Math.max(1, Math.min(size, maxFeedPageSize));
+        List<Review> reviews;
+        if (cursor == null || cursor.isBlank()) {
+            reviews = reviewRepository.findItemFeed(itemId, limit + 1);
+        } else {
+            FeedCursor after = FeedCursor.decode(cursor);
+            reviews = reviewRepository.findItemFeedAfter(itemId, after.createdAt(), after.id(), limit + 1);
+        }
+        String nextCursor = null;
+        if (reviews.size() > limit) {
+            reviews = reviews.subList(0, limit);
+            Review last = reviews.get(limit - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return ReviewFeedResponse.builder()
+            .reviews(reviews.stream().map(this::toResponse).toList())
+            .nextCursor(nextCursor)
+            .build();
+    }
+
+    @Transactional(readOnly = true)
+    public ItemReviewSummaryResponse getItemReviewSummary(UUID apartmentId, UUID itemId) {
+        requireItemInApartment(apartmentId, itemId);
+        ItemReviewSummaryCache.Summary summary = itemReviewSummaryCache.get(itemId);
+
+        Map<UUID, Review> byId = new HashMap<>();
+        reviewRepository.findAllById(summary.topReviewIds()).forEach(review -> byId.put(review.getId(), review));
+        List<ReviewResponse> topReviews = summary.topReviewIds().stream()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .map(this::toResponse)
+            .toList();
+
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        for (int stars = 5; stars >= 1; stars--) {
+            histogram.put(stars, summary.histogram()[stars - 1]);
+        }
+        return ItemReviewSummaryResponse.builder()
+            .itemId(itemId)
+            .totalReviews(summary.count())
+            .averageRating(summary.averageRating())
+            .histogram(histogram)
+            .topReviews(topReviews)
+            .build();
+    }
+
     @Transactional(readOnly = true)
     public Page<ReviewResponse> listMyReviews(UUID userId, Pageable pageable) {
         return reviewRepository.findByReviewedUserIdOrderByHelpful(userId, pageable).map(this::toResponse);
     }
 
-    private void refreshUserRating(UUID userId) {
-        Double average = reviewRepository.findAverageRatingByUserId(userId);
-        long count = reviewRepository.countByReviewedUserId(userId);
+    private void requireItemInApartment(UUID apartmentId, UUID itemId) {
+        itemRepository.findByIdAndApartmentIdAndDeletedAtIsNull(itemId, apartmentId)
+            .orElseThrow(() -> new ResourceNotFoundException("Item", itemId.toString()));
+    }
 
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User", userId.toString()));
+    private record FeedCursor(LocalDateTime createdAt, UUID id) {
 
-        BigDecimal averageValue = average == null
-            ? BigDecimal.ZERO
-            : BigDecimal.valueOf(average).setScale(2, RoundingMode.HALF_UP);
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
 
-        user.setAverageRating(averageValue);
-        user.setTotalRatings((int) count);
-        userRepository.save(user);
+        static FeedCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+                return new FeedCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException ex) {
+                throw new ValidationException("Invalid cursor");
+            }
+        }
     }
 
     private ReviewResponse toResponse(Review review) {
@@ -0,0 +1,215 @@
+package com.neighborshare.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Queue of trust events and the per-user features they feed. Producers append one row inside
+ * the transaction that causes the change; {@link #apply} consumes a batch, coalesces it per
+ * user, recomputes the affected scores in memory and writes each user back once.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrustScoreStore {
+
+    /** Feature deltas carried by one or more events for a user. An all-zero delta only rescores. */
+    public record Delta(int borrowed, int lent, int returnedOnTime, int disputes, int disputesLost) {
+
+        public static final Delta NONE = new Delta(0, 0, 0, 0, 0);
+
+        Delta plus(Delta other) {
+            return new Delta(
+                borrowed + other.borrowed,
+                lent + other.lent,
+                returnedOnTime + other.returnedOnTime,
+                disputes + other.disputes,
+                disputesLost + other.disputesLost
+            );
+        }
+    }
+
+    public record Features(
+        UUID userId,
+        int borrowed,
+        int lent,
+        int returnedOnTime,
+        int disputes,
+        int disputesLost,
+        BigDecimal averageRating,
+        int totalRatings,
+        int trustScore
+    ) {
+
+        Features plus(Delta delta) {
+            return new Features(
+                userId,
+                borrowed + delta.borrowed(),
+                lent + delta.lent(),
+                returnedOnTime + delta.returnedOnTime(),
+                disputes + delta.disputes(),
+                disputesLost + delta.disputesLost(),
+                averageRating,
+                totalRatings,
+                trustScore
+            );
+        }
+
+        /**
+         * Weighted on-time return ratio, rating and dispute-free ratio, each smoothed toward 0.5
+         * by two phantom observations, so a user without history scores 50 and one event cannot
+         * swing a new user to either extreme.
+         */
+        public int score() {
+            double onTime = (returnedOnTime + 1.0) / (borrowed + 2.0);
+            double rating = ((averageRating.doubleValue() - 1) / 4 * totalRatings + 1.0) / (totalRatings + 2.0);
+            int bookings = borrowed + lent;
+            double disputeFree = (bookings - disputes - disputesLost + 1.0) / (bookings + 2.0);
+            double score = 40 * clamp(onTime) + 40 * clamp(rating) + 20 * clamp(disputeFree);
+            return (int) Math.round(score);
+        }
+
+        private static double clamp(double value) {
+            return Math.max(0, Math.min(1, value));
+        }
+    }
+
+    /** Outcome of one batch: events consumed and users whose features or score changed. */
+    public record Applied(int consumed, List<UUID> changedUsers) {
+    }
+
+    public record Stats(long backlog, Duration oldestAge) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void recordBookingCompleted(UUID borrowerId, UUID ownerId, boolean returnedOnTime) {
+        jdbcTemplate.update(
+            "INSERT INTO user_trust_events (user_id, borrowed, returned_on_time, lent) VALUES (?, 1, ?, 0), (?, 0, 0, 1)",
+            borrowerId,
+            returnedOnTime ? 1 : 0,
+            ownerId
+        );
+    }
+
+    /** The rating itself lives on {@code users}; the event only asks for a rescore. */
+    public void recordRating(UUID userId) {
+        jdbcTemplate.update("INSERT INTO user_trust_events (user_id) VALUES (?)", userId);
+    }
+
+    public void recordDisputeOpened(UUID againstUserId) {
+        jdbcTemplate.update("INSERT INTO user_trust_events (user_id, disputes) VALUES (?, 1)", againstUserId);
+    }
+
+    public void recordDisputeLost(UUID userId) {
+        jdbcTemplate.update("INSERT INTO user_trust_events (user_id, disputes_lost) VALUES (?, 1)", userId);
+    }
+
+    /**
+     * Consumes up to {@code limit} events. The affected users are locked in id order, so a
+     * concurrent batch holding events of the same user waits instead of overwriting this one.
+     */
+    @Transactional
+    public Applied apply(int limit) {
+        Map<UUID, Delta> deltas = new LinkedHashMap<>();
+        int[] consumed = {0};
+        jdbcTemplate.query(
+            """
+                DELETE FROM user_trust_events
+                WHERE id IN (
+                    SELECT id FROM user_trust_events ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED
+                )
+                RETURNING user_id, borrowed, lent, returned_on_time, disputes, disputes_lost
+                """,
+            rs -> {
+                consumed[0]++;
+                deltas.merge(
+                    rs.getObject("user_id", UUID.class),
+                    new Delta(
+                        rs.getInt("borrowed"),
+                        rs.getInt("lent"),
+                        rs.getInt("returned_on_time"),
+                        rs.getInt("disputes"),
+                        rs.getInt("disputes_lost")
+                    ),
+                    Delta::plus
+                );
+            },
+            limit
+        );
+        if (deltas.isEmpty()) {
+            return new Applied(0, List.of());
+        }
+
+        List<Features> current = jdbcTemplate.query(
+            """
+                SELECT id, COALESCE(total_borrowed_items, 0) AS borrowed, COALESCE(total_lent_items, 0) AS lent,
+                       COALESCE(total_items_returned_on_time, 0) AS returned_on_time, total_disputes AS disputes, disputes_lost,
+                       COALESCE(average_rating, 0) AS average_rating, COALESCE(total_ratings, 0) AS total_ratings,
+                       COALESCE(trust_score, 50) AS trust_score
+                FROM users
+                WHERE id IN (%s)
+                ORDER BY id
+                FOR UPDATE
+                """.formatted(String.join(", ", Collections.nCopies(deltas.size(), "?"))),
+            (rs, rowNum) -> new Features(
+                rs.getObject("id", UUID.class),
+                rs.getInt("borrowed"),
+                rs.getInt("lent"),
+                rs.getInt("returned_on_time"),
+                rs.getInt("disputes"),
+                rs.getInt("disputes_lost"),
+                rs.getBigDecimal("average_rating"),
+                rs.getInt("total_ratings"),
+                rs.getInt("trust_score")
+            ),
+            deltas.keySet().toArray()
+        );
+
+        List<Object[]> rows = new ArrayList<>();
+        List<UUID> changed = new ArrayList<>();
+        for (Features features : current) {
+            Delta delta = deltas.getOrDefault(features.userId(), Delta.NONE);
+            Features next = features.plus(delta);
+            int score = next.score();
+            if (delta.equals(Delta.NONE) && score == features.trustScore()) {
+                continue;
+            }
+            rows.add(new Object[]{
+                next.borrowed(), next.lent(), next.returnedOnTime(), next.disputes(), next.disputesLost(),
+                score, next.userId()
+            });
+            changed.add(next.userId());
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "UPDATE users SET total_borrowed_items = ?, total_lent_items = ?, total_items_returned_on_time = ?, "
+                    + "total_disputes = ?, disputes_lost = ?, trust_score = ? WHERE id = ?",
+                rows
+            );
+        }
+        return new Applied(consumed[0], changed);
+    }
+
+    public Stats stats() {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) AS backlog, "
+                + "COALESCE(EXTRACT(EPOCH FROM CURRENT_TIMESTAMP - MIN(created_at)), 0) AS oldest_age "
+                + "FROM user_trust_events",
+            (rs, rowNum) -> new Stats(
+                rs.getLong("backlog"),
+                Duration.ofMillis(Math.max(0, Math.round(rs.getDouble("oldest_age") * 1000)))
+            )
+        );
+    }
+}
@@ -0,0 +1,75 @@
+package com.neighborshare.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains trust events every few seconds, so trust scores and the booking counters shown on
+ * profiles trail their bookings, reviews and disputes by about one poll interval and are never
+ * recomputed from history on read.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TrustScoreWorker {
+
+    private final TrustScoreStore store;
+    private final UserContextCache userContextCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.trust.batch-size:1000}")
+    private int batchSize;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong oldestEventAgeMillis = new AtomicLong();
+    private Counter usersUpdated;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("trust.events.backlog", backlog, AtomicLong::get)
+            .description("Trust events not yet applied")
+            .register(meterRegistry);
+        Gauge.builder("trust.events.lag", oldestEventAgeMillis, value -> value.get() / 1000.0)
+            .description("Age of the oldest trust event not yet applied")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        usersUpdated = Counter.builder("trust.users.updated")
+            .description("User rows rewritten with new trust features or scores")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.trust.poll-interval-ms:2000}")
+    public void drain() {
+        try {
+            TrustScoreStore.Applied applied;
+            do {
+                applied = store.apply(batchSize);
+                usersUpdated.increment(applied.changedUsers().size());
+                applied.changedUsers().forEach(userContextCache::evict);
+            } while (applied.consumed() == batchSize);
+        } catch (DataAccessException ex) {
+            log.warn("Trust event drain skipped: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.trust.stats-interval-ms:30000}")
+    public void refreshStats() {
+        try {
+            TrustScoreStore.Stats stats = store.stats();
+            backlog.set(stats.backlog());
+            oldestEventAgeMillis.set(stats.oldestAge().toMillis());
+        } catch (DataAccessException ex) {
+            log.debug("Trust event stats unavailable: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.neighborshare.service;
+
+import com.neighborshare.dto.response.UploadResponse;
+import com.neighborshare.exception.InvalidStateException;
+import com.neighborshare.exception.ResourceNotFoundException;
+import com.neighborshare.exception.ValidationException;
+import com.neighborshare.integration.ObjectStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Image uploads for item photos, dispute evidence and return photos. The servlet container
+ * spools multipart bodies to disk; the part is read once to hash and sniff it and, unless an
+ * object with the same content already exists, once more straight into the object store.
+ * Objects are keyed by SHA-256, so the same photo uploaded twice is stored once.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UploadService {
+
+    enum ImageType {
+        JPEG("image/jpeg", "jpg", true),
+        PNG("image/png", "png", true),
+        GIF("image/gif", "gif", true),
+        // No WebP decoder ships with the JDK, so WebP uploads have no resized variants.
+        WEBP("image/webp", "webp", false);
+
+        final String contentType;
+        final String extension;
+        final boolean resizable;
+
+        ImageType(String contentType, String extension, boolean resizable) {
+            this.contentType = contentType;
+            this.extension = extension;
+            this.resizable = resizable;
+        }
+
+        static ImageType sniff(byte[] header) {
+            if (startsWith(header, 0, (byte) 0xFF, (byte) 0xD8, (byte) 0xFF)) {
+                return JPEG;
+            }
+            if (startsWith(header, 0, (byte) 0x89, (byte) 'P', (byte) 'N', (byte) 'G', (byte) 0x0D, (byte) 0x0A, (byte) 0x1A, (byte) 0x0A)) {
+                return PNG;
+            }
+            if (startsWith(header, 0, (byte) 'G', (byte) 'I', (byte) 'F', (byte) '8')) {
+                return GIF;
+            }
+            if (startsWith(header, 0, (byte) 'R', (byte) 'I', (byte) 'F', (byte) 'F')
+                && startsWith(header, 8, (byte) 'W', (byte) 'E', (byte) 'B', (byte) 'P')) {
+                return WEBP;
+            }
+            return null;
+        }
+
+        private static boolean startsWith(byte[] header, int offset, byte... magic) {
+            return header.length >= offset + magic.length
+                && Arrays.equals(header, offset, offset + magic.length, magic, 0, magic.length);
+        }
+    }
+
+    private record Scan(String sha256, long size, ImageType type) {
+    }
+
+    public record StoredObject(InputStream content, String contentType) {
+    }
+
+    private static final int HEADER_BYTES = 12;
+
+    private final ObjectStore objectStore;
+    private final ImageVariantWorker imageVariantWorker;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.max-image-size-mb:5}")
+    private int maxImageSizeMb;
+
+    public UploadResponse upload(UUID userId, MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new ValidationException("Upload is empty");
+        }
+        long maxBytes = maxImageSizeMb * 1024L * 1024L;
+        if (file.getSize() > maxBytes) {
+            throw new ValidationException("Images are limited to " + maxImageSizeMb + " MB");
+        }
+
+        Scan scan;
+        try (InputStream in = file.getInputStream()) {
+            scan = scan(in, maxBytes);
+        } catch (IOException ex) {
+            throw new ValidationException("Upload could not be read");
+        }
+
+        String key = "images/" + scan.sha256() + "." + scan.type().extension;
+        boolean deduplicated;
+        try {
+            deduplicated = objectStore.exists(key);
+            if (!deduplicated) {
+                try (InputStream in = file.getInputStream()) {
+                    objectStore.put(key, in, scan.size(), scan.type().contentType);
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Storing upload {} from user {} failed: {}", key, userId, ex.getMessage());
+            throw new InvalidStateException("Image storage is unavailable, please try again");
+        }
+        meterRegistry.counter("uploads", "result", deduplicated ? "deduplicated" : "stored").increment();
+
+        String thumbnailUrl = null;
+        if (scan.type().resizable) {
+            imageVariantWorker.submit(key);
+            thumbnailUrl = objectStore.url(ImageVariantWorker.variantKey(key, "thumb"));
+        }
+        log.debug("User {} uploaded {} ({} bytes, deduplicated={})", userId, key, scan.size(), deduplicated);
+
+        return UploadResponse.builder()
+            .key(key)
+            .url(objectStore.url(key))
+            .thumbnailUrl(thumbnailUrl)
+            .contentType(scan.type().contentType)
+            .sizeBytes(scan.size())
+            .sha256(scan.sha256())
+            .deduplicated(deduplicated)
+            .build();
+    }
+
+    public StoredObject open(String key) {
+        try {
+            ObjectStore.checkKey(key);
+            InputStream content = objectStore.open(key)
+                .orElseThrow(() -> new ResourceNotFoundException("Upload", key));
+            return new StoredObject(content, contentType(key));
+        } catch (IllegalArgumentException ex) {
+            throw new ResourceNotFoundException("Upload", key);
+        } catch (IOException ex) {
+            throw new InvalidStateException("Image storage is unavailable, please try again");
+        }
+    }
+
+    private static Scan scan(InputStream in, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] header = new byte[HEADER_BYTES];
+        int headerLength = 0;
+        long size = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (DigestInputStream digesting = new DigestInputStream(in, digest)) {
+            int read;
+            while ((read = digesting.read(buffer)) != -1) {
+                if (headerLength < HEADER_BYTES) {
+                    int copied = Math.min(read, HEADER_BYTES - headerLength);
+                    System.arraycopy(buffer, 0, header, headerLength, copied);
+                    headerLength += copied;
+                }
+                size += read;
+                if (size > maxBytes) {
+                    throw new ValidationException("Images are limited to " + maxBytes / (1024 * 1024) + " MB");
+                }
+            }
+        }
+        ImageType type = ImageType.sniff(Arrays.copyOf(header, headerLength));
+        if (type == null) {
+            throw new ValidationException("Only JPEG, PNG, GIF and WebP images can be uploaded");
+        }
+        return new Scan(HexFormat.of().formatHex(digest.digest()), size, type);
+    }
+
+    private static String contentType(String key) {
+        String extension = key.substring(key.lastIndexOf('.') + 1);
+        for (ImageType type : ImageType.values()) {
+            if (type.extension.equals(extension)) {
+                return type.contentType;
+            }
+        }
+        return "application/octet-stream";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
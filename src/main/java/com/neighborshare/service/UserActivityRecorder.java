@@ -0,0 +1,82 @@
+package com.neighborshare.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for high-frequency bookkeeping on {@code users}. Updates are coalesced
+ * per user in memory and flushed as batched UPDATEs, so request paths such as login never
+ * write to the users table themselves. Booking counters are maintained by
+ * {@link TrustScoreStore}, whose events survive a restart.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UserActivityRecorder {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<UUID, LocalDateTime> pendingLogins = new ConcurrentHashMap<>();
+
+    public void recordLogin(UUID userId, LocalDateTime loginAt) {
+        pendingLogins.merge(userId, loginAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    public int pendingCount() {
+        return pendingLogins.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.activity.flush-interval-ms:5000}")
+    public void flush() {
+        flushLogins();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flushLogins() {
+        List<Object[]> batch = new ArrayList<>();
+        for (UUID userId : List.copyOf(pendingLogins.keySet())) {
+            LocalDateTime loginAt = pendingLogins.remove(userId);
+            if (loginAt != null) {
+                Timestamp timestamp = Timestamp.valueOf(loginAt);
+                batch.add(new Object[]{timestamp, userId, timestamp});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            executeInChunks(
+                "UPDATE users SET last_login_at = ? WHERE id = ? AND (last_login_at IS NULL OR last_login_at < ?)",
+                batch
+            );
+        } catch (DataAccessException ex) {
+            log.warn("Failed to flush {} login timestamps, will retry: {}", batch.size(), ex.getMessage());
+            batch.forEach(args -> recordLogin((UUID) args[1], ((Timestamp) args[0]).toLocalDateTime()));
+        }
+    }
+
+    private void executeInChunks(String sql, List<Object[]> batch) {
+        for (int from = 0; from < batch.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, batch.subList(from, Math.min(batch.size(), from + BATCH_SIZE)));
+        }
+    }
+}
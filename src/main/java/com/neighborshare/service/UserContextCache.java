@@ -0,0 +1,253 @@
+package com.neighborshare.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neighborshare.domain.entity.User;
+import com.neighborshare.domain.repository.UserRepository;
+import com.neighborshare.dto.response.UserResponse;
+import com.neighborshare.exception.UnauthorizedException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Read-through cache of user summaries used for apartment membership checks and for building
+ * responses. Lookups go local cache, then Redis, then the database. Changes to a user's
+ * status or apartment must call {@link #evict(UUID)}, which clears Redis and tells every node
+ * to drop its local copy.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UserContextCache implements MessageListener {
+
+    public record UserSummary(
+        UUID id,
+        UUID apartmentId,
+        String email,
+        String firstName,
+        String lastName,
+        String phone,
+        String profilePicUrl,
+        String bio,
+        BigDecimal averageRating,
+        Integer totalRatings,
+        Integer trustScore,
+        Integer totalBorrowedItems,
+        Integer totalLentItems,
+        Boolean isActive,
+        LocalDateTime bannedUntil,
+        LocalDateTime createdAt
+    ) {
+        static UserSummary from(User user) {
+            return new UserSummary(
+                user.getId(),
+                user.getApartment().getId(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getPhone(),
+                user.getProfilePicUrl(),
+                user.getBio(),
+                user.getAverageRating(),
+                user.getTotalRatings(),
+                user.getTrustScore(),
+                user.getTotalBorrowedItems(),
+                user.getTotalLentItems(),
+                user.getIsActive(),
+                user.getBannedUntil(),
+                user.getCreatedAt()
+            );
+        }
+
+        public UserResponse toResponse() {
+            return UserResponse.builder()
+                .id(id)
+                .email(email)
+                .firstName(firstName)
+                .lastName(lastName)
+                .phone(phone)
+                .profilePicUrl(profilePicUrl)
+                .bio(bio)
+                .averageRating(averageRating)
+                .totalRatings(totalRatings)
+                .trustScore(trustScore)
+                .totalBorrowedItems(totalBorrowedItems)
+                .totalLentItems(totalLentItems)
+                .createdAt(createdAt)
+                .build();
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${app.user-cache.local-max-size:50000}")
+    private long localMaxSize;
+
+    @Value("${app.user-cache.local-ttl:60s}")
+    private Duration localTtl;
+
+    @Value("${app.user-cache.redis-ttl:10m}")
+    private Duration redisTtl;
+
+    @Value("${app.user-cache.key-prefix:user-ctx}")
+    private String keyPrefix;
+
+    @Value("${app.user-cache.channel:user-ctx:invalidate}")
+    private String channel;
+
+    private Cache<UUID, UserSummary> localCache;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+            .maximumSize(localMaxSize)
+            .expireAfterWrite(localTtl)
+            .build();
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    public Optional<UserSummary> get(UUID userId) {
+        return Optional.ofNullable(getAll(List.of(userId)).get(userId));
+    }
+
+    /** Resolves the caller's summary, failing the same way the old entity lookup did. */
+    public UserSummary requireMember(UUID userId, UUID apartmentId) {
+        return get(userId)
+            .filter(summary -> summary.apartmentId().equals(apartmentId))
+            .orElseThrow(() -> new UnauthorizedException("Invalid user context"));
+    }
+
+    public Map<UUID, UserSummary> getAll(Collection<UUID> userIds) {
+        Map<UUID, UserSummary> result = new HashMap<>(localCache.getAllPresent(userIds));
+        Set<UUID> missing = new LinkedHashSet<>(userIds);
+        missing.removeAll(result.keySet());
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        loadFromRedis(missing, result);
+        missing.removeAll(result.keySet());
+        if (!missing.isEmpty()) {
+            loadFromDatabase(missing, result);
+        }
+        return result;
+    }
+
+    public void evict(UUID userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(userId);
+                }
+            });
+            return;
+        }
+        evictNow(userId);
+    }
+
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        try {
+            localCache.invalidate(UUID.fromString(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException ex) {
+            log.warn("Ignoring malformed user cache invalidation: {}", ex.getMessage());
+        }
+    }
+
+    private void evictNow(UUID userId) {
+        localCache.invalidate(userId);
+        try {
+            redisTemplate.delete(redisKey(userId));
+            redisTemplate.convertAndSend(channel, userId.toString());
+        } catch (DataAccessException ex) {
+            log.warn("Could not broadcast user cache eviction for {}: {}", userId, ex.getMessage());
+        }
+    }
+
+    private void loadFromRedis(Set<UUID> userIds, Map<UUID, UserSummary> result) {
+        List<UUID> ids = new ArrayList<>(userIds);
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(ids.stream().map(this::redisKey).toList());
+            for (int i = 0; values != null && i < ids.size(); i++) {
+                UserSummary summary = parse(values.get(i));
+                if (summary != null) {
+                    localCache.put(summary.id(), summary);
+                    result.put(summary.id(), summary);
+                }
+            }
+        } catch (DataAccessException ex) {
+            log.debug("User cache falling back to database: {}", ex.getMessage());
+        }
+    }
+
+    private void loadFromDatabase(Set<UUID> userIds, Map<UUID, UserSummary> result) {
+        Map<String, String> toStore = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            UserSummary summary = UserSummary.from(user);
+            localCache.put(summary.id(), summary);
+            result.put(summary.id(), summary);
+            try {
+                toStore.put(redisKey(summary.id()), objectMapper.writeValueAsString(summary));
+            } catch (JsonProcessingException ex) {
+                log.warn("Could not serialize user summary {}: {}", summary.id(), ex.getMessage());
+            }
+        }
+        if (toStore.isEmpty()) {
+            return;
+        }
+        try {
+            toStore.forEach((key, value) -> redisTemplate.opsForValue().set(key, value, redisTtl));
+        } catch (DataAccessException ex) {
+            log.debug("Could not populate Redis user cache: {}", ex.getMessage());
+        }
+    }
+
+    @Nullable
+    private UserSummary parse(@Nullable String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, UserSummary.class);
+        } catch (JsonProcessingException ex) {
+            log.warn("Discarding unreadable user summary: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private String redisKey(UUID userId) {
+        return keyPrefix + ":" + userId;
+    }
+}
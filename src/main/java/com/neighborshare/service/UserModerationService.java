@@ -0,0 +1,57 @@
+package com.neighborshare.service;
+
+import com.neighborshare.domain.entity.User;
+import com.neighborshare.domain.repository.UserRepository;
+import com.neighborshare.exception.ResourceNotFoundException;
+import com.neighborshare.exception.ValidationException;
+import com.neighborshare.security.AdminAccess;
+import com.neighborshare.security.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Account restrictions applied by administrators through {@code /v1/admin/users}. Both
+ * operations revoke the user's outstanding tokens and evict the cached user context, so they
+ * take effect on the next request instead of when the current access token expires.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserModerationService {
+
+    private final UserRepository userRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserContextCache userContextCache;
+    private final AdminAccess adminAccess;
+
+    @Transactional
+    public void banUntil(UUID adminId, UUID userId, LocalDateTime bannedUntil) {
+        adminAccess.requireAdmin(adminId);
+        if (bannedUntil == null || !bannedUntil.isAfter(LocalDateTime.now())) {
+            throw new ValidationException("bannedUntil must be in the future");
+        }
+        User user = getUser(userId);
+        user.setBannedUntil(bannedUntil);
+        userRepository.save(user);
+        tokenRevocationService.revokeAllForUser(userId);
+        userContextCache.evict(userId);
+    }
+
+    @Transactional
+    public void deactivate(UUID adminId, UUID userId) {
+        adminAccess.requireAdmin(adminId);
+        User user = getUser(userId);
+        user.setIsActive(false);
+        userRepository.save(user);
+        tokenRevocationService.revokeAllForUser(userId);
+        userContextCache.evict(userId);
+    }
+
+    private User getUser(UUID userId) {
+        return userRepository.findById(userId)
+            .orElseThrow(() -> new ResourceNotFoundException("User", userId.toString()));
+    }
+}
@@ -0,0 +1,100 @@
+package com.neighborshare.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rating aggregates on {@code users}. A review adds to {@code rating_sum} and
+ * {@code total_ratings} with one atomic UPDATE that also derives {@code average_rating}, so
+ * concurrent reviews of the same user serialize on the row instead of overwriting each other.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserRatingStore {
+
+    /** A user in a verification batch and whether its aggregates disagree with its reviews. */
+    public record Check(UUID userId, boolean drifted) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void addRating(UUID userId, BigDecimal rating) {
+        // Right-hand sides see the row before the update, hence the repeated increment.
+        jdbcTemplate.update(
+            """
+                UPDATE users
+                SET rating_sum = rating_sum + ?,
+                    total_ratings = COALESCE(total_ratings, 0) + 1,
+                    average_rating = ROUND((rating_sum + ?) / (COALESCE(total_ratings, 0) + 1), 2)
+                WHERE id = ?
+                """,
+            rating,
+            rating,
+            userId
+        );
+    }
+
+    /** Compares the stored aggregates of the next {@code limit} users after {@code afterId} with their reviews. */
+    public List<Check> check(UUID afterId, int limit) {
+        return jdbcTemplate.query(
+            """
+                SELECT u.id,
+                       u.rating_sum IS DISTINCT FROM COALESCE(r.rating_sum, 0)
+                           OR COALESCE(u.total_ratings, 0) <> COALESCE(r.total_ratings, 0) AS drifted
+                FROM (SELECT id, rating_sum, total_ratings FROM users WHERE id > ? ORDER BY id LIMIT ?) u
+                LEFT JOIN LATERAL (
+                    SELECT SUM(rating) AS rating_sum, COUNT(*) AS total_ratings
+                    FROM reviews WHERE reviewed_user_id = u.id
+                ) r ON true
+                ORDER BY u.id
+                """,
+            (rs, rowNum) -> new Check(rs.getObject("id", UUID.class), rs.getBoolean("drifted")),
+            afterId,
+            limit
+        );
+    }
+
+    /**
+     * Recomputes the aggregates of the given users from their reviews. The user rows are locked
+     * first so the recount sees every review whose increment already committed, and reviews
+     * still in flight wait and add on top of the recount.
+     */
+    @Transactional
+    public int recompute(List<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(userIds.size(), "?"));
+        jdbcTemplate.queryForList(
+            "SELECT id FROM users WHERE id IN (" + placeholders + ") ORDER BY id FOR UPDATE",
+            UUID.class,
+            userIds.toArray()
+        );
+        return jdbcTemplate.update(
+            """
+                UPDATE users u
+                SET rating_sum = r.rating_sum,
+                    total_ratings = r.total_ratings,
+                    average_rating = CASE WHEN r.total_ratings = 0 THEN 0
+                                          ELSE ROUND(r.rating_sum / r.total_ratings, 2) END
+                FROM (
+                    SELECT u2.id, COALESCE(SUM(rv.rating), 0) AS rating_sum, COUNT(rv.id) AS total_ratings
+                    FROM users u2
+                    LEFT JOIN reviews rv ON rv.reviewed_user_id = u2.id
+                    WHERE u2.id IN (%s)
+                    GROUP BY u2.id
+                ) r
+                WHERE u.id = r.id
+                  AND (u.rating_sum <> r.rating_sum OR COALESCE(u.total_ratings, 0) <> r.total_ratings)
+                """.formatted(placeholders),
+            userIds.toArray()
+        );
+    }
+}
@@ -0,0 +1,67 @@
+package com.neighborshare.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Periodically walks all users in id order and recomputes rating aggregates that no longer
+ * match their reviews, e.g. after a review was deleted by hand or an increment was lost.
+ * Only drifted users are recounted, so a clean pass costs one read per batch.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UserRatingVerifier {
+
+    private static final UUID START = new UUID(0, 0);
+
+    private final UserRatingStore store;
+    private final UserContextCache userContextCache;
+
+    @Value("${app.ratings.verify-batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(
+        initialDelayString = "${app.ratings.verify-initial-delay-ms:600000}",
+        fixedDelayString = "${app.ratings.verify-interval-ms:21600000}"
+    )
+    public void verify() {
+        try {
+            int repaired = verifyAll();
+            if (repaired > 0) {
+                log.warn("Repaired drifted rating aggregates for {} users", repaired);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Rating verification skipped: {}", ex.getMessage());
+        }
+    }
+
+    int verifyAll() {
+        UUID cursor = START;
+        int repaired = 0;
+        List<UserRatingStore.Check> batch;
+        do {
+            batch = store.check(cursor, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            cursor = batch.get(batch.size() - 1).userId();
+            List<UUID> drifted = batch.stream()
+                .filter(UserRatingStore.Check::drifted)
+                .map(UserRatingStore.Check::userId)
+                .toList();
+            if (!drifted.isEmpty()) {
+                repaired += store.recompute(drifted);
+                drifted.forEach(userContextCache::evict);
+            }
+        } while (batch.size() == batchSize);
+        return repaired;
+    }
+}
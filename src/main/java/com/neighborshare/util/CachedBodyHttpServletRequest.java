@@ -0,0 +1,101 @@
+package com.neighborshare.util;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Request wrapper that buffers at most {@code maxBytes} of the body so filters can inspect it,
+ * while downstream readers still see the complete body (buffered prefix followed by the rest
+ * of the original stream).
+ */
+public class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
+
+    private final byte[] cachedBody;
+    private final boolean truncated;
+    private final InputStream remainder;
+    private ServletInputStream inputStream;
+
+    public CachedBodyHttpServletRequest(HttpServletRequest request, int maxBytes) throws IOException {
+        super(request);
+        InputStream original = request.getInputStream();
+        byte[] prefix = original.readNBytes(maxBytes + 1);
+        this.truncated = prefix.length > maxBytes;
+        this.cachedBody = truncated ? Arrays.copyOf(prefix, maxBytes) : prefix;
+        this.remainder = truncated
+            ? new SequenceInputStream(new ByteArrayInputStream(prefix, maxBytes, 1), original)
+            : InputStream.nullInputStream();
+    }
+
+    public byte[] getCachedBody() {
+        return cachedBody;
+    }
+
+    /** True when the body was larger than the buffer and {@link #getCachedBody()} is only a prefix. */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        // Like the container stream, repeated calls return the same single-pass stream.
+        if (inputStream == null) {
+            inputStream = createInputStream();
+        }
+        return inputStream;
+    }
+
+    private ServletInputStream createInputStream() {
+        InputStream body = new SequenceInputStream(new ByteArrayInputStream(cachedBody), remainder);
+        return new ServletInputStream() {
+            private boolean finished;
+
+            @Override
+            public int read() throws IOException {
+                int value = body.read();
+                finished = value == -1;
+                return value;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int count = body.read(b, off, len);
+                finished = count == -1;
+                return count;
+            }
+
+            @Override
+            public boolean isFinished() {
+                return finished;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new UnsupportedOperationException("Async reads are not supported");
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        String encoding = getCharacterEncoding();
+        Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+}
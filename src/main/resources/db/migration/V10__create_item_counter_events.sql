@@ -0,0 +1,32 @@
+-- Item catalog counters are kept on items and fed by an event queue: bookings and reviews
+-- append a row in their own transaction, and a worker folds batches of rows into items.
+ALTER TABLE items ADD COLUMN rating_sum DECIMAL(12, 2) NOT NULL DEFAULT 0;
+ALTER TABLE items ADD COLUMN total_ratings INT NOT NULL DEFAULT 0;
+
+CREATE TABLE item_counter_events (
+    id BIGSERIAL PRIMARY KEY,
+    item_id UUID NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+    bookings INT NOT NULL DEFAULT 0,
+    rating DECIMAL(3, 2),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Only the borrower's review of a booking rates the item.
+UPDATE items i
+SET rating_sum = r.rating_sum,
+    total_ratings = r.total_ratings,
+    average_rating = ROUND(r.rating_sum / r.total_ratings, 2)
+FROM (
+    SELECT rv.item_id, SUM(rv.rating) AS rating_sum, COUNT(*) AS total_ratings
+    FROM reviews rv
+    JOIN bookings b ON b.id = rv.booking_id AND b.borrower_id = rv.reviewer_id
+    GROUP BY rv.item_id
+) r
+WHERE i.id = r.item_id;
+
+UPDATE items i
+SET total_bookings = b.total_bookings
+FROM (
+    SELECT item_id, COUNT(*) AS total_bookings FROM bookings WHERE status = 'COMPLETED' GROUP BY item_id
+) b
+WHERE i.id = b.item_id;
@@ -0,0 +1,4 @@
+-- Keyset index for the item review feed, newest first. It covers lookups by item_id alone,
+-- so the single-column index is dropped.
+CREATE INDEX idx_reviews_item_created ON reviews(item_id, created_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_reviews_item_id;
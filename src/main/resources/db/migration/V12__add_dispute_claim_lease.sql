@@ -0,0 +1,5 @@
+-- Admin work queue: a claimed dispute is 'in_review' with its admin's lease in claimed_until.
+-- A lapsed lease makes the dispute claimable again.
+ALTER TABLE disputes ADD COLUMN claimed_until TIMESTAMP;
+
+CREATE INDEX idx_disputes_queue ON disputes(created_at, id) WHERE status IN ('open', 'in_review');
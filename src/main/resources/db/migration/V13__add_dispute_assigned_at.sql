@@ -0,0 +1,5 @@
+-- First time an admin took the dispute, for time-to-assign SLAs. Reclaims after a lapsed
+-- lease keep the original value.
+ALTER TABLE disputes ADD COLUMN assigned_at TIMESTAMP;
+
+UPDATE disputes SET assigned_at = updated_at WHERE assigned_admin_id IS NOT NULL;
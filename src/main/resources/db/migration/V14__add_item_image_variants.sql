@@ -0,0 +1,3 @@
+-- Resized copies of uploaded item images, keyed by original image URL:
+-- {"<image url>": {"thumb": "<url>", "medium": "<url>"}}. Written by ImageVariantWorker.
+ALTER TABLE items ADD COLUMN image_variants JSONB NOT NULL DEFAULT '{}'::jsonb;
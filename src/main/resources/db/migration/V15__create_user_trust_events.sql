@@ -0,0 +1,59 @@
+-- Trust score inputs are kept on users and fed by an event queue, like item counters:
+-- bookings, reviews and disputes append a row in their own transaction, and a worker folds
+-- batches of rows into the users' features and recomputes their scores.
+ALTER TABLE users ADD COLUMN total_disputes INT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN disputes_lost INT NOT NULL DEFAULT 0;
+
+CREATE TABLE user_trust_events (
+    id BIGSERIAL PRIMARY KEY,
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    borrowed INT NOT NULL DEFAULT 0,
+    lent INT NOT NULL DEFAULT 0,
+    returned_on_time INT NOT NULL DEFAULT 0,
+    disputes INT NOT NULL DEFAULT 0,
+    disputes_lost INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Rebuild the booking counters from history; they used to be buffered in memory and could
+-- lose increments on a crash.
+UPDATE users u
+SET total_borrowed_items = (
+        SELECT COUNT(*) FROM bookings b WHERE b.borrower_id = u.id AND b.status = 'COMPLETED'
+    ),
+    total_items_returned_on_time = (
+        SELECT COUNT(*) FROM bookings b
+        WHERE b.borrower_id = u.id AND b.status = 'COMPLETED' AND b.returned_at <= b.end_date
+    ),
+    total_lent_items = (
+        SELECT COUNT(*) FROM bookings b WHERE b.owner_id = u.id AND b.status = 'COMPLETED'
+    );
+
+-- A dispute counts against the participant who did not open it.
+UPDATE users u
+SET total_disputes = d.disputes
+FROM (
+    SELECT CASE WHEN d.created_by_id = b.borrower_id THEN b.owner_id ELSE b.borrower_id END AS user_id,
+           COUNT(*) AS disputes
+    FROM disputes d
+    JOIN bookings b ON b.id = d.booking_id
+    GROUP BY 1
+) d
+WHERE u.id = d.user_id;
+
+-- A borrower loses a dispute when the resolution keeps part of the deposit.
+UPDATE users u
+SET disputes_lost = l.lost
+FROM (
+    SELECT b.borrower_id, COUNT(*) AS lost
+    FROM disputes d
+    JOIN bookings b ON b.id = d.booking_id
+    WHERE d.resolved_at IS NOT NULL
+      AND d.refund_amount IS NOT NULL
+      AND d.refund_amount < b.deposit_collected
+    GROUP BY b.borrower_id
+) l
+WHERE u.id = l.borrower_id;
+
+-- One empty event per user makes the worker compute every score from the rebuilt features.
+INSERT INTO user_trust_events (user_id) SELECT id FROM users;
@@ -0,0 +1,17 @@
+-- A deposit share retained by a dispute is paid out by the first cycle opened after the dispute
+-- resolves, and stamped with that cycle, independently of the cycle that covered its booking.
+ALTER TABLE deposit_settlements ADD COLUMN payout_cycle_id BIGINT REFERENCES payout_cycles(id);
+
+-- Earlier cycles added the retained share to the booking's earning when the dispute had already
+-- been resolved by the time the cycle covering the booking was opened.
+UPDATE deposit_settlements s
+SET payout_cycle_id = c.id
+FROM bookings b, payout_cycles c
+WHERE s.booking_id = b.id
+  AND s.source = 'dispute'
+  AND (b.status_updated_at, b.id) > (c.from_completed_at, c.from_booking_id)
+  AND (b.status_updated_at, b.id) <= (c.to_completed_at, c.to_booking_id)
+  AND s.created_at <= c.created_at;
+
+CREATE INDEX idx_deposit_settlements_unpaid_retained
+    ON deposit_settlements(id) WHERE source = 'dispute' AND retained_amount > 0 AND payout_cycle_id IS NULL;
@@ -0,0 +1,26 @@
+-- Inbox for Razorpay webhooks: events are stored on receipt and applied asynchronously.
+CREATE TABLE payment_webhook_events (
+    id BIGSERIAL PRIMARY KEY,
+    event_id VARCHAR(128) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    order_id VARCHAR(255),
+    payload TEXT NOT NULL,
+
+    status VARCHAR(20) NOT NULL DEFAULT 'pending',  -- pending, processing, processed, failed
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_until TIMESTAMP,
+    last_error TEXT,
+
+    received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP,
+
+    CONSTRAINT uq_payment_webhook_events_event_id UNIQUE (event_id)
+);
+
+CREATE INDEX idx_payment_webhook_events_due
+    ON payment_webhook_events(next_attempt_at, id) WHERE status = 'pending';
+CREATE INDEX idx_payment_webhook_events_open_orders
+    ON payment_webhook_events(order_id, id) WHERE status IN ('pending', 'processing');
+CREATE INDEX idx_payment_webhook_events_processed_at
+    ON payment_webhook_events(processed_at) WHERE status = 'processed';
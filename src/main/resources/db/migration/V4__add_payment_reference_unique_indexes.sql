@@ -0,0 +1,17 @@
+-- Gateway references are looked up on every order, confirmation and webhook.
+-- The old find-then-save upsert could race and insert the same order twice; keep one row per
+-- order (completed first, then the most recent) before enforcing uniqueness.
+DELETE FROM transactions t
+USING (
+    SELECT id,
+           ROW_NUMBER() OVER (
+               PARTITION BY stripe_transaction_id
+               ORDER BY (status = 'completed') DESC, created_at DESC, id
+           ) AS rn
+    FROM transactions
+    WHERE stripe_transaction_id IS NOT NULL
+) ranked
+WHERE t.id = ranked.id AND ranked.rn > 1;
+
+CREATE UNIQUE INDEX uq_transactions_stripe_transaction_id ON transactions(stripe_transaction_id);
+CREATE UNIQUE INDEX uq_bookings_payment_intent_id ON bookings(payment_intent_id);
@@ -0,0 +1,3 @@
+-- Keyset scan of stale pending transactions for payment reconciliation.
+CREATE INDEX idx_transactions_pending_created_at
+    ON transactions(created_at, id) WHERE status = 'pending';
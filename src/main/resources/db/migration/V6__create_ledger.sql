@@ -0,0 +1,33 @@
+-- Append-only double-entry ledger. Entries are never updated or deleted; every journal's
+-- entries sum to zero. Signed amounts: positive credits the account, negative debits it.
+CREATE TABLE ledger_journals (
+    id BIGSERIAL PRIMARY KEY,
+    journal_key VARCHAR(200) NOT NULL,
+    journal_type VARCHAR(50) NOT NULL,  -- booking_payment, deposit_release
+    booking_id UUID REFERENCES bookings(id) ON DELETE SET NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uq_ledger_journals_journal_key UNIQUE (journal_key)
+);
+
+CREATE TABLE ledger_entries (
+    id BIGSERIAL PRIMARY KEY,
+    journal_id BIGINT NOT NULL REFERENCES ledger_journals(id),
+    account VARCHAR(100) NOT NULL,
+    amount DECIMAL(12, 2) NOT NULL,
+    currency VARCHAR(3) NOT NULL DEFAULT 'INR',
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_ledger_entries_account_id ON ledger_entries(account, id);
+CREATE INDEX idx_ledger_entries_created_at ON ledger_entries(created_at);
+
+-- Balance of each account up to and including last_entry_id; reads add the newer entries.
+CREATE TABLE ledger_balance_snapshots (
+    account VARCHAR(100) PRIMARY KEY,
+    balance DECIMAL(14, 2) NOT NULL,
+    last_entry_id BIGINT NOT NULL,
+    taken_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_ledger_balance_snapshots_last_entry_id ON ledger_balance_snapshots(last_entry_id);
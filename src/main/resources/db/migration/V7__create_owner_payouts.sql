@@ -0,0 +1,47 @@
+-- RazorpayX fund account that an owner's payouts are sent to.
+ALTER TABLE users ADD COLUMN payout_fund_account_id VARCHAR(100);
+
+-- Each cycle covers the completed bookings in the half-open keyset range
+-- (from_completed_at, from_booking_id) .. (to_completed_at, to_booking_id]; the next cycle starts
+-- where the last one ended, and the unique start makes a second node's overlapping cycle fail.
+CREATE TABLE payout_cycles (
+    id BIGSERIAL PRIMARY KEY,
+    status VARCHAR(20) NOT NULL DEFAULT 'submitting',  -- submitting, completed
+    from_completed_at TIMESTAMP NOT NULL,
+    from_booking_id UUID NOT NULL,
+    to_completed_at TIMESTAMP NOT NULL,
+    to_booking_id UUID NOT NULL,
+    booking_count BIGINT NOT NULL,
+    owner_count INT NOT NULL,
+    total_amount DECIMAL(14, 2) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP,
+
+    CONSTRAINT uq_payout_cycles_start UNIQUE (from_completed_at, from_booking_id)
+);
+
+CREATE TABLE owner_payouts (
+    id BIGSERIAL PRIMARY KEY,
+    cycle_id BIGINT NOT NULL REFERENCES payout_cycles(id),
+    owner_id UUID NOT NULL REFERENCES users(id),
+    amount DECIMAL(12, 2) NOT NULL,
+    currency VARCHAR(3) NOT NULL DEFAULT 'INR',
+    booking_count INT NOT NULL,
+
+    status VARCHAR(20) NOT NULL DEFAULT 'pending',  -- pending, on_hold, submitted, failed
+    gateway_payout_id VARCHAR(255),
+    attempts INT NOT NULL DEFAULT 0,
+    last_error TEXT,
+
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    submitted_at TIMESTAMP,
+
+    CONSTRAINT uq_owner_payouts_cycle_owner UNIQUE (cycle_id, owner_id)
+);
+
+CREATE INDEX idx_owner_payouts_due ON owner_payouts(id) WHERE status IN ('pending', 'on_hold');
+CREATE INDEX idx_owner_payouts_owner_id ON owner_payouts(owner_id);
+
+-- Keyset scan of completed bookings for payout aggregation.
+CREATE INDEX idx_bookings_completed_keyset
+    ON bookings(status_updated_at, id) WHERE status = 'COMPLETED';
@@ -0,0 +1,28 @@
+-- One settlement per booking deposit, created when the booking completes (or its dispute is
+-- resolved) and drained by the refund worker.
+CREATE TABLE deposit_settlements (
+    id BIGSERIAL PRIMARY KEY,
+    booking_id UUID NOT NULL REFERENCES bookings(id),
+    order_id VARCHAR(255) NOT NULL,
+    deposit_amount DECIMAL(10, 2) NOT NULL,
+    refund_amount DECIMAL(10, 2) NOT NULL,
+    retained_amount DECIMAL(10, 2) NOT NULL,
+    source VARCHAR(20) NOT NULL,  -- completion, dispute
+
+    status VARCHAR(20) NOT NULL DEFAULT 'pending',  -- pending, processing, refunded, settled, failed
+    gateway_refund_id VARCHAR(255),
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_until TIMESTAMP,
+    last_error TEXT,
+
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    settled_at TIMESTAMP,
+
+    CONSTRAINT uq_deposit_settlements_booking_id UNIQUE (booking_id)
+);
+
+CREATE INDEX idx_deposit_settlements_due
+    ON deposit_settlements(next_attempt_at, id) WHERE status = 'pending';
+CREATE INDEX idx_deposit_settlements_open
+    ON deposit_settlements(created_at) WHERE status IN ('pending', 'processing');
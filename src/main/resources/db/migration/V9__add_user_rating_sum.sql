@@ -0,0 +1,15 @@
+-- Running sum of received ratings, so a new review updates a user's aggregates with a single
+-- increment instead of re-reading all of their reviews. average_rating is derived from
+-- rating_sum / total_ratings in the same statement.
+ALTER TABLE users ADD COLUMN rating_sum DECIMAL(12, 2) NOT NULL DEFAULT 0;
+
+UPDATE users u
+SET rating_sum = r.rating_sum,
+    total_ratings = r.total_ratings,
+    average_rating = ROUND(r.rating_sum / r.total_ratings, 2)
+FROM (
+    SELECT reviewed_user_id, SUM(rating) AS rating_sum, COUNT(*) AS total_ratings
+    FROM reviews
+    GROUP BY reviewed_user_id
+) r
+WHERE u.id = r.reviewed_user_id;
@@ -0,0 +1,84 @@
+package com.neighborshare.config;
+
+import com.neighborshare.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtProvider jwtProvider;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID apartmentId = UUID.randomUUID();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void accessToken_authenticatesRequest() throws Exception {
+        when(jwtProvider.parseClaims("access")).thenReturn(claims(null));
+        when(tokenRevocationService.isRevoked(any(), any(), any())).thenReturn(false);
+        MockHttpServletRequest request = bearer("access");
+
+        filter().doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(userId, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        assertEquals(apartmentId, request.getAttribute("apartmentId"));
+    }
+
+    @Test
+    void refreshToken_isNotAcceptedAsAccessToken() throws Exception {
+        when(jwtProvider.parseClaims("refresh")).thenReturn(claims("refresh"));
+        MockHttpServletRequest request = bearer("refresh");
+
+        filter().doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNull(request.getAttribute("userId"));
+    }
+
+    private JwtAuthenticationFilter filter() {
+        return new JwtAuthenticationFilter(jwtProvider, tokenRevocationService);
+    }
+
+    private MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/items");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private Claims claims(String type) {
+        return Jwts.claims()
+            .subject(userId.toString())
+            .id(UUID.randomUUID().toString())
+            .issuedAt(new Date())
+            .expiration(new Date(System.currentTimeMillis() + 60_000))
+            .add("apartmentId", apartmentId.toString())
+            .add("type", type)
+            .build();
+    }
+}
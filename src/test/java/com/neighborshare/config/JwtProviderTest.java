@@ -0,0 +1,175 @@
+package com.neighborshare.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neighborshare.security.JwtKeyRing;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class JwtProviderTest {
+
+    private static final String SECRET = "test-secret-key-with-at-least-256-bits-of-entropy!!";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void accessToken_isSignedWithKidAndParsesBack() {
+        JwtProvider provider = provider(keyRing("ES256"), true);
+        UUID userId = UUID.randomUUID();
+        UUID apartmentId = UUID.randomUUID();
+
+        String token = provider.generateAccessToken(userId, apartmentId, "ROLE_USER");
+        Claims claims = provider.parseClaims(token);
+
+        assertEquals(userId.toString(), claims.getSubject());
+        assertEquals(apartmentId.toString(), claims.get("apartmentId", String.class));
+        assertNotNull(claims.getId());
+        assertTrue(header(token).contains("\"kid\""));
+    }
+
+    @Test
+    void tokenFromAnotherNode_isVerifiedWithPublishedKey() {
+        JwtKeyRing otherNode = keyRing("EdDSA");
+        String kid = otherNode.currentSigningKey().kid();
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(eq("jwt:jwk:" + kid), published.capture(), any(Duration.class));
+        String token = provider(otherNode, false).generateAccessToken(UUID.randomUUID(), UUID.randomUUID(), "ROLE_USER");
+
+        JwtProvider thisNode = provider(keyRing("ES256"), false);
+        when(valueOperations.get("jwt:jwk:" + kid)).thenReturn(published.getValue());
+
+        assertNotNull(thisNode.parseClaims(token).getSubject());
+    }
+
+    @Test
+    void rotation_waitsUntilNextKeyHasBeenPublishedForTheLead() {
+        JwtKeyRing keyRing = keyRing("ES256");
+        ReflectionTestUtils.setField(keyRing, "publishLead", Duration.ofMinutes(10));
+        String kid = keyRing.currentSigningKey().kid();
+        when(redisTemplate.scan(any())).thenThrow(new RedisConnectionFailureException("down"));
+
+        ReflectionTestUtils.invokeMethod(keyRing, "rotate");
+
+        assertEquals(kid, keyRing.currentSigningKey().kid());
+        assertEquals(2, ((List<?>) keyRing.jwks().get("keys")).size());
+    }
+
+    @Test
+    void rotation_keepsPreviouslyIssuedTokensValid() {
+        JwtKeyRing keyRing = keyRing("ES256");
+        JwtProvider provider = provider(keyRing, false);
+        String before = provider.generateAccessToken(UUID.randomUUID(), UUID.randomUUID(), "ROLE_USER");
+        String oldKid = keyRing.currentSigningKey().kid();
+
+        ReflectionTestUtils.invokeMethod(keyRing, "rotate");
+        when(redisTemplate.scan(any())).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertNotNull(provider.parseClaims(before));
+        assertEquals(3, ((List<?>) keyRing.jwks().get("keys")).size());
+        assertNotEquals(oldKid, keyRing.currentSigningKey().kid());
+    }
+
+    @Test
+    void legacyHmacToken_isAcceptedOnlyWhileEnabled() {
+        String legacy = Jwts.builder()
+            .claims(Map.of("apartmentId", UUID.randomUUID().toString()))
+            .subject(UUID.randomUUID().toString())
+            .expiration(new Date(System.currentTimeMillis() + 60_000))
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+            .compact();
+
+        assertNotNull(provider(keyRing("ES256"), true).parseClaims(legacy));
+        assertThrows(JwtException.class, () -> provider(keyRing("ES256"), false).parseClaims(legacy));
+    }
+
+    @Test
+    void legacyHmac_refusesToStartWithoutRealSecret() {
+        for (String secret : List.of("", "your-secret-key-change-this-in-production-minimum-256-bits")) {
+            JwtProvider provider = new JwtProvider(keyRing("ES256"));
+            ReflectionTestUtils.setField(provider, "jwtSecret", secret);
+            ReflectionTestUtils.setField(provider, "legacyHmacEnabled", true);
+
+            assertThrows(IllegalStateException.class, provider::init);
+        }
+    }
+
+    @Test
+    void unknownKid_isRejected() {
+        JwtKeyRing otherNode = keyRing("ES256");
+        String token = provider(otherNode, false).generateAccessToken(UUID.randomUUID(), UUID.randomUUID(), "ROLE_USER");
+        when(valueOperations.get(anyString())).thenReturn(null);
+
+        assertThrows(JwtException.class, () -> provider(keyRing("ES256"), false).parseClaims(token));
+    }
+
+    private JwtKeyRing keyRing(String algorithm) {
+        JwtKeyRing keyRing = new JwtKeyRing(redisTemplate, objectMapper);
+        ReflectionTestUtils.setField(keyRing, "algorithm", algorithm);
+        ReflectionTestUtils.setField(keyRing, "rotationInterval", Duration.ofHours(24));
+        ReflectionTestUtils.setField(keyRing, "keyPrefix", "jwt:jwk");
+        ReflectionTestUtils.setField(keyRing, "jwksCacheTtl", Duration.ZERO);
+        ReflectionTestUtils.setField(keyRing, "publishLead", Duration.ZERO);
+        ReflectionTestUtils.setField(keyRing, "maxTokenLifetimeSeconds", 604800L);
+        keyRing.init();
+        return keyRing;
+    }
+
+    private JwtProvider provider(JwtKeyRing keyRing, boolean legacyHmacEnabled) {
+        JwtProvider provider = new JwtProvider(keyRing);
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "legacyHmacEnabled", legacyHmacEnabled);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 900L);
+        ReflectionTestUtils.setField(provider, "refreshTokenExpirationMs", 604800L);
+        provider.init();
+        return provider;
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,136 @@
+package com.neighborshare.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neighborshare.config.JwtProvider;
+import com.neighborshare.domain.entity.User;
+import com.neighborshare.domain.repository.UserRepository;
+import com.neighborshare.dto.request.BanUserRequest;
+import com.neighborshare.exception.GlobalExceptionHandler;
+import com.neighborshare.security.AdminAccess;
+import com.neighborshare.security.IdempotencyService;
+import com.neighborshare.security.RateLimitService;
+import com.neighborshare.security.TokenRevocationService;
+import com.neighborshare.service.UserContextCache;
+import com.neighborshare.service.UserModerationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Runs the real moderation and revocation services so a ban is checked through to token rejection.
+@WebMvcTest(controllers = AdminUserController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import({GlobalExceptionHandler.class, UserModerationService.class, AdminAccess.class, TokenRevocationService.class})
+@TestPropertySource(properties = "app.admin.user-ids=" + AdminUserControllerTest.ADMIN_ID)
+class AdminUserControllerTest {
+
+    static final String ADMIN_ID = "5f0c6a8e-3b7d-4c1e-9a2f-0d4b8e6c1a7f";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private UserContextCache userContextCache;
+
+    @MockBean
+    private StringRedisTemplate redisTemplate;
+
+    @MockBean
+    private RedisMessageListenerContainer listenerContainer;
+
+    @MockBean
+    private JwtProvider jwtProvider;
+
+    @MockBean
+    private RateLimitService rateLimitService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    private final UUID userId = UUID.randomUUID();
+    private final User user = User.builder().id(userId).email("member@example.com").build();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(mock(ValueOperations.class));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void banUser_revokesTokensIssuedBeforeTheBan() throws Exception {
+        Date issuedAt = new Date(System.currentTimeMillis() - 60_000);
+        LocalDateTime bannedUntil = LocalDateTime.now().plusDays(7);
+        assertFalse(tokenRevocationService.isRevoked("token-1", userId, issuedAt));
+
+        mockMvc.perform(post("/v1/admin/users/{userId}/ban", userId)
+                .principal(new UsernamePasswordAuthenticationToken(ADMIN_ID, "n/a"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BanUserRequest(bannedUntil))))
+            .andExpect(status().isOk());
+
+        assertEquals(bannedUntil, user.getBannedUntil());
+        assertTrue(tokenRevocationService.isRevoked("token-1", userId, issuedAt));
+        verify(userContextCache).evict(userId);
+    }
+
+    @Test
+    void deactivateUser_revokesTokensIssuedBeforeDeactivation() throws Exception {
+        Date issuedAt = new Date(System.currentTimeMillis() - 60_000);
+
+        mockMvc.perform(post("/v1/admin/users/{userId}/deactivate", userId)
+                .principal(new UsernamePasswordAuthenticationToken(ADMIN_ID, "n/a")))
+            .andExpect(status().isOk());
+
+        assertFalse(user.getIsActive());
+        assertTrue(tokenRevocationService.isRevoked("token-1", userId, issuedAt));
+    }
+
+    @Test
+    void banUser_returns403_forNonAdmin() throws Exception {
+        Date issuedAt = new Date(System.currentTimeMillis() - 60_000);
+
+        mockMvc.perform(post("/v1/admin/users/{userId}/ban", userId)
+                .principal(new UsernamePasswordAuthenticationToken(UUID.randomUUID().toString(), "n/a"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BanUserRequest(LocalDateTime.now().plusDays(7)))))
+            .andExpect(status().isForbidden());
+
+        assertFalse(tokenRevocationService.isRevoked("token-1", userId, issuedAt));
+        verify(userRepository, never()).save(user);
+    }
+}
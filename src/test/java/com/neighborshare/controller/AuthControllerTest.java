@@ -3,10 +3,15 @@ package com.neighborshare.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.neighborshare.config.JwtProvider;
 import com.neighborshare.dto.request.LoginRequest;
+import com.neighborshare.dto.request.LogoutRequest;
 import com.neighborshare.dto.request.RegisterRequest;
+import com.neighborshare.dto.response.ApiMessageResponse;
 import com.neighborshare.dto.response.AuthResponse;
 import com.neighborshare.exception.GlobalExceptionHandler;
 import com.neighborshare.exception.UnauthorizedException;
+import com.neighborshare.security.IdempotencyService;
+import com.neighborshare.security.RateLimitService;
+import com.neighborshare.security.TokenRevocationService;
 import com.neighborshare.service.AuthService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,9 +22,11 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Date;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -42,6 +49,15 @@ class AuthControllerTest {
     @MockBean
     private JwtProvider jwtProvider;
 
+    @MockBean
+    private RateLimitService rateLimitService;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @Test
     void register_returns200_whenServiceSucceeds() throws Exception {
         RegisterRequest request = new RegisterRequest(
@@ -95,4 +111,28 @@ class AuthControllerTest {
             .andExpect(status().isUnauthorized())
             .andExpect(jsonPath("$.errorCode").value("UNAUTHORIZED"));
     }
+
+    @Test
+    void logout_returns401_whenRequestHasNoToken() throws Exception {
+        mockMvc.perform(post("/v1/auth/logout"))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.errorCode").value("UNAUTHORIZED"));
+    }
+
+    @Test
+    void logout_passesRefreshTokenFromBodyToService() throws Exception {
+        UUID userId = UUID.randomUUID();
+        Date expiresAt = new Date(System.currentTimeMillis() + 60_000);
+        when(authService.logout(eq(userId), eq("token-1"), eq(expiresAt), eq("refresh-token")))
+            .thenReturn(ApiMessageResponse.builder().message("Logged out successfully").build());
+
+        mockMvc.perform(post("/v1/auth/logout")
+                .requestAttr("userId", userId)
+                .requestAttr("tokenId", "token-1")
+                .requestAttr("tokenExpiresAt", expiresAt)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LogoutRequest("refresh-token"))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.message").value("Logged out successfully"));
+    }
 }
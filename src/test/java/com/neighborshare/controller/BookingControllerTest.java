@@ -5,6 +5,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.neighborshare.dto.request.CreateBookingRequest;
 import com.neighborshare.exception.BookingConflictException;
 import com.neighborshare.exception.GlobalExceptionHandler;
+import com.neighborshare.security.IdempotencyService;
+import com.neighborshare.security.RateLimitService;
+import com.neighborshare.security.TokenRevocationService;
 import com.neighborshare.service.BookingService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -43,6 +46,15 @@ class BookingControllerTest {
     @MockBean
     private JwtProvider jwtProvider;
 
+    @MockBean
+    private RateLimitService rateLimitService;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @Test
     void createBooking_returns400_whenRequestValidationFails() throws Exception {
         UUID userId = UUID.randomUUID();
@@ -5,9 +5,15 @@ import com.neighborshare.config.JwtProvider;
 import com.neighborshare.dto.request.CreateItemRequest;
 import com.neighborshare.dto.request.UpdateItemRequest;
 import com.neighborshare.dto.response.ItemResponse;
+import com.neighborshare.dto.response.ReviewFeedResponse;
+import com.neighborshare.dto.response.ReviewResponse;
 import com.neighborshare.exception.GlobalExceptionHandler;
 import com.neighborshare.exception.UnauthorizedException;
+import com.neighborshare.security.IdempotencyService;
+import com.neighborshare.security.RateLimitService;
+import com.neighborshare.security.TokenRevocationService;
 import com.neighborshare.service.ItemService;
+import com.neighborshare.service.ReviewService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -24,6 +30,7 @@ import java.util.UUID;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -43,9 +50,21 @@ class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ReviewService reviewService;
+
     @MockBean
     private JwtProvider jwtProvider;
 
+    @MockBean
+    private RateLimitService rateLimitService;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @Test
     void createItem_returns200_whenServiceSucceeds() throws Exception {
         UUID userId = UUID.randomUUID();
@@ -144,4 +163,24 @@ class ItemControllerTest {
             .andExpect(status().isUnauthorized())
             .andExpect(jsonPath("$.errorCode").value("UNAUTHORIZED"));
     }
+
+    @Test
+    void listItemReviews_passesCursorAndReturnsNextCursor() throws Exception {
+        UUID apartmentId = UUID.randomUUID();
+        UUID itemId = UUID.randomUUID();
+        UUID reviewId = UUID.randomUUID();
+
+        when(reviewService.listItemReviews(apartmentId, itemId, "abc", 5)).thenReturn(ReviewFeedResponse.builder()
+            .reviews(java.util.List.of(ReviewResponse.builder().id(reviewId).rating(BigDecimal.valueOf(4)).build()))
+            .nextCursor("def")
+            .build());
+
+        mockMvc.perform(get("/v1/items/{itemId}/reviews", itemId)
+                .param("cursor", "abc")
+                .param("size", "5")
+                .requestAttr("apartmentId", apartmentId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.reviews[0].id").value(reviewId.toString()))
+            .andExpect(jsonPath("$.nextCursor").value("def"));
+    }
 }
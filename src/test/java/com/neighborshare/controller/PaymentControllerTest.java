@@ -3,10 +3,14 @@ package com.neighborshare.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.neighborshare.config.JwtProvider;
 import com.neighborshare.dto.request.ConfirmPaymentRequest;
+import com.neighborshare.dto.response.AccountBalancesResponse;
 import com.neighborshare.dto.response.ApiMessageResponse;
 import com.neighborshare.dto.response.PaymentIntentResponse;
 import com.neighborshare.exception.GlobalExceptionHandler;
 import com.neighborshare.exception.ValidationException;
+import com.neighborshare.security.IdempotencyService;
+import com.neighborshare.security.RateLimitService;
+import com.neighborshare.security.TokenRevocationService;
 import com.neighborshare.service.PaymentService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,11 +22,13 @@ import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -44,6 +50,15 @@ class PaymentControllerTest {
     @MockBean
     private JwtProvider jwtProvider;
 
+    @MockBean
+    private RateLimitService rateLimitService;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @Test
     void createOrder_returns401_whenApartmentContextMissing() throws Exception {
         UUID bookingId = UUID.randomUUID();
@@ -85,18 +100,19 @@ class PaymentControllerTest {
     }
 
     @Test
-    void webhook_returns200_whenProcessed() throws Exception {
+    void webhook_returns200_whenAccepted() throws Exception {
         String payload = "{\"event\":\"payment.captured\"}";
         String signature = "sig";
-        when(paymentService.handleRazorpayWebhook(payload, signature))
-            .thenReturn(ApiMessageResponse.builder().message("Webhook processed: payment.captured").build());
+        when(paymentService.handleRazorpayWebhook(payload, signature, "evt_1"))
+            .thenReturn(ApiMessageResponse.builder().message("Webhook accepted: payment.captured").build());
 
         mockMvc.perform(post("/v1/payments/webhook")
                 .contentType(MediaType.APPLICATION_JSON)
                 .header("X-Razorpay-Signature", signature)
+                .header("X-Razorpay-Event-Id", "evt_1")
                 .content(payload))
             .andExpect(status().isOk())
-            .andExpect(jsonPath("$.message").value("Webhook processed: payment.captured"));
+            .andExpect(jsonPath("$.message").value("Webhook accepted: payment.captured"));
     }
 
     @Test
@@ -123,4 +139,21 @@ class PaymentControllerTest {
             .andExpect(jsonPath("$.orderId").value("order_abc"))
             .andExpect(jsonPath("$.status").value("created"));
     }
+
+    @Test
+    void balances_returnsLedgerBalancesForCaller() throws Exception {
+        UUID userId = UUID.randomUUID();
+        when(paymentService.getMyBalances(userId)).thenReturn(AccountBalancesResponse.builder()
+            .totalPaid(new BigDecimal("220.00"))
+            .earnings(BigDecimal.ZERO)
+            .depositHeld(new BigDecimal("100.00"))
+            .currency("INR")
+            .build());
+
+        mockMvc.perform(get("/v1/payments/me/balances")
+                .principal(new UsernamePasswordAuthenticationToken(userId.toString(), "n/a")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalPaid").value(220.00))
+            .andExpect(jsonPath("$.depositHeld").value(100.00));
+    }
 }
@@ -0,0 +1,169 @@
+package com.neighborshare.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neighborshare.exception.PaymentGatewayException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentGatewayClientTest {
+
+    private static final String ORDER_JSON =
+        "{\"id\":\"order_1\",\"amount\":22000,\"amount_paid\":0,\"currency\":\"INR\",\"status\":\"created\"}";
+
+    private HttpServer server;
+    private RazorpayProperties properties;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.start();
+
+        properties = new RazorpayProperties();
+        properties.setKeyId("rzp_test");
+        properties.setKeySecret("secret");
+        properties.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        properties.getClient().setRequestTimeout(Duration.ofMillis(300));
+        properties.getClient().setRetryBaseDelay(Duration.ofMillis(1));
+        properties.getClient().setRetryMaxDelay(Duration.ofMillis(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void createOrder_parsesGatewayResponse() {
+        respond("/v1/orders", 200, ORDER_JSON);
+
+        GatewayOrder order = client().createOrder(22000L, "INR", "booking_1");
+
+        assertEquals("order_1", order.id());
+        assertEquals(22000L, order.amount());
+        assertFalse(order.isPaid());
+    }
+
+    @Test
+    void createPayout_retriesWithTheSameIdempotencyKey() {
+        server.createContext("/v1/payouts", exchange -> {
+            assertEquals("payout_42", exchange.getRequestHeaders().getFirst("X-Payout-Idempotency"));
+            if (calls.incrementAndGet() < 2) {
+                write(exchange, 503, "{}");
+            } else {
+                write(exchange, 200, "{\"id\":\"pout_1\",\"amount\":15000,\"currency\":\"INR\","
+                    + "\"status\":\"processing\",\"reference_id\":\"payout_42\"}");
+            }
+        });
+        properties.setPayoutAccountNumber("2323230000000000");
+
+        GatewayPayout payout = client().createPayout("payout_42", "fa_1", 15000L, "INR");
+
+        assertEquals("pout_1", payout.id());
+        assertEquals("payout_42", payout.referenceId());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void fetchOrder_retriesTransientFailures() {
+        server.createContext("/v1/orders/order_1", exchange -> {
+            if (calls.incrementAndGet() < 3) {
+                write(exchange, 503, "{}");
+            } else {
+                write(exchange, 200, ORDER_JSON);
+            }
+        });
+
+        assertEquals("order_1", client().fetchOrder("order_1").id());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void createOrder_isNotRetriedOnceSent() {
+        respond("/v1/orders", 500, "{}");
+
+        PaymentGatewayException ex = assertThrows(
+            PaymentGatewayException.class,
+            () -> client().createOrder(22000L, "INR", "booking_1")
+        );
+
+        assertTrue(ex.isRetryable());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void requestTimeout_isEnforced() {
+        server.createContext("/v1/orders/slow", exchange -> {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            write(exchange, 200, ORDER_JSON);
+        });
+        properties.getClient().setMaxAttempts(1);
+
+        long started = System.nanoTime();
+        assertThrows(PaymentGatewayException.class, () -> client().fetchOrder("slow"));
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() < 1000);
+    }
+
+    @Test
+    void circuitOpens_andFailsFastWithoutCallingGateway() {
+        respond("/v1/orders/order_1", 503, "{}");
+        properties.getClient().setMaxAttempts(1);
+        properties.getClient().setFailureThreshold(2);
+        PaymentGatewayClient client = client();
+
+        assertThrows(PaymentGatewayException.class, () -> client.fetchOrder("order_1"));
+        assertThrows(PaymentGatewayException.class, () -> client.fetchOrder("order_1"));
+        assertThrows(PaymentGatewayException.class, () -> client.fetchOrder("order_1"));
+
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void clientErrors_areNotRetried() {
+        respond("/v1/orders/order_1", 400, "{\"error\":{}}");
+
+        PaymentGatewayException ex = assertThrows(PaymentGatewayException.class, () -> client().fetchOrder("order_1"));
+
+        assertFalse(ex.isRetryable());
+        assertEquals(400, ex.getStatus());
+        assertEquals(1, calls.get());
+    }
+
+    private PaymentGatewayClient client() {
+        return new PaymentGatewayClient(properties, new ObjectMapper());
+    }
+
+    private void respond(String path, int status, String body) {
+        server.createContext(path, exchange -> {
+            calls.incrementAndGet();
+            write(exchange, status, body);
+        });
+    }
+
+    private static void write(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,258 @@
+package com.neighborshare.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.neighborshare.security.HmacSignatureVerifier;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Razorpay-compatible gateway for load and soak tests, so the real HTTP client, signature checks
+ * and webhook inbox are exercised without network access. Implements {@code POST /v1/orders} and
+ * {@code GET /v1/orders/{id}}, plus {@code POST /stub/orders/{id}/pay?outcome=captured|failed},
+ * which plays the checkout: it returns the signed payment fields and fires the webhook back at
+ * the application.
+ *
+ * <p>Run standalone and point {@code RAZORPAY_BASE_URL} at it:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.neighborshare.integration.RazorpayStubGateway \
+ *     -Dstub.port=9090 -Dstub.latency-ms=20-150 -Dstub.error-rate=0.02 -Dstub.duplicate-rate=0.1
+ * </pre>
+ */
+public class RazorpayStubGateway implements AutoCloseable {
+
+    public record Settings(
+        int port,
+        String keyId,
+        String keySecret,
+        String webhookSecret,
+        String webhookUrl,
+        long minLatencyMillis,
+        long maxLatencyMillis,
+        double errorRate,
+        double duplicateRate,
+        Duration webhookDelay
+    ) {
+
+        public static Settings defaults(String webhookUrl) {
+            return new Settings(0, "rzp_test_stub", "stub_key_secret", "stub_webhook_secret", webhookUrl,
+                0, 0, 0, 0, Duration.ZERO);
+        }
+    }
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HmacSignatureVerifier paymentSigner;
+    private final HmacSignatureVerifier webhookSigner;
+    private final Map<String, ObjectNode> orders = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService webhookScheduler = Executors.newScheduledThreadPool(4);
+    private final HttpClient webhookClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private final AtomicLong webhooksDelivered = new AtomicLong();
+    private final HttpServer server;
+
+    public RazorpayStubGateway(Settings settings) throws IOException {
+        this.settings = settings;
+        this.paymentSigner = new HmacSignatureVerifier(List.of(settings.keySecret()));
+        this.webhookSigner = new HmacSignatureVerifier(List.of(settings.webhookSecret()));
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", settings.port()), 256);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/v1/orders", this::handleOrders);
+        this.server.createContext("/stub/orders", this::handlePay);
+        this.server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long webhooksDelivered() {
+        return webhooksDelivered.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        webhookScheduler.shutdownNow();
+    }
+
+    private void handleOrders(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            simulateLatency();
+            if (!authorized(exchange)) {
+                respond(exchange, 401, error("BAD_REQUEST_ERROR", "Authentication failed"));
+                return;
+            }
+            if (ThreadLocalRandom.current().nextDouble() < settings.errorRate()) {
+                respond(exchange, 503, error("SERVER_ERROR", "Injected failure"));
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            if ("POST".equals(exchange.getRequestMethod()) && "/v1/orders".equals(path)) {
+                JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+                ObjectNode order = objectMapper.createObjectNode()
+                    .put("id", "order_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14))
+                    .put("entity", "order")
+                    .put("amount", request.path("amount").asLong())
+                    .put("amount_paid", 0)
+                    .put("currency", request.path("currency").asText("INR"))
+                    .put("receipt", request.path("receipt").asText(null))
+                    .put("status", "created");
+                orders.put(order.get("id").asText(), order);
+                respond(exchange, 200, order);
+            } else if ("GET".equals(exchange.getRequestMethod()) && path.startsWith("/v1/orders/")) {
+                ObjectNode order = orders.get(path.substring("/v1/orders/".length()));
+                if (order == null) {
+                    respond(exchange, 400, error("BAD_REQUEST_ERROR", "The id provided does not exist"));
+                } else {
+                    respond(exchange, 200, order);
+                }
+            } else {
+                respond(exchange, 404, error("BAD_REQUEST_ERROR", "The requested URL was not found"));
+            }
+        }
+    }
+
+    private void handlePay(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            // /stub/orders/{id}/pay
+            ObjectNode order = parts.length == 5 && "pay".equals(parts[4]) ? orders.get(parts[3]) : null;
+            if (order == null || !"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 404, error("BAD_REQUEST_ERROR", "Unknown order"));
+                return;
+            }
+            boolean captured = !"outcome=failed".equals(exchange.getRequestURI().getQuery());
+            String orderId = order.get("id").asText();
+            String paymentId = "pay_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14);
+            if (captured) {
+                order.put("status", "paid").put("amount_paid", order.get("amount").asLong());
+            } else {
+                order.put("status", "attempted");
+            }
+
+            ObjectNode checkout = objectMapper.createObjectNode()
+                .put("razorpay_order_id", orderId)
+                .put("razorpay_payment_id", paymentId)
+                .put("razorpay_signature", paymentSigner.sign(orderId + "|" + paymentId));
+            scheduleWebhook(captured ? "payment.captured" : "payment.failed", order, paymentId);
+            respond(exchange, 200, checkout);
+        }
+    }
+
+    private void scheduleWebhook(String event, ObjectNode order, String paymentId) throws IOException {
+        ObjectNode entity = objectMapper.createObjectNode()
+            .put("id", paymentId)
+            .put("entity", "payment")
+            .put("order_id", order.get("id").asText())
+            .put("amount", order.get("amount").asLong())
+            .put("currency", order.get("currency").asText())
+            .put("status", "payment.captured".equals(event) ? "captured" : "failed");
+        ObjectNode body = objectMapper.createObjectNode().put("entity", "event").put("event", event);
+        body.putObject("payload").putObject("payment").set("entity", entity);
+        String payload = objectMapper.writeValueAsString(body);
+        String eventId = "evt_" + UUID.randomUUID().toString().replace("-", "");
+
+        int deliveries = ThreadLocalRandom.current().nextDouble() < settings.duplicateRate() ? 2 : 1;
+        for (int i = 0; i < deliveries; i++) {
+            webhookScheduler.schedule(
+                () -> deliverWebhook(payload, eventId),
+                settings.webhookDelay().toMillis() * (i + 1),
+                TimeUnit.MILLISECONDS
+            );
+        }
+    }
+
+    private void deliverWebhook(String payload, String eventId) {
+        if (settings.webhookUrl() == null) {
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(settings.webhookUrl()))
+            .timeout(Duration.ofSeconds(5))
+            .header("Content-Type", "application/json")
+            .header("X-Razorpay-Signature", webhookSigner.sign(payload))
+            .header("X-Razorpay-Event-Id", eventId)
+            .POST(HttpRequest.BodyPublishers.ofString(payload))
+            .build();
+        try {
+            webhookClient.send(request, HttpResponse.BodyHandlers.discarding());
+            webhooksDelivered.incrementAndGet();
+        } catch (IOException ex) {
+            System.err.println("Webhook delivery failed: " + ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean authorized(HttpExchange exchange) {
+        String expected = "Basic " + Base64.getEncoder().encodeToString(
+            (settings.keyId() + ":" + settings.keySecret()).getBytes(StandardCharsets.UTF_8));
+        return expected.equals(exchange.getRequestHeaders().getFirst("Authorization"));
+    }
+
+    private void simulateLatency() {
+        long min = settings.minLatencyMillis();
+        long max = Math.max(min, settings.maxLatencyMillis());
+        if (max <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(min, max + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ObjectNode error(String code, String description) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.putObject("error").put("code", code).put("description", description);
+        return body;
+    }
+
+    private void respond(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] latency = System.getProperty("stub.latency-ms", "0").split("-");
+        Settings settings = new Settings(
+            Integer.getInteger("stub.port", 9090),
+            System.getProperty("stub.key-id", "rzp_test_stub"),
+            System.getProperty("stub.key-secret", "stub_key_secret"),
+            System.getProperty("stub.webhook-secret", "stub_webhook_secret"),
+            System.getProperty("stub.webhook-url", "http://localhost:8080/api/v1/payments/webhook"),
+            Long.parseLong(latency[0]),
+            Long.parseLong(latency[latency.length - 1]),
+            Double.parseDouble(System.getProperty("stub.error-rate", "0")),
+            Double.parseDouble(System.getProperty("stub.duplicate-rate", "0")),
+            Duration.ofMillis(Long.getLong("stub.webhook-delay-ms", 200))
+        );
+        RazorpayStubGateway gateway = new RazorpayStubGateway(settings);
+        Runtime.getRuntime().addShutdownHook(new Thread(gateway::close));
+        System.out.println("Razorpay stub gateway listening on " + gateway.baseUrl());
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,99 @@
+package com.neighborshare.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RazorpayStubGatewayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String[]> webhooks = new CopyOnWriteArrayList<>();
+    private final CountDownLatch webhookReceived = new CountDownLatch(2);
+
+    private HttpServer receiver;
+    private RazorpayStubGateway gateway;
+    private PaymentGatewayClient client;
+    private RazorpaySignatureVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        receiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        receiver.createContext("/api/v1/payments/webhook", exchange -> {
+            webhooks.add(new String[]{
+                new String(exchange.getRequestBody().readAllBytes()),
+                exchange.getRequestHeaders().getFirst("X-Razorpay-Signature"),
+                exchange.getRequestHeaders().getFirst("X-Razorpay-Event-Id")
+            });
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            webhookReceived.countDown();
+        });
+        receiver.start();
+
+        String webhookUrl = "http://127.0.0.1:" + receiver.getAddress().getPort() + "/api/v1/payments/webhook";
+        RazorpayStubGateway.Settings defaults = RazorpayStubGateway.Settings.defaults(webhookUrl);
+        // Every webhook delivered twice, to exercise duplicate handling.
+        gateway = new RazorpayStubGateway(new RazorpayStubGateway.Settings(
+            0, defaults.keyId(), defaults.keySecret(), defaults.webhookSecret(), webhookUrl,
+            0, 0, 0, 1.0, Duration.ofMillis(10)
+        ));
+
+        RazorpayProperties properties = new RazorpayProperties();
+        properties.setKeyId(defaults.keyId());
+        properties.setKeySecret(defaults.keySecret());
+        properties.setWebhookSecret(defaults.webhookSecret());
+        properties.setBaseUrl(gateway.baseUrl());
+        client = new PaymentGatewayClient(properties, objectMapper);
+        verifier = new RazorpaySignatureVerifier(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gateway.close();
+        client.shutdown();
+        receiver.stop(0);
+    }
+
+    @Test
+    void checkoutFlow_signsPaymentAndDeliversVerifiableWebhooks() throws Exception {
+        GatewayOrder created = client.createOrder(22000L, "INR", "booking_1");
+
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+            HttpRequest.newBuilder(URI.create(gateway.baseUrl() + "/stub/orders/" + created.id() + "/pay"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(),
+            HttpResponse.BodyHandlers.ofString()
+        );
+        JsonNode checkout = objectMapper.readTree(response.body());
+
+        assertTrue(verifier.verifyPayment(
+            created.id(),
+            checkout.get("razorpay_payment_id").asText(),
+            checkout.get("razorpay_signature").asText()
+        ));
+        assertTrue(client.fetchOrder(created.id()).isPaid());
+
+        assertTrue(webhookReceived.await(5, TimeUnit.SECONDS));
+        assertEquals(webhooks.get(0)[2], webhooks.get(1)[2]);
+        String[] webhook = webhooks.get(0);
+        assertTrue(verifier.verifyWebhook(webhook[0], webhook[1]));
+        assertEquals(created.id(), objectMapper.readTree(webhook[0]).at("/payload/payment/entity/order_id").asText());
+    }
+}
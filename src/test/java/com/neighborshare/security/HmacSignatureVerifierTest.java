@@ -0,0 +1,72 @@
+package com.neighborshare.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HmacSignatureVerifierTest {
+
+    private static final String PAYLOAD = "{\"event\":\"payment.captured\"}";
+
+    @Test
+    void sign_matchesJdkHmacAndVerifies() throws Exception {
+        HmacSignatureVerifier verifier = new HmacSignatureVerifier(List.of("current"));
+
+        String signature = verifier.sign(PAYLOAD);
+
+        assertEquals(reference(PAYLOAD, "current"), signature);
+        assertTrue(verifier.verify(PAYLOAD, signature));
+        assertTrue(verifier.verify(PAYLOAD, signature.toUpperCase()));
+    }
+
+    @Test
+    void verify_acceptsEveryActiveSecretDuringRotation() throws Exception {
+        HmacSignatureVerifier verifier = new HmacSignatureVerifier(List.of("next", "", "previous"));
+
+        assertTrue(verifier.verify(PAYLOAD, reference(PAYLOAD, "next")));
+        assertTrue(verifier.verify(PAYLOAD, reference(PAYLOAD, "previous")));
+        assertFalse(verifier.verify(PAYLOAD, reference(PAYLOAD, "retired")));
+    }
+
+    @Test
+    void verify_rejectsMalformedSignatures() throws Exception {
+        HmacSignatureVerifier verifier = new HmacSignatureVerifier(List.of("current"));
+        String valid = reference(PAYLOAD, "current");
+
+        assertFalse(verifier.verify(PAYLOAD, null));
+        assertFalse(verifier.verify(PAYLOAD, valid.substring(2)));
+        assertFalse(verifier.verify(PAYLOAD, "zz" + valid.substring(2)));
+        assertFalse(verifier.verify(PAYLOAD + " ", valid));
+        assertFalse(new HmacSignatureVerifier(List.of()).verify(PAYLOAD, valid));
+    }
+
+    @Test
+    void verify_isSafeAcrossThreads() throws Exception {
+        HmacSignatureVerifier verifier = new HmacSignatureVerifier(List.of("current"));
+        String valid = reference(PAYLOAD, "current");
+
+        boolean allValid = IntStream.range(0, 64)
+            .mapToObj(i -> CompletableFuture.supplyAsync(() -> verifier.verify(PAYLOAD, valid)))
+            .toList()
+            .stream()
+            .allMatch(CompletableFuture::join);
+
+        assertTrue(allValid);
+    }
+
+    private static String reference(String payload, String secret) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,214 @@
+package com.neighborshare.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.mock.web.MockMultipartHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final ConcurrentHashMap<String, String> redis = new ConcurrentHashMap<>();
+    private final AtomicInteger executions = new AtomicInteger();
+    private IdempotencyService service;
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        service = new IdempotencyService(redisTemplate, objectMapper);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "keyPrefix", "idem");
+        ReflectionTestUtils.setField(service, "ttl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(service, "lockTtl", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(service, "waitTimeout", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(service, "maxBodyBytes", 65536);
+        ReflectionTestUtils.setField(service, "maxResponseBytes", 262144);
+        filter = new IdempotencyFilter(service, objectMapper);
+
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+            .thenAnswer(invocation -> redis.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null);
+        lenient().when(valueOperations.get(anyString())).thenAnswer(invocation -> redis.get(invocation.<String>getArgument(0)));
+        lenient().doAnswer(invocation -> redis.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+        // The complete and release scripts only touch the key while it still holds the caller's marker.
+        lenient().when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), anyString(), anyString(), anyString()))
+            .thenAnswer(invocation -> {
+                String key = invocation.<List<String>>getArgument(1).get(0);
+                return redis.replace(key, invocation.getArgument(2), invocation.getArgument(3)) ? 1L : 0L;
+            });
+        lenient().when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), anyString()))
+            .thenAnswer(invocation -> {
+                String key = invocation.<List<String>>getArgument(1).get(0);
+                return redis.remove(key, invocation.getArgument(2)) ? 1L : 0L;
+            });
+    }
+
+    @Test
+    void retryWithSameKey_replaysStoredResponseWithoutExecuting() throws Exception {
+        MockHttpServletResponse first = perform("key-1", "{\"itemId\":1}", 201);
+        MockHttpServletResponse second = perform("key-1", "{\"itemId\":1}", 201);
+
+        assertEquals(1, executions.get());
+        assertEquals(201, second.getStatus());
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertEquals("true", second.getHeader("Idempotent-Replayed"));
+        assertNull(first.getHeader("Idempotent-Replayed"));
+    }
+
+    @Test
+    void sameKeyWithDifferentBody_isRejected() throws Exception {
+        perform("key-1", "{\"itemId\":1}", 201);
+        MockHttpServletResponse second = perform("key-1", "{\"itemId\":2}", 201);
+
+        assertEquals(1, executions.get());
+        assertEquals(422, second.getStatus());
+    }
+
+    @Test
+    void serverErrors_areStoredSoRetriesDoNotExecuteAgain() throws Exception {
+        perform("key-1", "{}", 503);
+        MockHttpServletResponse retry = perform("key-1", "{}", 503);
+
+        assertEquals(1, executions.get());
+        assertEquals(503, retry.getStatus());
+        assertEquals("true", retry.getHeader("Idempotent-Replayed"));
+    }
+
+    @Test
+    void expiredClaim_doesNotOverwriteTheRequestThatTookTheKeyOver() throws Exception {
+        IdempotencyService.Claim claim = service.claim("user-1:key-1", fingerprintOf("{}"));
+        String takeover = new ObjectMapper().writeValueAsString(
+            new IdempotencyService.StoredResponse(fingerprintOf("{}"), 0, null, null, "other-claim"));
+        redis.put("idem:user-1:key-1", takeover);
+
+        service.complete("user-1:key-1", fingerprintOf("{}"), claim.token(), 201, "application/json", "{}".getBytes());
+        service.release("user-1:key-1", fingerprintOf("{}"), claim.token());
+
+        assertEquals(takeover, redis.get("idem:user-1:key-1"));
+    }
+
+    @Test
+    void oversizedResponse_keepsOnlyTheStatus() throws Exception {
+        ReflectionTestUtils.setField(service, "maxResponseBytes", 8);
+
+        perform("key-1", "{}", 201);
+        MockHttpServletResponse retry = perform("key-1", "{}", 201);
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals("", retry.getContentAsString());
+    }
+
+    @Test
+    void retryWhileFirstIsRunning_getsConflictAfterWaiting() throws Exception {
+        redis.put("idem:user-1:key-1", new ObjectMapper().writeValueAsString(
+            new IdempotencyService.StoredResponse(fingerprintOf("{}"), 0, null, null, "other-claim")));
+
+        MockHttpServletResponse response = perform("key-1", "{}", 201);
+
+        assertEquals(0, executions.get());
+        assertEquals(409, response.getStatus());
+    }
+
+    @Test
+    void redisOutage_failsOpen() throws Exception {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+            .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertEquals(201, perform("key-1", "{}", 201).getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void multipartUpload_passesThroughWithoutReadingTheBody() throws Exception {
+        MockMultipartHttpServletRequest request = new MockMultipartHttpServletRequest();
+        request.setRequestURI("/v1/uploads");
+        request.setContentType("multipart/form-data; boundary=----boundary");
+        request.addFile(new MockMultipartFile("file", "photo.png", "image/png", new byte[] {1, 2, 3}));
+        request.addHeader(IdempotencyFilter.HEADER, "key-1");
+        request.setAttribute("userId", "user-1");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertSame(request, chain.getRequest());
+        assertTrue(redis.isEmpty());
+    }
+
+    @Test
+    void bodyLargerThanTheBuffer_isRejected() throws Exception {
+        MockHttpServletResponse response = perform("key-1", "x".repeat(65537), 201);
+
+        assertEquals(413, response.getStatus());
+        assertEquals(0, executions.get());
+        assertTrue(redis.isEmpty());
+    }
+
+    private MockHttpServletResponse perform(String key, String body, int status) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/v1/bookings");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setAttribute("userId", "user-1");
+        request.setContent(body.getBytes());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                int execution = executions.incrementAndGet();
+                req.getInputStream().readAllBytes();
+                res.setStatus(status);
+                res.setContentType("application/json");
+                res.getWriter().write("{\"bookingId\":\"b-" + execution + "\"}");
+            }
+        }));
+        return response;
+    }
+
+    private static String fingerprintOf(String body) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update("POST /v1/bookings\n".getBytes());
+        digest.update(body.getBytes());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,88 @@
+package com.neighborshare.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private RateLimitProperties properties;
+    private RateLimitService rateLimitService;
+    private RateLimitProperties.Rule loginRule;
+
+    @BeforeEach
+    void setUp() {
+        loginRule = new RateLimitProperties.Rule();
+        loginRule.setName("auth-email");
+        loginRule.setPattern("/v1/auth/**");
+        loginRule.setMethods(Set.of("POST"));
+        loginRule.setKey(RateLimitProperties.KeyType.EMAIL);
+        loginRule.setCapacity(2);
+        loginRule.setRefillPeriod(Duration.ofHours(1));
+
+        properties = new RateLimitProperties();
+        properties.setRules(List.of(loginRule));
+        rateLimitService = new RateLimitService(redisTemplate, properties);
+    }
+
+    @Test
+    void matchingRules_filtersByMethodAndPattern() {
+        assertEquals(List.of(loginRule), rateLimitService.matchingRules("post", "/v1/auth/login"));
+        assertTrue(rateLimitService.matchingRules("GET", "/v1/auth/login").isEmpty());
+        assertTrue(rateLimitService.matchingRules("POST", "/v1/items").isEmpty());
+    }
+
+    @Test
+    void tryConsume_usesRedisScriptResult() {
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<List<Long>>>any(), anyList(), any(), any(), any()))
+            .thenReturn(List.of(0L, 1L))
+            .thenReturn(List.of(1500L, 0L));
+
+        RateLimitService.Decision first = rateLimitService.tryConsume(loginRule, "email:a@test.com");
+        RateLimitService.Decision second = rateLimitService.tryConsume(loginRule, "email:a@test.com");
+
+        assertTrue(first.allowed());
+        assertEquals(1L, first.remaining());
+        assertFalse(second.allowed());
+        assertEquals(1500L, second.retryAfterMillis());
+    }
+
+    @Test
+    void tryConsume_fallsBackToLocalBucketsWhenRedisIsDown() {
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<List<Long>>>any(), anyList(), any(), any(), any()))
+            .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertTrue(rateLimitService.tryConsume(loginRule, "email:a@test.com").allowed());
+        assertTrue(rateLimitService.tryConsume(loginRule, "email:a@test.com").allowed());
+        RateLimitService.Decision third = rateLimitService.tryConsume(loginRule, "email:a@test.com");
+
+        assertFalse(third.allowed());
+        assertTrue(third.retryAfterMillis() > 0);
+        assertTrue(rateLimitService.tryConsume(loginRule, "email:b@test.com").allowed());
+        // Redis is skipped for the retry interval instead of being hit on every request.
+        verify(redisTemplate, times(1)).execute(ArgumentMatchers.<RedisScript<List<Long>>>any(), anyList(), any(), any(), any());
+    }
+}
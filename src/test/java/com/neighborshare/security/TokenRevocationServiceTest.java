@@ -0,0 +1,96 @@
+package com.neighborshare.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private TokenRevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        revocationService = new TokenRevocationService(redisTemplate, listenerContainer);
+        ReflectionTestUtils.setField(revocationService, "keyPrefix", "revoked");
+        ReflectionTestUtils.setField(revocationService, "channel", "auth:revocations");
+        ReflectionTestUtils.setField(revocationService, "expectedRevocations", 1000L);
+        ReflectionTestUtils.setField(revocationService, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.setField(revocationService, "maxTokenLifetimeSeconds", 604800L);
+        revocationService.init();
+    }
+
+    @Test
+    void isRevoked_skipsRedisForTokensNeverRevoked() {
+        assertFalse(revocationService.isRevoked(UUID.randomUUID().toString(), UUID.randomUUID(), new Date()));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void revokeToken_storesPublishesAndConfirmsInRedis() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.hasKey("revoked:jti:token-1")).thenReturn(true);
+
+        revocationService.revokeToken("token-1", Instant.now().plusSeconds(600));
+
+        verify(valueOperations).set(eq("revoked:jti:token-1"), eq("1"), any(Duration.class));
+        verify(redisTemplate).convertAndSend(eq("auth:revocations"), anyString());
+        assertTrue(revocationService.isRevoked("token-1", UUID.randomUUID(), new Date()));
+    }
+
+    @Test
+    void isRevoked_fallsBackToLocalStateWhenRedisIsDown() {
+        long expiresAt = Instant.now().plusSeconds(600).toEpochMilli();
+        revocationService.onMessage(message("jti:token-2:" + expiresAt), null);
+        when(redisTemplate.hasKey("revoked:jti:token-2")).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertTrue(revocationService.isRevoked("token-2", UUID.randomUUID(), new Date()));
+    }
+
+    @Test
+    void userRevocation_rejectsOnlyTokensIssuedBeforeNotBefore() {
+        UUID userId = UUID.randomUUID();
+        long notBefore = System.currentTimeMillis();
+        revocationService.onMessage(message("user:" + userId + ":" + notBefore), null);
+
+        assertTrue(revocationService.isRevoked("old", userId, new Date(notBefore - 1000)));
+        assertFalse(revocationService.isRevoked("new", userId, new Date(notBefore + 1000)));
+        assertFalse(revocationService.isRevoked("other", UUID.randomUUID(), new Date(notBefore - 1000)));
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("auth:revocations".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -50,6 +50,21 @@ class BookingServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private UserContextCache userContextCache;
+
+    @Mock
+    private DepositSettlementService depositSettlementService;
+
+    @Mock
+    private ItemCounterStore itemCounterStore;
+
+    @Mock
+    private TrustScoreStore trustScoreStore;
+
+    @Mock
+    private FraudDetector fraudDetector;
+
     @InjectMocks
     private BookingService bookingService;
 
@@ -119,7 +134,7 @@ class BookingServiceTest {
         LocalDateTime end = start.plusDays(1);
         CreateBookingRequest request = new CreateBookingRequest(itemId, start, end);
 
-        when(userRepository.findByIdAndApartmentId(borrowerId, apartmentId)).thenReturn(Optional.of(borrower));
+        when(userRepository.getReferenceById(borrowerId)).thenReturn(borrower);
         when(itemRepository.findByIdAndApartmentIdAndDeletedAtIsNull(itemId, apartmentId)).thenReturn(Optional.of(item));
         when(bookingRepository.findConflictingBookings(eq(itemId), eq(start), eq(end), any())).thenReturn(List.of());
         when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
@@ -144,7 +159,7 @@ class BookingServiceTest {
         LocalDateTime end = LocalDateTime.now().plusHours(1);
         CreateBookingRequest request = new CreateBookingRequest(itemId, start, end);
 
-        when(userRepository.findByIdAndApartmentId(borrowerId, apartmentId)).thenReturn(Optional.of(borrower));
+        when(userRepository.getReferenceById(borrowerId)).thenReturn(borrower);
         when(itemRepository.findByIdAndApartmentIdAndDeletedAtIsNull(itemId, apartmentId)).thenReturn(Optional.of(item));
 
         assertThrows(ValidationException.class, () -> bookingService.createBooking(borrowerId, apartmentId, request));
@@ -168,7 +183,7 @@ class BookingServiceTest {
             .totalAmount(BigDecimal.TEN)
             .build();
 
-        when(userRepository.findByIdAndApartmentId(borrowerId, apartmentId)).thenReturn(Optional.of(borrower));
+        when(userRepository.getReferenceById(borrowerId)).thenReturn(borrower);
         when(itemRepository.findByIdAndApartmentIdAndDeletedAtIsNull(itemId, apartmentId)).thenReturn(Optional.of(item));
         when(bookingRepository.findConflictingBookings(eq(itemId), eq(start), eq(end), any())).thenReturn(List.of(existing));
 
@@ -242,7 +257,7 @@ class BookingServiceTest {
             .totalAmount(BigDecimal.TEN)
             .build();
 
-        when(bookingRepository.findByIdAndOwnerId(bookingId, ownerId)).thenReturn(Optional.of(active));
+        when(bookingRepository.findByIdAndOwnerIdForUpdate(bookingId, ownerId)).thenReturn(Optional.of(active));
 
         assertThrows(InvalidStateException.class, () -> bookingService.completeBooking(ownerId, apartmentId, bookingId));
     }
@@ -262,12 +277,16 @@ class BookingServiceTest {
             .totalAmount(BigDecimal.TEN)
             .build();
 
-        when(bookingRepository.findByIdAndOwnerId(bookingId, ownerId)).thenReturn(Optional.of(returned));
+        when(bookingRepository.findByIdAndOwnerIdForUpdate(bookingId, ownerId)).thenReturn(Optional.of(returned));
         when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         var response = bookingService.completeBooking(ownerId, apartmentId, bookingId);
 
         assertEquals(BookingStatus.COMPLETED, response.getStatus());
         verify(bookingRepository).save(any(Booking.class));
+        verify(depositSettlementService).onBookingCompleted(returned);
+        verify(itemCounterStore).recordBookingCompleted(itemId);
+        // Returned after the end date, so not on time.
+        verify(trustScoreStore).recordBookingCompleted(borrowerId, ownerId, false);
     }
 }
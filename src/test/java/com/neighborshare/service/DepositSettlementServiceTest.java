@@ -0,0 +1,135 @@
+package com.neighborshare.service;
+
+import com.neighborshare.domain.entity.Booking;
+import com.neighborshare.domain.entity.Dispute;
+import com.neighborshare.domain.entity.User;
+import com.neighborshare.domain.repository.DisputeRepository;
+import com.neighborshare.domain.valueobject.BookingStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DepositSettlementServiceTest {
+
+    @Mock
+    private DepositSettlementStore store;
+
+    @Mock
+    private DisputeRepository disputeRepository;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @InjectMocks
+    private DepositSettlementService service;
+
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        booking = Booking.builder()
+            .id(UUID.randomUUID())
+            .borrower(User.builder().id(UUID.randomUUID()).build())
+            .owner(User.builder().id(UUID.randomUUID()).build())
+            .status(BookingStatus.COMPLETED)
+            .basePrice(new BigDecimal("200.00"))
+            .depositCollected(new BigDecimal("100.00"))
+            .damageAmount(new BigDecimal("30.00"))
+            .paidAt(LocalDateTime.now().minusDays(3))
+            .paymentIntentId("order_1")
+            .build();
+    }
+
+    @Test
+    void refundFor_prefersDisputeDecisionAndClampsToDeposit() {
+        assertEquals(new BigDecimal("70.00"), DepositSettlementService.refundFor(booking, null));
+
+        Dispute dispute = Dispute.builder().refundAmount(new BigDecimal("90.00")).build();
+        assertEquals(new BigDecimal("90.00"), DepositSettlementService.refundFor(booking, dispute));
+
+        booking.setDamageAmount(new BigDecimal("250.00"));
+        assertEquals(0, DepositSettlementService.refundFor(booking, null).signum());
+    }
+
+    @Test
+    void onBookingCompleted_queuesRefundAndPostsLedgerOnce() {
+        when(disputeRepository.findByBookingId(booking.getId())).thenReturn(Optional.empty());
+        when(store.create(booking.getId(), "order_1", new BigDecimal("100.00"), new BigDecimal("70.00"), "completion"))
+            .thenReturn(true)
+            .thenReturn(false);
+
+        service.onBookingCompleted(booking);
+        service.onBookingCompleted(booking);
+
+        verify(ledgerService).recordDepositRelease(booking, new BigDecimal("70.00"));
+    }
+
+    @Test
+    void onBookingCompleted_waitsForOpenDispute() {
+        Dispute open = Dispute.builder().booking(booking).status("open").build();
+        when(disputeRepository.findByBookingId(booking.getId())).thenReturn(Optional.of(open));
+
+        service.onBookingCompleted(booking);
+
+        verifyNoInteractions(store, ledgerService);
+    }
+
+    @Test
+    void onDisputeResolved_settlesCompletedBookingWithDisputeRefund() {
+        Dispute resolved = Dispute.builder()
+            .booking(booking)
+            .status("resolved")
+            .refundAmount(new BigDecimal("40.00"))
+            .resolvedAt(LocalDateTime.now())
+            .build();
+        when(store.create(any(), anyString(), any(), any(), eq("dispute"))).thenReturn(true);
+
+        assertTrue(service.onDisputeResolved(resolved));
+
+        verify(store).create(booking.getId(), "order_1", new BigDecimal("100.00"), new BigDecimal("40.00"), "dispute");
+        verify(ledgerService).recordDepositRelease(booking, new BigDecimal("40.00"));
+    }
+
+    @Test
+    void onDisputeResolved_leavesUnfinishedBookingToCompletion() {
+        booking.setStatus(BookingStatus.RETURNED);
+        Dispute resolved = Dispute.builder().booking(booking).resolvedAt(LocalDateTime.now()).build();
+
+        assertTrue(service.onDisputeResolved(resolved));
+
+        verify(store, never()).create(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void onDisputeResolved_reportsDepositAlreadySettled() {
+        Dispute resolved = Dispute.builder()
+            .booking(booking)
+            .refundAmount(new BigDecimal("40.00"))
+            .resolvedAt(LocalDateTime.now())
+            .build();
+        when(store.create(any(), anyString(), any(), any(), eq("dispute"))).thenReturn(false);
+
+        assertFalse(service.onDisputeResolved(resolved));
+        verifyNoInteractions(ledgerService);
+    }
+}
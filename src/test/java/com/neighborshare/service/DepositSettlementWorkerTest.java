@@ -0,0 +1,108 @@
+package com.neighborshare.service;
+
+import com.neighborshare.exception.PaymentGatewayException;
+import com.neighborshare.integration.GatewayRefund;
+import com.neighborshare.integration.PaymentGatewayClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DepositSettlementWorkerTest {
+
+    @Mock
+    private DepositSettlementStore store;
+
+    @Mock
+    private PaymentGatewayClient paymentGatewayClient;
+
+    private MeterRegistry meterRegistry;
+    private DepositSettlementWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        worker = new DepositSettlementWorker(store, paymentGatewayClient, meterRegistry);
+        ReflectionTestUtils.setField(worker, "batchSize", 10);
+        ReflectionTestUtils.setField(worker, "maxConcurrency", 2);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(worker, "retryBaseDelay", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(worker, "retryMaxDelay", Duration.ofHours(1));
+        ReflectionTestUtils.setField(worker, "lockTimeout", Duration.ofMinutes(5));
+        worker.init();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void process_refundsBatchAndSortsFailuresIntoRetriesAndFailures() throws InterruptedException {
+        var ok = settlement(1, 1);
+        var flaky = settlement(2, 1);
+        var rejected = settlement(3, 1);
+        when(paymentGatewayClient.refundOrderAsync("order_1", 7000L, "deposit_1"))
+            .thenReturn(CompletableFuture.completedFuture(new GatewayRefund("rfnd_1", "pay_1", 7000L, "processed")));
+        when(paymentGatewayClient.refundOrderAsync("order_2", 7000L, "deposit_2"))
+            .thenReturn(CompletableFuture.failedFuture(new PaymentGatewayException("Razorpay returned HTTP 503", true)));
+        when(paymentGatewayClient.refundOrderAsync("order_3", 7000L, "deposit_3"))
+            .thenReturn(CompletableFuture.failedFuture(new PaymentGatewayException("No captured payment for order order_3", false)));
+
+        worker.process(List.of(ok, flaky, rejected));
+
+        ArgumentCaptor<List<DepositSettlementStore.Refunded>> refunded = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<DepositSettlementStore.Retry>> retries = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<DepositSettlementStore.Failed>> failed = ArgumentCaptor.forClass(List.class);
+        verify(store).applyOutcomes(refunded.capture(), retries.capture(), failed.capture());
+        assertEquals(List.of(new DepositSettlementStore.Refunded(1, "rfnd_1")), refunded.getValue());
+        assertEquals(2L, retries.getValue().get(0).id());
+        assertTrue(retries.getValue().get(0).delay().compareTo(Duration.ofSeconds(15)) >= 0);
+        assertEquals(List.of(new DepositSettlementStore.Failed(3, "No captured payment for order order_3")), failed.getValue());
+        assertEquals(1.0, meterRegistry.counter("deposit.settlement.refunds", "outcome", "refunded").count());
+        assertEquals(1L, meterRegistry.get("deposit.settlement.latency").timer().count());
+    }
+
+    @Test
+    void process_givesUpAfterMaxAttempts() throws InterruptedException {
+        when(paymentGatewayClient.refundOrderAsync("order_4", 7000L, "deposit_4"))
+            .thenReturn(CompletableFuture.failedFuture(new PaymentGatewayException("Razorpay request timed out", true)));
+
+        worker.process(List.of(settlement(4, 3)));
+
+        verify(store).applyOutcomes(
+            List.of(),
+            List.of(),
+            List.of(new DepositSettlementStore.Failed(4, "Razorpay request timed out"))
+        );
+    }
+
+    @Test
+    void drain_skipsWhenGatewayIsNotConfigured() {
+        when(paymentGatewayClient.isConfigured()).thenReturn(false);
+
+        worker.drain();
+
+        verifyNoInteractions(store);
+    }
+
+    private static DepositSettlementStore.Settlement settlement(long id, int attempts) {
+        return new DepositSettlementStore.Settlement(
+            id, UUID.randomUUID(), "order_" + id, new BigDecimal("70.00"), attempts, Duration.ofMinutes(2)
+        );
+    }
+}
@@ -0,0 +1,176 @@
+package com.neighborshare.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neighborshare.domain.entity.Apartment;
+import com.neighborshare.domain.entity.Booking;
+import com.neighborshare.domain.entity.Dispute;
+import com.neighborshare.domain.entity.User;
+import com.neighborshare.domain.repository.BookingRepository;
+import com.neighborshare.domain.repository.DisputeRepository;
+import com.neighborshare.domain.repository.UserRepository;
+import com.neighborshare.domain.valueobject.BookingStatus;
+import com.neighborshare.dto.request.CreateDisputeRequest;
+import com.neighborshare.dto.request.ResolveDisputeRequest;
+import com.neighborshare.exception.InvalidStateException;
+import com.neighborshare.exception.ValidationException;
+import com.neighborshare.security.AdminAccess;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DisputeServiceTest {
+
+    @Mock
+    private DisputeRepository disputeRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private DepositSettlementService depositSettlementService;
+
+    @Mock
+    private DisputeQueueStore disputeQueueStore;
+
+    @Mock
+    private AdminAccess adminAccess;
+
+    @Mock
+    private DisputeSlaMonitor disputeSlaMonitor;
+
+    @Mock
+    private TrustScoreStore trustScoreStore;
+
+    @Mock
+    private FraudDetector fraudDetector;
+
+    private DisputeService disputeService;
+    private UUID adminId;
+
+    @BeforeEach
+    void setUp() {
+        disputeService = new DisputeService(
+            disputeRepository, bookingRepository, userRepository, new ObjectMapper(),
+            depositSettlementService, disputeQueueStore, adminAccess, disputeSlaMonitor, trustScoreStore,
+            fraudDetector
+        );
+        ReflectionTestUtils.setField(disputeService, "claimLease", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(disputeService, "maxClaimBatch", 20);
+        adminId = UUID.randomUUID();
+    }
+
+    @Test
+    void claimDisputes_capsBatchAndReturnsOldestFirst() {
+        Dispute older = dispute(LocalDateTime.now().minusDays(2));
+        Dispute newer = dispute(LocalDateTime.now().minusDays(1));
+        when(disputeQueueStore.claim(adminId, 20, Duration.ofMinutes(30))).thenReturn(List.of(
+            new DisputeQueueStore.Claim(newer.getId(), true),
+            new DisputeQueueStore.Claim(older.getId(), false)
+        ));
+        when(disputeRepository.findAllById(Set.of(newer.getId(), older.getId()))).thenReturn(List.of(newer, older));
+
+        var claimed = disputeService.claimDisputes(adminId, 500);
+
+        assertEquals(List.of(older.getId(), newer.getId()), claimed.stream().map(d -> d.getId()).toList());
+        verify(disputeSlaMonitor).onAssigned(newer, true);
+        verify(disputeSlaMonitor).onAssigned(older, false);
+    }
+
+    @Test
+    void claimDisputes_rejectsNonAdmins() {
+        doThrow(new AccessDeniedException("Administrator access required")).when(adminAccess).requireAdmin(adminId);
+
+        assertThrows(AccessDeniedException.class, () -> disputeService.claimDisputes(adminId, 5));
+        verifyNoInteractions(disputeQueueStore);
+    }
+
+    @Test
+    void releaseClaim_failsWhenNotHeldByCaller() {
+        UUID disputeId = UUID.randomUUID();
+        when(disputeQueueStore.release(disputeId, adminId)).thenReturn(false);
+
+        assertThrows(InvalidStateException.class, () -> disputeService.releaseClaim(adminId, disputeId));
+    }
+
+    @Test
+    void resolveDispute_rejectsLapsedClaim() {
+        Dispute dispute = dispute(LocalDateTime.now().minusDays(1));
+        dispute.setAssignedAdmin(User.builder().id(adminId).build());
+        dispute.setClaimedUntil(LocalDateTime.now().minusMinutes(1));
+        when(disputeRepository.findById(dispute.getId())).thenReturn(Optional.of(dispute));
+
+        assertThrows(InvalidStateException.class, () -> disputeService.resolveDispute(
+            adminId, dispute.getId(), new ResolveDisputeRequest("Refund in full", BigDecimal.ZERO)));
+        verify(disputeRepository, never()).save(any());
+    }
+
+    @Test
+    void createDispute_rejectsBookingWhoseDepositIsSettled() {
+        UUID apartmentId = UUID.randomUUID();
+        User borrower = User.builder().id(UUID.randomUUID()).apartment(Apartment.builder().id(apartmentId).build()).build();
+        Booking booking = Booking.builder()
+            .id(UUID.randomUUID())
+            .borrower(borrower)
+            .owner(User.builder().id(UUID.randomUUID()).build())
+            .build();
+        when(bookingRepository.findByIdForUpdate(booking.getId())).thenReturn(Optional.of(booking));
+        when(disputeRepository.findByBookingId(booking.getId())).thenReturn(Optional.empty());
+        when(depositSettlementService.isSettled(booking.getId())).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> disputeService.createDispute(
+            borrower.getId(), apartmentId, new CreateDisputeRequest(booking.getId(), "damage", "Broken", List.of())));
+        verify(disputeRepository, never()).save(any());
+    }
+
+    @Test
+    void resolveDispute_failsWhenDepositWasAlreadySettled() {
+        Dispute dispute = dispute(LocalDateTime.now().minusDays(1));
+        dispute.getBooking().setStatus(BookingStatus.COMPLETED);
+        dispute.getBooking().setDepositCollected(new BigDecimal("100.00"));
+        dispute.getBooking().setBorrower(User.builder().id(UUID.randomUUID()).build());
+        dispute.setAssignedAdmin(User.builder().id(adminId).build());
+        when(disputeRepository.findById(dispute.getId())).thenReturn(Optional.of(dispute));
+        when(disputeRepository.save(dispute)).thenReturn(dispute);
+        when(depositSettlementService.onDisputeResolved(dispute)).thenReturn(false);
+
+        assertThrows(InvalidStateException.class, () -> disputeService.resolveDispute(
+            adminId, dispute.getId(), new ResolveDisputeRequest("Keep half", new BigDecimal("50.00"))));
+        verify(bookingRepository).findByIdForUpdate(dispute.getBooking().getId());
+        verifyNoInteractions(trustScoreStore);
+    }
+
+    private Dispute dispute(LocalDateTime createdAt) {
+        return Dispute.builder()
+            .id(UUID.randomUUID())
+            .booking(Booking.builder().id(UUID.randomUUID()).build())
+            .createdBy(User.builder().id(UUID.randomUUID()).build())
+            .status("in_review")
+            .createdAt(createdAt)
+            .build();
+    }
+}
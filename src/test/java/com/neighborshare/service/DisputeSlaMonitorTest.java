@@ -0,0 +1,79 @@
+package com.neighborshare.service;
+
+import com.neighborshare.domain.entity.Dispute;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+class DisputeSlaMonitorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private MeterRegistry meterRegistry;
+    private DisputeSlaMonitor monitor;
+    private UUID apartmentId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new DisputeSlaMonitor(jdbcTemplate, meterRegistry);
+        ReflectionTestUtils.setField(monitor, "assignSla", Duration.ofHours(24));
+        ReflectionTestUtils.setField(monitor, "resolveSla", Duration.ofHours(72));
+        monitor.init();
+        apartmentId = UUID.randomUUID();
+    }
+
+    @Test
+    void apply_publishesAgeBucketsApartmentsAndBreaches() {
+        LocalDateTime now = LocalDateTime.now();
+        UUID unassigned = UUID.randomUUID();
+        UUID stale = UUID.randomUUID();
+        monitor.apply(List.of(
+            new DisputeSlaMonitor.OpenDispute(UUID.randomUUID(), apartmentId, now.minusHours(2), null, null),
+            new DisputeSlaMonitor.OpenDispute(unassigned, apartmentId, now.minusHours(30), null, null),
+            new DisputeSlaMonitor.OpenDispute(stale, UUID.randomUUID(), now.minusDays(10), now.minusDays(9), UUID.randomUUID())
+        ));
+
+        assertEquals(1.0, meterRegistry.get("dispute.open").tag("age", "lt_1d").gauge().value());
+        assertEquals(1.0, meterRegistry.get("dispute.open").tag("age", "1d_3d").gauge().value());
+        assertEquals(1.0, meterRegistry.get("dispute.open").tag("age", "gt_7d").gauge().value());
+        assertEquals(2.0, meterRegistry.get("dispute.open.apartment").tag("apartment", apartmentId.toString()).gauge().value());
+
+        List<DisputeSlaMonitor.Breach> breaches = monitor.breaches();
+        assertEquals(List.of(stale, unassigned), breaches.stream().map(b -> b.dispute().disputeId()).toList());
+        assertEquals(DisputeSlaMonitor.BreachType.RESOLUTION, breaches.get(0).type());
+        assertEquals(DisputeSlaMonitor.BreachType.ASSIGNMENT, breaches.get(1).type());
+    }
+
+    @Test
+    void events_trackAssignmentAndResolutionTimes() {
+        LocalDateTime createdAt = LocalDateTime.now().minusHours(5);
+        Dispute dispute = Dispute.builder().id(UUID.randomUUID()).createdAt(createdAt).build();
+
+        monitor.onOpened(dispute, apartmentId);
+        dispute.setAssignedAt(createdAt.plusHours(1));
+        monitor.onAssigned(dispute, true);
+        dispute.setResolvedAt(createdAt.plusHours(4));
+        monitor.onResolved(dispute);
+
+        assertEquals(0, monitor.openCount());
+        assertEquals(3600.0, meterRegistry.get("dispute.time_to_assign").timer().totalTime(TimeUnit.SECONDS));
+        assertEquals(4 * 3600.0, meterRegistry.get("dispute.time_to_resolve").timer().totalTime(TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,97 @@
+package com.neighborshare.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FraudDetectorTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    @Mock
+    private FraudScoreStore store;
+
+    private FraudDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new FraudDetector(store, new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(detector, "queueCapacity", 100);
+        ReflectionTestUtils.setField(detector, "rescoreInterval", Duration.ofHours(1));
+        detector.init();
+    }
+
+    @Test
+    void apply_scoresWhenBookingRateTripsWithinWindow() throws Exception {
+        UUID userId = UUID.randomUUID();
+        // Older than the one-hour window, so they no longer count.
+        for (int i = 0; i < 5; i++) {
+            detector.apply(event(userId, FraudDetector.Signal.BOOKING_RATE, NOW.minus(Duration.ofHours(2))));
+        }
+        for (int i = 0; i < 9; i++) {
+            assertNull(detector.apply(event(userId, FraudDetector.Signal.BOOKING_RATE, NOW.plus(Duration.ofMinutes(i)))));
+        }
+
+        FraudScoreStore.Score score = detector.apply(event(userId, FraudDetector.Signal.BOOKING_RATE, NOW.plus(Duration.ofMinutes(10))));
+
+        assertNotNull(score);
+        assertEquals("booking_rate", score.reason());
+        JsonNode behavior = new ObjectMapper().readTree(score.flaggedBehavior());
+        assertEquals(10, behavior.path("booking_rate").path("threshold").asInt());
+        // Within the rescore interval only a higher score is written again.
+        assertNull(detector.apply(event(userId, FraudDetector.Signal.REJECTIONS, NOW.plus(Duration.ofMinutes(11)))));
+    }
+
+    @Test
+    void apply_successfulPaymentClearsFailureStreak() {
+        UUID userId = UUID.randomUUID();
+        detector.apply(event(userId, FraudDetector.Signal.PAYMENT_FAILURES, NOW));
+        detector.apply(event(userId, FraudDetector.Signal.PAYMENT_FAILURES, NOW.plusSeconds(60)));
+        detector.apply(new FraudDetector.Event(userId, FraudDetector.Signal.PAYMENT_FAILURES, true, NOW.plusSeconds(120)));
+
+        assertNull(detector.apply(event(userId, FraudDetector.Signal.PAYMENT_FAILURES, NOW.plusSeconds(180))));
+        detector.apply(event(userId, FraudDetector.Signal.PAYMENT_FAILURES, NOW.plusSeconds(240)));
+        FraudScoreStore.Score score = detector.apply(event(userId, FraudDetector.Signal.PAYMENT_FAILURES, NOW.plusSeconds(300)));
+
+        assertNotNull(score);
+        assertEquals(40, score.score());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drain_writesQueuedDetectionsInOneBatch() {
+        UUID userId = UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            detector.recordDisputeOpened(userId);
+        }
+
+        detector.drain();
+
+        ArgumentCaptor<List<FraudScoreStore.Score>> scores = ArgumentCaptor.forClass(List.class);
+        verify(store).insert(scores.capture());
+        assertEquals(1, scores.getValue().size());
+        assertEquals("disputes", scores.getValue().get(0).reason());
+    }
+
+    private static FraudDetector.Event event(UUID userId, FraudDetector.Signal signal, Instant at) {
+        return new FraudDetector.Event(userId, signal, false, at);
+    }
+}
@@ -0,0 +1,106 @@
+package com.neighborshare.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neighborshare.integration.LocalObjectStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ImageVariantWorkerTest {
+
+    private static final String SOURCE_KEY = "images/" + "a".repeat(64) + ".png";
+
+    @TempDir
+    Path root;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private LocalObjectStore objectStore;
+    private SimpleMeterRegistry meterRegistry;
+    private ImageVariantWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        objectStore = new LocalObjectStore(root.toString(), "/api/v1/uploads/files");
+        meterRegistry = new SimpleMeterRegistry();
+        worker = new ImageVariantWorker(objectStore, jdbcTemplate, new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(worker, "thumbSize", 64);
+        ReflectionTestUtils.setField(worker, "mediumSize", 200);
+        ReflectionTestUtils.setField(worker, "threads", 1);
+        ReflectionTestUtils.setField(worker, "queueCapacity", 1);
+        ReflectionTestUtils.setField(worker, "maxSourcePixels", 10_000_000L);
+        worker.init();
+    }
+
+    @Test
+    void generate_writesEachVariantOnceWithinItsBounds() throws IOException {
+        store(SOURCE_KEY, png(800, 400));
+
+        Map<String, String> urls = worker.generate(SOURCE_KEY);
+        worker.generate(SOURCE_KEY);
+
+        assertEquals("/api/v1/uploads/files/images/" + "a".repeat(64) + "_thumb.jpg", urls.get("thumb"));
+        assertEquals(64, read("images/" + "a".repeat(64) + "_thumb.jpg").getWidth());
+        BufferedImage medium = read("images/" + "a".repeat(64) + "_medium.jpg");
+        assertEquals(200, medium.getWidth());
+        assertEquals(100, medium.getHeight());
+        assertEquals(2.0, meterRegistry.counter("images.variants", "result", "generated").count());
+    }
+
+    @Test
+    void process_recordsVariantsOfUploadedImagesOnly() throws IOException {
+        store(SOURCE_KEY, png(100, 100));
+        UUID itemId = UUID.randomUUID();
+        String uploaded = objectStore.url(SOURCE_KEY);
+
+        worker.process(itemId, List.of(uploaded, "https://example.com/images/" + "b".repeat(64) + ".png"));
+
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).update(anyString(), json.capture(), eq(itemId));
+        Map<?, ?> recorded = new ObjectMapper().readValue(json.getValue(), Map.class);
+        assertEquals(1, recorded.size());
+        assertTrue(((Map<?, ?>) recorded.get(uploaded)).containsKey("medium"));
+    }
+
+    private void store(String key, byte[] content) throws IOException {
+        objectStore.put(key, new ByteArrayInputStream(content), content.length, "image/png");
+    }
+
+    private BufferedImage read(String key) throws IOException {
+        try (InputStream in = objectStore.open(key).orElseThrow()) {
+            return ImageIO.read(in);
+        }
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,64 @@
+package com.neighborshare.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemCounterWorkerTest {
+
+    @Mock
+    private ItemCounterStore store;
+
+    private MeterRegistry meterRegistry;
+    private ItemCounterWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        worker = new ItemCounterWorker(store, meterRegistry);
+        ReflectionTestUtils.setField(worker, "batchSize", 100);
+        worker.init();
+    }
+
+    @Test
+    void drain_keepsApplyingWhileBatchesAreFull() {
+        when(store.apply(100)).thenReturn(100, 100, 7);
+
+        worker.drain();
+
+        verify(store, times(3)).apply(100);
+    }
+
+    @Test
+    void drain_databaseErrorIsSwallowed() {
+        when(store.apply(100)).thenThrow(new QueryTimeoutException("timeout"));
+
+        worker.drain();
+
+        verify(store).apply(100);
+    }
+
+    @Test
+    void refreshStats_publishesBacklogAndLag() {
+        when(store.stats()).thenReturn(new ItemCounterStore.Stats(42, Duration.ofSeconds(3)));
+
+        worker.refreshStats();
+
+        assertEquals(42.0, meterRegistry.get("item.counters.backlog").gauge().value());
+        assertEquals(3.0, meterRegistry.get("item.counters.lag").gauge().value());
+    }
+}
@@ -0,0 +1,169 @@
+package com.neighborshare.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemReviewSummaryCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private ItemReviewSummaryCache cache;
+    private final UUID itemId = new UUID(0, 42);
+
+    @BeforeEach
+    void setUp() {
+        cache = new ItemReviewSummaryCache(redisTemplate, jdbcTemplate);
+        ReflectionTestUtils.setField(cache, "keyPrefix", "item:reviews");
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void bucket_roundsToNearestStarWithHalvesUp() {
+        assertEquals(1, ItemReviewSummaryCache.bucket(new BigDecimal("1.0")));
+        assertEquals(1, ItemReviewSummaryCache.bucket(new BigDecimal("0.5")));
+        assertEquals(3, ItemReviewSummaryCache.bucket(new BigDecimal("3.49")));
+        assertEquals(4, ItemReviewSummaryCache.bucket(new BigDecimal("3.5")));
+        assertEquals(5, ItemReviewSummaryCache.bucket(new BigDecimal("4.5")));
+    }
+
+    @Test
+    void get_readsCachedHashAndTopReviewsWithoutTouchingTheDatabase() {
+        UUID first = new UUID(0, 1);
+        UUID second = new UUID(0, 2);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(hashOperations.entries("item:reviews:{" + itemId + "}"))
+            .thenReturn(Map.of("4", "1", "5", "2", "count", "3", "sum", "1400"));
+        when(zSetOperations.reverseRange("item:reviews:{" + itemId + "}:top", 0, 2))
+            .thenReturn(new LinkedHashSet<>(List.of(second.toString(), first.toString())));
+
+        ItemReviewSummaryCache.Summary summary = cache.get(itemId);
+
+        assertArrayEquals(new long[]{0, 0, 0, 1, 2}, summary.histogram());
+        assertEquals(3, summary.count());
+        assertEquals(new BigDecimal("4.67"), summary.averageRating());
+        assertEquals(List.of(second, first), summary.topReviewIds());
+        verify(jdbcTemplate, never()).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    @Test
+    void get_onMissRebuildsFromTheDatabaseAndStoresTheRanking() throws Exception {
+        UUID helpful = new UUID(0, 1);
+        UUID recent = new UUID(0, 2);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.entries(anyString())).thenReturn(Map.of());
+        ResultSet stars = mock(ResultSet.class);
+        when(stars.getLong("reviews")).thenReturn(2L);
+        when(stars.getInt("stars")).thenReturn(5);
+        when(stars.getBigDecimal("rating_sum")).thenReturn(new BigDecimal("9.50"));
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(stars);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(itemId));
+        ResultSet ranking = mock(ResultSet.class);
+        when(ranking.getObject("id", UUID.class)).thenReturn(helpful, recent);
+        when(ranking.getLong("helpful_count")).thenReturn(7L, 0L);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(itemId))).thenAnswer(invocation -> {
+            RowMapper<?> mapper = invocation.getArgument(1);
+            return List.of(mapper.mapRow(ranking, 0), mapper.mapRow(ranking, 1));
+        });
+        List<Object[]> rebuilds = new ArrayList<>();
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), eq(keys()), any(Object[].class)))
+            .thenAnswer(invocation -> {
+                rebuilds.add((Object[]) invocation.getRawArguments()[2]);
+                return 1L;
+            });
+
+        ItemReviewSummaryCache.Summary summary = cache.get(itemId);
+
+        assertEquals(2, summary.count());
+        assertEquals(new BigDecimal("4.75"), summary.averageRating());
+        assertEquals(List.of(helpful, recent), summary.topReviewIds());
+        assertEquals(1, rebuilds.size());
+        assertArrayEquals(new Object[]{
+            "3600000", "2", "950", "0", "0", "0", "0", "2", "7", helpful.toString(), "0", recent.toString()
+        }, rebuilds.get(0));
+    }
+
+    @Test
+    void recordReview_whileSummaryIsMissing_parksTheReviewForTheNextRebuild() {
+        UUID reviewId = new UUID(0, 7);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.recordReview(itemId, reviewId, new BigDecimal("4.5"));
+
+        verify(redisTemplate, never()).execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(Object[].class));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        // The script parks the review under the pending key when the summary hash is absent.
+        verify(redisTemplate).execute(
+            ArgumentMatchers.<RedisScript<Long>>any(),
+            eq(keys()),
+            eq("5"),
+            eq("450"),
+            eq(reviewId.toString()),
+            eq("300000")
+        );
+    }
+
+    private List<String> keys() {
+        return List.of(
+            "item:reviews:{" + itemId + "}",
+            "item:reviews:{" + itemId + "}:top",
+            "item:reviews:{" + itemId + "}:pending"
+        );
+    }
+}
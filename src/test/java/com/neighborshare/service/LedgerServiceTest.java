@@ -0,0 +1,109 @@
+package com.neighborshare.service;
+
+import com.neighborshare.domain.entity.Booking;
+import com.neighborshare.domain.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private LedgerService ledgerService;
+    private UUID borrowerId;
+    private UUID ownerId;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        ledgerService = new LedgerService(jdbcTemplate);
+        borrowerId = UUID.randomUUID();
+        ownerId = UUID.randomUUID();
+        booking = Booking.builder()
+            .id(UUID.randomUUID())
+            .borrower(User.builder().id(borrowerId).build())
+            .owner(User.builder().id(ownerId).build())
+            .basePrice(new BigDecimal("200.00"))
+            .platformFee(new BigDecimal("20.00"))
+            .depositCollected(new BigDecimal("100.00"))
+            .totalAmount(new BigDecimal("320.00"))
+            .build();
+    }
+
+    @Test
+    void journal_rejectsPostingsThatDoNotBalance() {
+        assertThrows(IllegalArgumentException.class, () -> new LedgerService.Journal("k", "t", null, List.of(
+            new LedgerService.Posting("a", BigDecimal.TEN),
+            new LedgerService.Posting("b", BigDecimal.ONE.negate())
+        )));
+    }
+
+    @Test
+    void recordBookingPayment_splitsChargeIntoEarningsFeeAndDeposit() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any(), any())).thenReturn(List.of(7L));
+
+        ledgerService.recordBookingPayment(booking);
+
+        List<Object[]> entries = capturedEntries();
+        assertEquals(4, entries.size());
+        assertEntry(entries.get(0), LedgerService.borrowerCharges(borrowerId), "-320.00");
+        assertEntry(entries.get(1), LedgerService.ownerEarnings(ownerId), "200.00");
+        assertEntry(entries.get(2), LedgerService.PLATFORM_FEES, "20.00");
+        assertEntry(entries.get(3), LedgerService.depositHold(borrowerId), "100.00");
+    }
+
+    @Test
+    void post_skipsEntriesWhenJournalKeyAlreadyExists() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any(), any())).thenReturn(List.of());
+
+        ledgerService.recordBookingPayment(booking);
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void recordDepositRelease_refundsBorrowerAndPaysTheRestToOwner() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any(), any())).thenReturn(List.of(9L));
+
+        ledgerService.recordDepositRelease(booking, new BigDecimal("70.00"));
+
+        List<Object[]> entries = capturedEntries();
+        assertEquals(3, entries.size());
+        assertEntry(entries.get(0), LedgerService.depositHold(borrowerId), "-100.00");
+        assertEntry(entries.get(1), LedgerService.borrowerCharges(borrowerId), "70.00");
+        assertEntry(entries.get(2), LedgerService.ownerEarnings(ownerId), "30.00");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> capturedEntries() {
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        return captor.getValue();
+    }
+
+    private static void assertEntry(Object[] entry, String account, String amount) {
+        assertEquals(account, entry[1]);
+        assertEquals(new BigDecimal(amount), entry[2]);
+    }
+}
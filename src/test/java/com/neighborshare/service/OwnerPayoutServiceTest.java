@@ -0,0 +1,183 @@
+package com.neighborshare.service;
+
+import com.neighborshare.exception.PaymentGatewayException;
+import com.neighborshare.integration.CircuitBreaker;
+import com.neighborshare.integration.GatewayPayout;
+import com.neighborshare.integration.PaymentGatewayClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OwnerPayoutServiceTest {
+
+    private static final LocalDateTime HORIZON = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Mock
+    private OwnerPayoutStore store;
+
+    @Mock
+    private PaymentGatewayClient paymentGatewayClient;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private OwnerPayoutService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OwnerPayoutService(store, paymentGatewayClient, redisTemplate);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "submitBatchSize", 10);
+        ReflectionTestUtils.setField(service, "maxConcurrency", 2);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "completionLag", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(service, "lockTtl", Duration.ofMinutes(30));
+        when(store.horizon(any())).thenReturn(HORIZON);
+    }
+
+    @Test
+    void run_aggregatesEarningsPerOwnerAcrossBatchesIntoOneCycle() {
+        UUID ownerA = UUID.randomUUID();
+        UUID ownerB = UUID.randomUUID();
+        var first = earning(ownerA, 10_000, 1);
+        var second = earning(ownerB, 5_000, 2);
+        var third = earning(ownerA, 2_500, 3);
+        when(store.watermark()).thenReturn(OwnerPayoutStore.Cursor.START);
+        when(store.nextBatch(OwnerPayoutStore.Cursor.START, HORIZON, 2)).thenReturn(List.of(first, second));
+        when(store.nextBatch(cursorOf(second), HORIZON, 2)).thenReturn(List.of(third));
+        when(store.openCycle(any(), any(), any(), any())).thenReturn(Optional.of(7L));
+        when(store.duePayouts(0, 10)).thenReturn(List.of());
+
+        OwnerPayoutService.Report report = service.run();
+
+        verify(store).openCycle(
+            OwnerPayoutStore.Cursor.START,
+            cursorOf(third),
+            Map.of(
+                ownerA, new OwnerPayoutStore.OwnerTotal(12_500, 2),
+                ownerB, new OwnerPayoutStore.OwnerTotal(5_000, 1)
+            ),
+            List.of()
+        );
+        assertEquals(7L, report.cycleId());
+        assertEquals(3, report.bookings());
+        assertEquals(2, report.owners());
+        assertEquals(new BigDecimal("175.00"), report.amount());
+        verify(store).completeCycles();
+    }
+
+    @Test
+    void run_addsDisputeRetainedSharesToTheNextCycle() {
+        UUID ownerA = UUID.randomUUID();
+        UUID ownerB = UUID.randomUUID();
+        var booking = earning(ownerA, 10_000, 1);
+        when(store.watermark()).thenReturn(OwnerPayoutStore.Cursor.START);
+        when(store.nextBatch(OwnerPayoutStore.Cursor.START, HORIZON, 2)).thenReturn(List.of(booking));
+        when(store.unpaidRetainedShares(0, 2)).thenReturn(List.of(
+            new OwnerPayoutStore.RetainedShare(41, ownerA, 1_500),
+            new OwnerPayoutStore.RetainedShare(42, ownerB, 3_000)
+        ));
+        when(store.unpaidRetainedShares(42, 2)).thenReturn(List.of());
+        when(store.openCycle(any(), any(), any(), any())).thenReturn(Optional.of(8L));
+        when(store.duePayouts(0, 10)).thenReturn(List.of());
+
+        OwnerPayoutService.Report report = service.run();
+
+        verify(store).openCycle(
+            OwnerPayoutStore.Cursor.START,
+            cursorOf(booking),
+            Map.of(
+                ownerA, new OwnerPayoutStore.OwnerTotal(11_500, 1),
+                ownerB, new OwnerPayoutStore.OwnerTotal(3_000, 0)
+            ),
+            List.of(41L, 42L)
+        );
+        assertEquals(1, report.bookings());
+        assertEquals(new BigDecimal("145.00"), report.amount());
+    }
+
+    @Test
+    void run_submitsDuePayoutsAndClassifiesOutcomes() {
+        var ready = due(1, "fa_1", 0);
+        var flaky = due(2, "fa_2", 2);
+        var noAccount = due(3, null, 0);
+        when(store.watermark()).thenReturn(OwnerPayoutStore.Cursor.START);
+        when(store.nextBatch(any(), any(), anyInt())).thenReturn(List.of());
+        when(store.duePayouts(0, 10)).thenReturn(List.of(ready, flaky, noAccount));
+        when(paymentGatewayClient.createPayoutAsync(eq("payout_1"), eq("fa_1"), eq(15_000L), eq("INR")))
+            .thenReturn(CompletableFuture.completedFuture(new GatewayPayout("pout_1", 15_000, "INR", "processing", "payout_1")));
+        when(paymentGatewayClient.createPayoutAsync(eq("payout_2"), eq("fa_2"), anyLong(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new PaymentGatewayException("Razorpay returned HTTP 503", true)));
+        when(paymentGatewayClient.getCircuitState()).thenReturn(CircuitBreaker.State.CLOSED);
+
+        OwnerPayoutService.Report report = service.run();
+
+        verify(store, never()).openCycle(any(), any(), any(), any());
+        verify(store, never()).unpaidRetainedShares(anyLong(), anyInt());
+        verify(store).applyOutcomes(
+            List.of(new OwnerPayoutStore.Submitted(ready, "pout_1")),
+            List.of(new OwnerPayoutStore.Failed(flaky, "Razorpay returned HTTP 503", true)),
+            List.of(noAccount)
+        );
+        assertEquals(1, report.submitted());
+        assertEquals(1, report.failed());
+        assertEquals(1, report.onHold());
+        assertTrue(report.completed());
+    }
+
+    @Test
+    void run_stopsSubmittingOnceTheLockIsLost() {
+        ReflectionTestUtils.setField(service, "submitBatchSize", 1);
+        var ready = due(1, "fa_1", 0);
+        when(store.watermark()).thenReturn(OwnerPayoutStore.Cursor.START);
+        when(store.nextBatch(any(), any(), anyInt())).thenReturn(List.of());
+        when(store.duePayouts(0, 1)).thenReturn(List.of(ready));
+        when(paymentGatewayClient.createPayoutAsync(eq("payout_1"), eq("fa_1"), eq(15_000L), eq("INR")))
+            .thenReturn(CompletableFuture.completedFuture(new GatewayPayout("pout_1", 15_000, "INR", "processing", "payout_1")));
+        when(paymentGatewayClient.getCircuitState()).thenReturn(CircuitBreaker.State.CLOSED);
+
+        OwnerPayoutService.Report report = service.run(() -> false);
+
+        verify(store, never()).duePayouts(1, 1);
+        assertEquals(1, report.submitted());
+        assertFalse(report.completed());
+    }
+
+    private static OwnerPayoutStore.Earning earning(UUID ownerId, long paise, int minute) {
+        return new OwnerPayoutStore.Earning(UUID.randomUUID(), ownerId, HORIZON.minusHours(1).plusMinutes(minute), paise);
+    }
+
+    private static OwnerPayoutStore.Cursor cursorOf(OwnerPayoutStore.Earning earning) {
+        return new OwnerPayoutStore.Cursor(earning.completedAt(), earning.bookingId());
+    }
+
+    private static OwnerPayoutStore.DuePayout due(long id, String fundAccountId, int attempts) {
+        return new OwnerPayoutStore.DuePayout(id, UUID.randomUUID(), new BigDecimal("150.00"), "INR", attempts, fundAccountId);
+    }
+}
@@ -0,0 +1,167 @@
+package com.neighborshare.service;
+
+import com.neighborshare.exception.PaymentGatewayException;
+import com.neighborshare.integration.CircuitBreaker;
+import com.neighborshare.integration.GatewayOrder;
+import com.neighborshare.integration.PaymentGatewayClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconciliationServiceTest {
+
+    @Mock
+    private PaymentReconciliationStore store;
+
+    @Mock
+    private PaymentGatewayClient paymentGatewayClient;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private PaymentReconciliationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PaymentReconciliationService(store, paymentGatewayClient, redisTemplate);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "maxConcurrency", 2);
+        ReflectionTestUtils.setField(service, "requestsPerSecond", 1000.0);
+        ReflectionTestUtils.setField(service, "staleAfter", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(service, "abandonAfter", Duration.ofHours(48));
+        ReflectionTestUtils.setField(service, "lockTtl", Duration.ofMinutes(30));
+    }
+
+    @Test
+    void reconcile_walksKeysetBatchesAndSettlesOutcomes() {
+        var paid = pending("order_paid", false);
+        var abandoned = pending("order_abandoned", true);
+        var waiting = pending("order_waiting", false);
+        when(store.nextBatch(eq(PaymentReconciliationStore.Cursor.START), any(), any(), eq(2)))
+            .thenReturn(List.of(paid, abandoned));
+        when(store.nextBatch(eq(new PaymentReconciliationStore.Cursor(abandoned.createdAt(), abandoned.id())), any(), any(), eq(2)))
+            .thenReturn(List.of(waiting));
+        when(paymentGatewayClient.fetchOrderAsync("order_paid")).thenReturn(CompletableFuture.completedFuture(order("order_paid", "paid")));
+        when(paymentGatewayClient.fetchOrderAsync("order_abandoned")).thenReturn(CompletableFuture.completedFuture(order("order_abandoned", "attempted")));
+        when(paymentGatewayClient.fetchOrderAsync("order_waiting")).thenReturn(CompletableFuture.completedFuture(order("order_waiting", "created")));
+        when(paymentGatewayClient.getCircuitState()).thenReturn(CircuitBreaker.State.CLOSED);
+        when(store.settle(List.of(paid), List.of(abandoned))).thenReturn(new PaymentReconciliationStore.Settlement(1, 1));
+        when(store.settle(List.of(), List.of())).thenReturn(new PaymentReconciliationStore.Settlement(0, 0));
+
+        PaymentReconciliationService.Report report = service.reconcile();
+
+        assertTrue(report.completed());
+        assertEquals(3, report.scanned());
+        assertEquals(1, report.settled());
+        assertEquals(1, report.abandoned());
+        assertEquals(1, report.stillPending());
+        assertEquals(0, report.errors());
+    }
+
+    @Test
+    void reconcile_leavesFailedLookupsPendingAndStopsWhenCircuitOpens() {
+        var first = pending("order_1", false);
+        var second = pending("order_2", true);
+        when(store.nextBatch(any(), any(), any(), anyInt())).thenReturn(List.of(first, second));
+        when(paymentGatewayClient.fetchOrderAsync(anyString()))
+            .thenReturn(CompletableFuture.failedFuture(new PaymentGatewayException("down", true)));
+        when(paymentGatewayClient.getCircuitState()).thenReturn(CircuitBreaker.State.OPEN);
+        when(store.settle(List.of(), List.of())).thenReturn(new PaymentReconciliationStore.Settlement(0, 0));
+
+        PaymentReconciliationService.Report report = service.reconcile();
+
+        assertFalse(report.completed());
+        assertEquals(2, report.errors());
+        verify(store, times(1)).nextBatch(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void reconcile_expiresOnlyUnknownOrdersAndStopsOnAuthFailure() {
+        var unknown = pending("order_unknown", true);
+        var refused = pending("order_refused", true);
+        when(store.nextBatch(any(), any(), any(), anyInt())).thenReturn(List.of(unknown, refused));
+        when(paymentGatewayClient.fetchOrderAsync("order_unknown"))
+            .thenReturn(CompletableFuture.failedFuture(new PaymentGatewayException("Razorpay rejected the request: HTTP 400", false, 400)));
+        when(paymentGatewayClient.fetchOrderAsync("order_refused"))
+            .thenReturn(CompletableFuture.failedFuture(new PaymentGatewayException("Razorpay rejected the request: HTTP 401", false, 401)));
+        when(store.settle(List.of(), List.of(unknown))).thenReturn(new PaymentReconciliationStore.Settlement(0, 1));
+
+        PaymentReconciliationService.Report report = service.reconcile();
+
+        assertFalse(report.completed());
+        assertEquals(1, report.abandoned());
+        assertEquals(1, report.errors());
+        verify(store, times(1)).nextBatch(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void scheduledRun_skipsWhenAnotherNodeHoldsTheLock() {
+        when(paymentGatewayClient.isConfigured()).thenReturn(true);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("payment-reconciliation:lock"), anyString(), any(Duration.class))).thenReturn(false);
+
+        service.scheduledRun();
+
+        verify(store, never()).nextBatch(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void scheduledRun_stopsBetweenBatchesOnceTheLockIsLost() {
+        var first = pending("order_1", false);
+        var second = pending("order_2", false);
+        when(paymentGatewayClient.isConfigured()).thenReturn(true);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("payment-reconciliation:lock"), anyString(), any(Duration.class))).thenReturn(true);
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(), any())).thenReturn(0L);
+        when(store.nextBatch(any(), any(), any(), anyInt())).thenReturn(List.of(first, second));
+        when(paymentGatewayClient.fetchOrderAsync(anyString()))
+            .thenReturn(CompletableFuture.completedFuture(order("order_1", "created")));
+        when(paymentGatewayClient.getCircuitState()).thenReturn(CircuitBreaker.State.CLOSED);
+        when(store.settle(List.of(), List.of())).thenReturn(new PaymentReconciliationStore.Settlement(0, 0));
+
+        service.scheduledRun();
+
+        verify(store, times(1)).nextBatch(any(), any(), any(), anyInt());
+        assertFalse(service.getLastReport().completed());
+        verify(redisTemplate, never()).delete("payment-reconciliation:lock");
+    }
+
+    private static PaymentReconciliationStore.PendingPayment pending(String orderId, boolean abandoned) {
+        return new PaymentReconciliationStore.PendingPayment(UUID.randomUUID(), orderId, LocalDateTime.now().minusHours(1), abandoned);
+    }
+
+    private static GatewayOrder order(String id, String status) {
+        return new GatewayOrder(id, 22000L, "paid".equals(status) ? 22000L : 0L, "INR", status, null);
+    }
+}
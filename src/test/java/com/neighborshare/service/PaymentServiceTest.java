@@ -10,12 +10,20 @@ import com.neighborshare.domain.repository.BookingRepository;
 import com.neighborshare.domain.repository.TransactionRepository;
 import com.neighborshare.domain.valueobject.BookingStatus;
 import com.neighborshare.exception.InvalidStateException;
+import com.neighborshare.exception.ValidationException;
+import com.neighborshare.integration.GatewayOrder;
+import com.neighborshare.integration.PaymentGatewayClient;
+import com.neighborshare.integration.RazorpayProperties;
+import com.neighborshare.integration.RazorpaySignatureVerifier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
@@ -30,6 +38,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -43,6 +54,21 @@ class PaymentServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private PaymentGatewayClient paymentGatewayClient;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PaymentWebhookInbox paymentWebhookInbox;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private FraudDetector fraudDetector;
+
     private PaymentService paymentService;
     private UUID apartmentId;
     private UUID borrowerId;
@@ -51,10 +77,22 @@ class PaymentServiceTest {
 
     @BeforeEach
     void setUp() {
-        paymentService = new PaymentService(bookingRepository, transactionRepository, new ObjectMapper());
+        RazorpayProperties razorpayProperties = new RazorpayProperties();
+        razorpayProperties.setKeyId("rzp_test_local");
+        razorpayProperties.setKeySecret("test_secret_123");
+        razorpayProperties.setWebhookSecret("test_webhook_123");
+        paymentService = new PaymentService(
+            bookingRepository,
+            transactionRepository,
+            new ObjectMapper(),
+            paymentGatewayClient,
+            new TransactionTemplate(transactionManager),
+            paymentWebhookInbox,
+            new RazorpaySignatureVerifier(razorpayProperties),
+            ledgerService,
+            fraudDetector
+        );
         ReflectionTestUtils.setField(paymentService, "razorpayKeyId", "rzp_test_local");
-        ReflectionTestUtils.setField(paymentService, "razorpayKeySecret", "test_secret_123");
-        ReflectionTestUtils.setField(paymentService, "razorpayWebhookSecret", "test_webhook_123");
 
         apartmentId = UUID.randomUUID();
         borrowerId = UUID.randomUUID();
@@ -136,6 +174,7 @@ class PaymentServiceTest {
         assertEquals("paid", response.getStatus());
         assertEquals("ACTIVE", response.getBookingStatus());
         verify(bookingRepository, never()).save(any(Booking.class));
+        verify(ledgerService, never()).recordBookingPayment(any());
     }
 
     @Test
@@ -166,9 +205,8 @@ class PaymentServiceTest {
         String signature = sign("order_test_1|pay_3", "test_secret_123");
 
         when(bookingRepository.findByIdAndBorrowerId(bookingId, borrowerId)).thenReturn(Optional.of(booking));
+        when(paymentGatewayClient.isConfigured()).thenReturn(true);
         when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(transactionRepository.findByStripeTransactionId("order_test_1")).thenReturn(Optional.empty());
-        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         var response = paymentService.confirmBookingPayment(
             borrowerId,
@@ -184,11 +222,16 @@ class PaymentServiceTest {
         assertEquals(BookingStatus.ACTIVE, booking.getStatus());
         assertTrue(booking.getPaidAt() != null);
         verify(bookingRepository).save(any(Booking.class));
-        verify(transactionRepository).save(any(Transaction.class));
+        verify(ledgerService).recordBookingPayment(booking);
+        verify(transactionRepository).upsertByGatewayReference(
+            eq(borrowerId), eq(bookingId), eq("booking_payment"), eq(BigDecimal.valueOf(220)), eq("INR"),
+            eq("order_test_1"), eq("completed"), any(), any(), any(LocalDateTime.class)
+        );
+        verify(transactionRepository, never()).save(any(Transaction.class));
     }
 
     @Test
-    void webhookPaymentCaptured_duplicateIsIdempotent() {
+    void applyWebhookEvent_duplicateCaptureIsIdempotent() {
         booking.setStatus(BookingStatus.ACTIVE);
         booking.setPaidAt(LocalDateTime.now().minusMinutes(1));
         String payload = """
@@ -204,17 +247,60 @@ class PaymentServiceTest {
               }
             }
             """;
-        String signature = sign(payload, "test_webhook_123");
 
         when(bookingRepository.findByPaymentIntentId("order_test_1")).thenReturn(Optional.of(booking));
-        when(transactionRepository.findByStripeTransactionId("order_test_1")).thenReturn(Optional.empty());
-        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
-        var response = paymentService.handleRazorpayWebhook(payload, signature);
 
-        assertEquals("Webhook processed: payment.captured", response.getMessage());
+        assertEquals("Webhook processed: payment.captured", paymentService.applyWebhookEvent(payload));
         verify(bookingRepository, never()).save(any(Booking.class));
-        verify(transactionRepository).save(any(Transaction.class));
+        verify(ledgerService, never()).recordBookingPayment(any());
+        verify(transactionRepository).upsertByGatewayReference(
+            any(), any(), any(), any(), any(), eq("order_test_1"), eq("completed"), any(), any(), any()
+        );
+    }
+
+    @Test
+    void handleRazorpayWebhook_storesVerifiedEventWithoutApplyingIt() {
+        String payload = "{\"event\":\"payment.captured\",\"payload\":{\"payment\":{\"entity\":{\"order_id\":\"order_test_1\"}}}}";
+        String signature = sign(payload, "test_webhook_123");
+        when(paymentWebhookInbox.append("evt_1", "payment.captured", "order_test_1", payload))
+            .thenReturn(true)
+            .thenReturn(false);
+
+        assertEquals("Webhook accepted: payment.captured",
+            paymentService.handleRazorpayWebhook(payload, signature, "evt_1").getMessage());
+        assertEquals("Webhook already received: payment.captured",
+            paymentService.handleRazorpayWebhook(payload, signature, "evt_1").getMessage());
+        verify(bookingRepository, never()).findByPaymentIntentId(any());
+    }
+
+    @Test
+    void handleRazorpayWebhook_rejectsBadSignatureBeforeStoring() {
+        assertThrows(
+            ValidationException.class,
+            () -> paymentService.handleRazorpayWebhook("{}", "bad", "evt_1")
+        );
+        verify(paymentWebhookInbox, never()).append(any(), any(), any(), any());
+    }
+
+    @Test
+    void createBookingOrder_callsGatewayBetweenTransactions() {
+        booking.setPaymentIntentId(null);
+        when(bookingRepository.findByIdAndBorrowerId(bookingId, borrowerId)).thenReturn(Optional.of(booking));
+        when(paymentGatewayClient.isConfigured()).thenReturn(true);
+        when(paymentGatewayClient.createOrder(22000L, "INR", "booking_" + bookingId))
+            .thenReturn(new GatewayOrder("order_new", 22000L, 0L, "INR", "created", "booking_" + bookingId));
+
+        var response = paymentService.createBookingOrder(borrowerId, apartmentId, bookingId);
+
+        assertEquals("order_new", response.getOrderId());
+        assertEquals("order_new", booking.getPaymentIntentId());
+        InOrder inOrder = inOrder(transactionManager, paymentGatewayClient);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(paymentGatewayClient).createOrder(22000L, "INR", "booking_" + bookingId);
+        inOrder.verify(transactionManager).commit(any());
+        verify(transactionRepository).upsertByGatewayReference(
+            any(), any(), any(), any(), any(), eq("order_new"), eq("pending"), any(), any(), isNull()
+        );
     }
 
     private String sign(String payload, String secret) {
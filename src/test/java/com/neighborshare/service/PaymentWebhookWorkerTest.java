@@ -0,0 +1,131 @@
+package com.neighborshare.service;
+
+import com.neighborshare.exception.ValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentWebhookWorkerTest {
+
+    @Mock
+    private PaymentWebhookInbox inbox;
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+    private PaymentWebhookWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        worker = new PaymentWebhookWorker(inbox, paymentService, new TransactionTemplate(transactionManager), meterRegistry);
+        ReflectionTestUtils.setField(worker, "batchSize", 2);
+        ReflectionTestUtils.setField(worker, "workers", 2);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(worker, "retryBaseDelay", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(worker, "retryMaxDelay", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(worker, "lockTimeout", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(worker, "retention", Duration.ofDays(7));
+        worker.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        worker.shutdown();
+    }
+
+    @Test
+    void drain_appliesClaimedEventsUntilInboxIsEmpty() {
+        when(inbox.claim(2, Duration.ofMinutes(5)))
+            .thenReturn(List.of(event(1, 1), event(2, 1)))
+            .thenReturn(List.of(event(3, 1)));
+
+        worker.drain();
+
+        verify(inbox).markProcessed(1);
+        verify(inbox).markProcessed(2);
+        verify(inbox).markProcessed(3);
+        assertEquals(3.0, meterRegistry.counter("payment.webhook.events", "outcome", "processed").count());
+    }
+
+    @Test
+    void process_schedulesRetryWithBackoffOnTransientFailure() {
+        when(paymentService.applyWebhookEvent(anyString())).thenThrow(new QueryTimeoutException("slow"));
+
+        worker.process(event(1, 2));
+
+        verify(inbox).scheduleRetry(eq(1L), any(Duration.class), anyString());
+        verify(inbox, never()).markProcessed(1);
+    }
+
+    @Test
+    void process_parksEventAfterMaxAttemptsOrWhenPayloadIsInvalid() {
+        when(paymentService.applyWebhookEvent(anyString()))
+            .thenThrow(new QueryTimeoutException("slow"))
+            .thenThrow(new ValidationException("Invalid webhook payload"));
+
+        worker.process(event(1, 3));
+        worker.process(event(2, 1));
+
+        verify(inbox).markFailed(eq(1L), anyString());
+        verify(inbox).markFailed(2L, "Invalid webhook payload");
+        verify(inbox, never()).scheduleRetry(any(Long.class), any(), any());
+    }
+
+    @Test
+    void backoff_growsExponentiallyUpToTheCap() {
+        Duration first = worker.backoff(1);
+        Duration late = worker.backoff(30);
+
+        assertTrue(first.compareTo(Duration.ofMillis(2500)) >= 0 && first.compareTo(Duration.ofSeconds(5)) <= 0);
+        assertTrue(late.compareTo(Duration.ofSeconds(30)) >= 0 && late.compareTo(Duration.ofMinutes(1)) <= 0);
+    }
+
+    @Test
+    void housekeeping_publishesInboxDepthAndLag() {
+        when(inbox.stats()).thenReturn(new PaymentWebhookInbox.Stats(7, Duration.ofSeconds(42)));
+
+        worker.housekeeping();
+
+        assertEquals(7.0, meterRegistry.get("payment.webhook.inbox.depth").gauge().value());
+        assertEquals(42.0, meterRegistry.get("payment.webhook.inbox.lag").gauge().value());
+    }
+
+    private static PaymentWebhookInbox.Event event(long id, int attempts) {
+        return new PaymentWebhookInbox.Event(
+            id,
+            "evt_" + id,
+            "payment.captured",
+            "order_" + id,
+            "{}",
+            attempts,
+            Duration.ofMillis(50)
+        );
+    }
+}
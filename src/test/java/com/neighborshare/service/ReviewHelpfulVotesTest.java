@@ -0,0 +1,109 @@
+package com.neighborshare.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewHelpfulVotesTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ItemReviewSummaryCache itemReviewSummaryCache;
+
+    private ReviewHelpfulVotes votes;
+
+    @BeforeEach
+    void setUp() {
+        votes = new ReviewHelpfulVotes(redisTemplate, jdbcTemplate, itemReviewSummaryCache);
+        ReflectionTestUtils.setField(votes, "keyPrefix", "review:helpful");
+    }
+
+    @Test
+    void vote_countsEachVoterOnce() {
+        UUID reviewId = UUID.randomUUID();
+        UUID itemId = UUID.randomUUID();
+        UUID voterId = UUID.randomUUID();
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.add("review:helpful:" + reviewId, voterId.toString())).thenReturn(1L, 0L);
+
+        assertTrue(votes.vote(reviewId, itemId, voterId));
+        assertFalse(votes.vote(reviewId, itemId, voterId));
+        assertEquals(1, votes.pendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_copiesVoterSetSizesToReviewsAndItemRankings() {
+        UUID reviewId = UUID.randomUUID();
+        UUID itemId = UUID.randomUUID();
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.add(anyString(), any(String[].class))).thenReturn(1L);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(2L));
+
+        votes.vote(reviewId, itemId, UUID.randomUUID());
+        votes.vote(reviewId, itemId, UUID.randomUUID());
+        votes.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("helpful_count = GREATEST(helpful_count, ?)"), batch.capture());
+        assertEquals(1, batch.getValue().size());
+        assertArrayEquals(new Object[]{2L, reviewId, 2L}, batch.getValue().get(0));
+        verify(itemReviewSummaryCache).updateHelpfulCounts(
+            List.of(new ItemReviewSummaryCache.HelpfulCount(itemId, reviewId, 2L)));
+        assertEquals(0, votes.pendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_keepsReviewsDirtyWhenDatabaseFails() {
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.add(anyString(), any(String[].class))).thenReturn(1L);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(1L));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        votes.vote(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        votes.flush();
+
+        assertEquals(1, votes.pendingCount());
+    }
+
+    @Test
+    void flush_withoutVotesDoesNothing() {
+        votes.flush();
+
+        verifyNoInteractions(redisTemplate, jdbcTemplate, itemReviewSummaryCache);
+    }
+}
@@ -0,0 +1,113 @@
+package com.neighborshare.service;
+
+import com.neighborshare.domain.entity.Booking;
+import com.neighborshare.domain.entity.Item;
+import com.neighborshare.domain.entity.Review;
+import com.neighborshare.domain.entity.User;
+import com.neighborshare.domain.repository.BookingRepository;
+import com.neighborshare.domain.repository.ItemRepository;
+import com.neighborshare.domain.repository.ReviewRepository;
+import com.neighborshare.dto.response.ReviewFeedResponse;
+import com.neighborshare.exception.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewServiceTest {
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private UserRatingStore userRatingStore;
+
+    @Mock
+    private ItemCounterStore itemCounterStore;
+
+    @Mock
+    private TrustScoreStore trustScoreStore;
+
+    @Mock
+    private ReviewHelpfulVotes reviewHelpfulVotes;
+
+    @Mock
+    private ItemReviewSummaryCache itemReviewSummaryCache;
+
+    @Mock
+    private UserContextCache userContextCache;
+
+    private ReviewService reviewService;
+    private final UUID apartmentId = UUID.randomUUID();
+    private final Item item = Item.builder().id(UUID.randomUUID()).build();
+
+    @BeforeEach
+    void setUp() {
+        reviewService = new ReviewService(
+            reviewRepository, bookingRepository, itemRepository, userRatingStore, itemCounterStore,
+            trustScoreStore, reviewHelpfulVotes, itemReviewSummaryCache, userContextCache
+        );
+        ReflectionTestUtils.setField(reviewService, "maxFeedPageSize", 50);
+        when(itemRepository.findByIdAndApartmentIdAndDeletedAtIsNull(item.getId(), apartmentId))
+            .thenReturn(Optional.of(item));
+    }
+
+    @Test
+    void listItemReviews_nextCursorResumesAfterTheLastReviewOfThePage() {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 1, 10, 0, 0, 123_000_000);
+        Review newest = review(now);
+        Review middle = review(now.minusMinutes(1));
+        Review oldest = review(now.minusMinutes(2));
+        when(reviewRepository.findItemFeed(item.getId(), 3)).thenReturn(List.of(newest, middle, oldest));
+        when(reviewRepository.findItemFeedAfter(item.getId(), middle.getCreatedAt(), middle.getId(), 3))
+            .thenReturn(List.of(oldest));
+
+        ReviewFeedResponse first = reviewService.listItemReviews(apartmentId, item.getId(), null, 2);
+        ReviewFeedResponse second = reviewService.listItemReviews(apartmentId, item.getId(), first.getNextCursor(), 2);
+
+        assertEquals(List.of(newest.getId(), middle.getId()), first.getReviews().stream().map(r -> r.getId()).toList());
+        assertEquals(List.of(oldest.getId()), second.getReviews().stream().map(r -> r.getId()).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void listItemReviews_rejectsMalformedCursor() {
+        assertThrows(ValidationException.class,
+            () -> reviewService.listItemReviews(apartmentId, item.getId(), "not-a-cursor", 10));
+        verify(reviewRepository, never()).findItemFeedAfter(any(), any(), any(), anyInt());
+    }
+
+    private Review review(LocalDateTime createdAt) {
+        return Review.builder()
+            .id(UUID.randomUUID())
+            .booking(Booking.builder().id(UUID.randomUUID()).build())
+            .reviewer(User.builder().id(UUID.randomUUID()).build())
+            .reviewedUser(User.builder().id(UUID.randomUUID()).build())
+            .item(item)
+            .createdAt(createdAt)
+            .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.neighborshare.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrustScoreWorkerTest {
+
+    @Mock
+    private TrustScoreStore store;
+
+    @Mock
+    private UserContextCache userContextCache;
+
+    private MeterRegistry meterRegistry;
+    private TrustScoreWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        worker = new TrustScoreWorker(store, userContextCache, meterRegistry);
+        ReflectionTestUtils.setField(worker, "batchSize", 100);
+        worker.init();
+    }
+
+    @Test
+    void drain_evictsChangedUsersUntilBatchIsShort() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(store.apply(100)).thenReturn(
+            new TrustScoreStore.Applied(100, List.of(first)),
+            new TrustScoreStore.Applied(3, List.of(second))
+        );
+
+        worker.drain();
+
+        verify(store, times(2)).apply(100);
+        verify(userContextCache).evict(first);
+        verify(userContextCache).evict(second);
+        assertEquals(2.0, meterRegistry.get("trust.users.updated").counter().count());
+    }
+
+    @Test
+    void score_startsNeutralAndFollowsBehaviour() {
+        assertEquals(50, features(0, 0, 0, 0, 0, "0", 0).score());
+
+        int reliable = features(20, 5, 20, 0, 0, "4.80", 15).score();
+        int late = features(20, 5, 8, 0, 0, "4.80", 15).score();
+        int disputed = features(20, 5, 20, 4, 2, "4.80", 15).score();
+
+        assertTrue(reliable > 85, "reliable user scored " + reliable);
+        assertTrue(late < reliable);
+        assertTrue(disputed < reliable);
+        // One late return does not sink a new user.
+        assertTrue(features(1, 0, 0, 0, 0, "0", 0).score() >= 40);
+    }
+
+    private static TrustScoreStore.Features features(
+        int borrowed, int lent, int onTime, int disputes, int lost, String rating, int ratings
+    ) {
+        return new TrustScoreStore.Features(
+            UUID.randomUUID(), borrowed, lent, onTime, disputes, lost, new BigDecimal(rating), ratings, 50
+        );
+    }
+}
@@ -0,0 +1,110 @@
+package com.neighborshare.service;
+
+import com.neighborshare.dto.response.UploadResponse;
+import com.neighborshare.exception.ValidationException;
+import com.neighborshare.integration.LocalObjectStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class UploadServiceTest {
+
+    @TempDir
+    Path root;
+
+    @Mock
+    private ImageVariantWorker imageVariantWorker;
+
+    private LocalObjectStore objectStore;
+    private UploadService uploadService;
+
+    @BeforeEach
+    void setUp() {
+        objectStore = new LocalObjectStore(root.toString(), "/api/v1/uploads/files");
+        uploadService = new UploadService(objectStore, imageVariantWorker, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(uploadService, "maxImageSizeMb", 1);
+    }
+
+    @Test
+    void upload_storesOnceByContentHash() throws IOException {
+        byte[] png = png(40, 20);
+
+        UploadResponse first = uploadService.upload(UUID.randomUUID(), new MockMultipartFile("file", "a.png", "image/png", png));
+        UploadResponse second = uploadService.upload(UUID.randomUUID(), new MockMultipartFile("file", "b.png", "image/png", png));
+
+        assertFalse(first.isDeduplicated());
+        assertTrue(second.isDeduplicated());
+        assertEquals(first.getKey(), second.getKey());
+        assertEquals("images/" + first.getSha256() + ".png", first.getKey());
+        assertEquals("/api/v1/uploads/files/" + first.getKey(), first.getUrl());
+        assertEquals("image/png", first.getContentType());
+        assertEquals(png.length, first.getSizeBytes());
+        try (InputStream stored = objectStore.open(first.getKey()).orElseThrow()) {
+            assertEquals(png.length, stored.readAllBytes().length);
+        }
+        verify(imageVariantWorker, times(2)).submit(first.getKey());
+        assertEquals("/api/v1/uploads/files/images/" + first.getSha256() + "_thumb.jpg", first.getThumbnailUrl());
+    }
+
+    @Test
+    void upload_sniffsContentInsteadOfTrustingDeclaredType() {
+        MockMultipartFile script = new MockMultipartFile("file", "photo.png", "image/png", "<script>".getBytes());
+
+        assertThrows(ValidationException.class, () -> uploadService.upload(UUID.randomUUID(), script));
+        verifyNoInteractions(imageVariantWorker);
+    }
+
+    @Test
+    void upload_rejectsFilesOverTheSizeLimit() {
+        byte[] large = new byte[1024 * 1024 + 1];
+        large[0] = (byte) 0xFF;
+        large[1] = (byte) 0xD8;
+        large[2] = (byte) 0xFF;
+
+        assertThrows(ValidationException.class,
+            () -> uploadService.upload(UUID.randomUUID(), new MockMultipartFile("file", "big.jpg", "image/jpeg", large)));
+        assertFalse(Files.exists(root.resolve("images")));
+    }
+
+    @Test
+    void upload_skipsThumbnailsForWebp() {
+        byte[] webp = "RIFF\0\0\0\0WEBPVP8 ".getBytes();
+
+        UploadResponse response = uploadService.upload(UUID.randomUUID(), new MockMultipartFile("file", "a.webp", "image/webp", webp));
+
+        assertEquals("image/webp", response.getContentType());
+        assertNull(response.getThumbnailUrl());
+        verifyNoInteractions(imageVariantWorker);
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,69 @@
+package com.neighborshare.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserActivityRecorderTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private UserActivityRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new UserActivityRecorder(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_coalescesLoginsToLatestTimestampPerUser() {
+        UUID userId = UUID.randomUUID();
+        LocalDateTime first = LocalDateTime.of(2024, 1, 1, 10, 0);
+        LocalDateTime latest = first.plusMinutes(5);
+
+        recorder.recordLogin(userId, latest);
+        recorder.recordLogin(userId, first);
+        recorder.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("last_login_at"), batch.capture());
+        assertEquals(1, batch.getValue().size());
+        assertArrayEquals(
+            new Object[]{Timestamp.valueOf(latest), userId, Timestamp.valueOf(latest)},
+            batch.getValue().get(0)
+        );
+        assertEquals(0, recorder.pendingCount());
+    }
+
+    @Test
+    void flush_keepsPendingUpdatesWhenDatabaseFails() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        recorder.recordLogin(UUID.randomUUID(), LocalDateTime.now());
+        recorder.recordLogin(UUID.randomUUID(), LocalDateTime.now());
+        recorder.flush();
+
+        assertEquals(2, recorder.pendingCount());
+    }
+}
@@ -0,0 +1,123 @@
+package com.neighborshare.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neighborshare.domain.entity.Apartment;
+import com.neighborshare.domain.entity.User;
+import com.neighborshare.domain.repository.UserRepository;
+import com.neighborshare.exception.UnauthorizedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserContextCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private UserContextCache cache;
+    private UUID userId;
+    private UUID apartmentId;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserContextCache(userRepository, redisTemplate, objectMapper, listenerContainer);
+        ReflectionTestUtils.setField(cache, "localMaxSize", 100L);
+        ReflectionTestUtils.setField(cache, "localTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cache, "redisTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(cache, "keyPrefix", "user-ctx");
+        ReflectionTestUtils.setField(cache, "channel", "user-ctx:invalidate");
+        cache.init();
+
+        userId = UUID.randomUUID();
+        apartmentId = UUID.randomUUID();
+        user = User.builder()
+            .id(userId)
+            .apartment(Apartment.builder().id(apartmentId).build())
+            .email("owner@test.com")
+            .firstName("Owner")
+            .lastName("User")
+            .build();
+
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void requireMember_loadsFromDatabaseOnceThenServesLocally() {
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList((String) null));
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(user));
+
+        cache.requireMember(userId, apartmentId);
+        UserContextCache.UserSummary summary = cache.requireMember(userId, apartmentId);
+
+        assertEquals("owner@test.com", summary.email());
+        verify(userRepository, times(1)).findAllById(anyCollection());
+        verify(valueOperations).set(eq("user-ctx:" + userId), anyString(), eq(Duration.ofMinutes(10)));
+    }
+
+    @Test
+    void requireMember_usesRedisCopyWithoutDatabase() throws Exception {
+        String json = objectMapper.writeValueAsString(UserContextCache.UserSummary.from(user));
+        when(valueOperations.multiGet(anyList())).thenReturn(List.of(json));
+
+        assertEquals(userId, cache.requireMember(userId, apartmentId).id());
+        verify(userRepository, times(0)).findAllById(anyCollection());
+    }
+
+    @Test
+    void requireMember_rejectsOtherApartment() {
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList((String) null));
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(user));
+
+        assertThrows(UnauthorizedException.class, () -> cache.requireMember(userId, UUID.randomUUID()));
+    }
+
+    @Test
+    void evict_dropsLocalCopyAndBroadcasts() {
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList((String) null));
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(user));
+        cache.requireMember(userId, apartmentId);
+
+        cache.evict(userId);
+        cache.requireMember(userId, apartmentId);
+
+        verify(redisTemplate).delete("user-ctx:" + userId);
+        verify(redisTemplate).convertAndSend("user-ctx:invalidate", userId.toString());
+        verify(userRepository, times(2)).findAllById(anyCollection());
+        verify(valueOperations, times(2)).set(anyString(), anyString(), any(Duration.class));
+    }
+}
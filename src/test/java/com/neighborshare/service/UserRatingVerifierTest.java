@@ -0,0 +1,66 @@
+package com.neighborshare.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserRatingVerifierTest {
+
+    @Mock
+    private UserRatingStore store;
+
+    @Mock
+    private UserContextCache userContextCache;
+
+    private UserRatingVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        verifier = new UserRatingVerifier(store, userContextCache);
+        ReflectionTestUtils.setField(verifier, "batchSize", 2);
+    }
+
+    @Test
+    void verifyAll_walksUsersInBatchesAndRecomputesOnlyDrifted() {
+        UUID first = new UUID(0, 1);
+        UUID second = new UUID(0, 2);
+        UUID third = new UUID(0, 3);
+        when(store.check(new UUID(0, 0), 2)).thenReturn(List.of(
+            new UserRatingStore.Check(first, false),
+            new UserRatingStore.Check(second, true)
+        ));
+        when(store.check(second, 2)).thenReturn(List.of(new UserRatingStore.Check(third, true)));
+        when(store.recompute(List.of(second))).thenReturn(1);
+        when(store.recompute(List.of(third))).thenReturn(1);
+
+        assertEquals(2, verifier.verifyAll());
+
+        verify(userContextCache).evict(second);
+        verify(userContextCache).evict(third);
+        verify(userContextCache, never()).evict(first);
+    }
+
+    @Test
+    void verifyAll_cleanBatchRecomputesNothing() {
+        when(store.check(new UUID(0, 0), 2)).thenReturn(List.of(new UserRatingStore.Check(new UUID(0, 1), false)));
+
+        assertEquals(0, verifier.verifyAll());
+
+        verify(store, never()).recompute(any());
+        verifyNoInteractions(userContextCache);
+    }
+}